@@ -1,10 +1,106 @@
 import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class App {
            public static void main(String[] args) {
+        if (args.length > 0 && "--servidor".equals(args[0])) {
+            iniciarServidor(args);
+            return;
+        }
+        if (args.length > 0 && "--ingesta".equals(args[0])) {
+            iniciarIngesta(args);
+            return;
+        }
+        if (args.length > 0 && "--compactar".equals(args[0])) {
+            compactar();
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             LoginWindow login = new LoginWindow();
             login.setVisible(true);
         });
-    } 
+    }
+
+    /**
+     * Modo sin interfaz: java App --servidor [puerto] [direccion]
+     * Por defecto escucha solo en 127.0.0.1; otra dirección requiere un proxy con TLS delante
+     */
+    private static void iniciarServidor(String[] args) {
+        int puerto = ServidorApi.PUERTO_POR_DEFECTO;
+        String direccion = args.length > 2 ? args[2] : ServidorApi.DIRECCION_POR_DEFECTO;
+        if (args.length > 1) {
+            try {
+                puerto = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.err.println("Puerto inválido: " + args[1]);
+                System.exit(1);
+            }
+        }
+
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        db.iniciarDepuracionNotificaciones();
+        ServidorApi servidor = new ServidorApi(direccion, puerto);
+        try {
+            servidor.iniciar();
+        } catch (IOException e) {
+            System.err.println("Error al iniciar el servidor: " + e.getMessage());
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.detener();
+            db.cerrarConexion();
+        }, "cierre-servidor"));
+    }
+
+    /**
+     * Mantenimiento: java App --compactar
+     * VACUUM completo; conviene ejecutarlo con los demás clientes cerrados
+     */
+    private static void compactar() {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        boolean exitoso = DepuradorNotificaciones.compactar();
+        db.cerrarConexion();
+        if (!exitoso) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Modo sin interfaz: java App --ingesta [carpeta] [hilos]
+     * Carga los PDFs de proyectos que se dejan en la carpeta (por defecto data/bandeja)
+     */
+    private static void iniciarIngesta(String[] args) {
+        Path bandeja = Paths.get(args.length > 1 ? args[1] : "data/bandeja");
+        int hilos = 0;
+        if (args.length > 2) {
+            try {
+                hilos = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                System.err.println("Cantidad de hilos inválida: " + args[2]);
+                System.exit(1);
+            }
+        }
+
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        IngestaPDF ingesta = new IngestaPDF(bandeja, hilos);
+        try {
+            ingesta.iniciar();
+        } catch (IOException e) {
+            System.err.println("Error al iniciar la ingesta: " + e.getMessage());
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ingesta.detener();
+            db.cerrarConexion();
+        }, "cierre-ingesta"));
+
+        // Los hilos de la ingesta son daemon: el principal mantiene vivo el proceso
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,93 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Formato comprimido de un lote de notificaciones archivadas
+ * Una línea por notificación (id, fecha en milisegundos, id de usuario, leída e
+ * información, separados por tabulador) comprimida con GZIP. Se comprime el lote
+ * completo y no cada fila, porque los textos se repiten mucho entre notificaciones.
+ */
+public final class ArchivoNotificaciones {
+
+    private ArchivoNotificaciones() {
+    }
+
+    public static byte[] comprimir(List<Notificacion> notificaciones) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            for (Notificacion n : notificaciones) {
+                out.write(Integer.toString(n.getId()));
+                out.write('\t');
+                out.write(Long.toString(n.getFecha() != null ? n.getFecha().getTime() : 0));
+                out.write('\t');
+                out.write(Integer.toString(n.getIdUsuario()));
+                out.write('\t');
+                out.write(n.isLeida() ? '1' : '0');
+                out.write('\t');
+                out.write(escapar(n.getInformacion()));
+                out.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<Notificacion> descomprimir(byte[] datos) throws IOException {
+        List<Notificacion> notificaciones = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(datos)), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = in.readLine()) != null) {
+                String[] campos = linea.split("\t", 5);
+                if (campos.length != 5) {
+                    throw new IOException("Línea de archivo inválida: " + linea);
+                }
+                Notificacion n = new Notificacion(
+                    Integer.parseInt(campos[0]),
+                    new Date(Long.parseLong(campos[1])),
+                    desescapar(campos[4]),
+                    Integer.parseInt(campos[2])
+                );
+                n.setLeida("1".equals(campos[3]));
+                notificaciones.add(n);
+            }
+        }
+        return notificaciones;
+    }
+
+    private static String escapar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return texto.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String desescapar(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '\\' && i + 1 < texto.length()) {
+                char siguiente = texto.charAt(++i);
+                switch (siguiente) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(siguiente); break;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
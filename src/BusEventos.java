@@ -0,0 +1,150 @@
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bus de eventos de dominio dentro del proceso
+ * Los DAO publican un EventoEntidad por cada fila insertada, actualizada o eliminada
+ * y las pestañas se suscriben por tipo de entidad para corregir solo las filas afectadas
+ * en lugar de recargar la tabla completa.
+ * La entrega es asíncrona y en el EDT: los eventos publicados entre dos ciclos del EDT
+ * se agrupan, se combinan por entidad e id, y cada oyente recibe una sola lista.
+ */
+public final class BusEventos {
+    private static final BusEventos INSTANCIA = new BusEventos();
+
+    /**
+     * Oyente de cambios de un tipo de entidad (se ejecuta en el EDT)
+     */
+    @FunctionalInterface
+    public interface Oyente {
+        void alCambiar(List<EventoEntidad> eventos);
+    }
+
+    /**
+     * Suscripción activa; cancelar() deja de entregar eventos al oyente
+     */
+    public final class Suscripcion {
+        private final EventoEntidad.Tipo tipo;
+        private final Oyente oyente;
+
+        private Suscripcion(EventoEntidad.Tipo tipo, Oyente oyente) {
+            this.tipo = tipo;
+            this.oyente = oyente;
+        }
+
+        public void cancelar() {
+            oyentes.get(tipo).remove(oyente);
+        }
+    }
+
+    private final Map<EventoEntidad.Tipo, List<Oyente>> oyentes = new EnumMap<>(EventoEntidad.Tipo.class);
+    private final ConcurrentLinkedQueue<EventoEntidad> pendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean despachoProgramado = new AtomicBoolean(false);
+
+    private BusEventos() {
+        for (EventoEntidad.Tipo tipo : EventoEntidad.Tipo.values()) {
+            oyentes.put(tipo, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    public static BusEventos getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Suscribe un oyente a los cambios de un tipo de entidad
+     */
+    public Suscripcion suscribir(EventoEntidad.Tipo tipo, Oyente oyente) {
+        oyentes.get(tipo).add(oyente);
+        return new Suscripcion(tipo, oyente);
+    }
+
+    /**
+     * Publica un cambio; puede llamarse desde cualquier hilo
+     */
+    public void publicar(EventoEntidad.Tipo tipo, int id, EventoEntidad.Operacion operacion) {
+        if (id <= 0 || oyentes.get(tipo).isEmpty()) {
+            return;
+        }
+        pendientes.add(new EventoEntidad(tipo, id, operacion));
+        // Un solo despacho por ciclo del EDT, sin importar cuántos eventos lleguen
+        if (despachoProgramado.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::despachar);
+        }
+    }
+
+    /**
+     * Avisa a los oyentes de un tipo que deben recargar todo en lugar de corregir filas
+     * (por ejemplo, cuando no se pudo saber qué filas cambiaron)
+     */
+    public void publicarRecarga(EventoEntidad.Tipo tipo) {
+        if (oyentes.get(tipo).isEmpty()) {
+            return;
+        }
+        pendientes.add(new EventoEntidad(tipo, 0, EventoEntidad.Operacion.RECARGA));
+        if (despachoProgramado.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::despachar);
+        }
+    }
+
+    private void despachar() {
+        // Lo publicado a partir de aquí programa el siguiente despacho
+        despachoProgramado.set(false);
+
+        Map<Long, EventoEntidad> combinados = new LinkedHashMap<>();
+        EventoEntidad evento;
+        while ((evento = pendientes.poll()) != null) {
+            long clave = ((long) evento.getTipo().ordinal() << 32) | (evento.getId() & 0xFFFFFFFFL);
+            EventoEntidad combinado = combinar(combinados.get(clave), evento);
+            if (combinado == null) {
+                combinados.remove(clave);
+            } else {
+                combinados.put(clave, combinado);
+            }
+        }
+        if (combinados.isEmpty()) {
+            return;
+        }
+
+        Map<EventoEntidad.Tipo, List<EventoEntidad>> porTipo = new EnumMap<>(EventoEntidad.Tipo.class);
+        for (EventoEntidad e : combinados.values()) {
+            porTipo.computeIfAbsent(e.getTipo(), t -> new ArrayList<>()).add(e);
+        }
+        for (Map.Entry<EventoEntidad.Tipo, List<EventoEntidad>> entrada : porTipo.entrySet()) {
+            for (Oyente oyente : oyentes.get(entrada.getKey())) {
+                try {
+                    oyente.alCambiar(entrada.getValue());
+                } catch (RuntimeException e) {
+                    System.err.println("Error al despachar eventos: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Combina dos cambios de la misma fila publicados en el mismo ciclo.
+     * Devuelve null si se anulan (insertada y eliminada antes de mostrarse).
+     */
+    private static EventoEntidad combinar(EventoEntidad anterior, EventoEntidad nuevo) {
+        if (anterior == null) {
+            return nuevo;
+        }
+        EventoEntidad.Operacion previa = anterior.getOperacion();
+        EventoEntidad.Operacion actual = nuevo.getOperacion();
+        if (previa == EventoEntidad.Operacion.INSERTADO) {
+            return actual == EventoEntidad.Operacion.ELIMINADO ? null : anterior;
+        }
+        if (previa == EventoEntidad.Operacion.ELIMINADO && actual == EventoEntidad.Operacion.INSERTADO) {
+            // SQLite puede reutilizar el id más alto eliminado
+            return new EventoEntidad(nuevo.getTipo(), nuevo.getId(), EventoEntidad.Operacion.ACTUALIZADO);
+        }
+        return nuevo;
+    }
+}
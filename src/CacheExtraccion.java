@@ -0,0 +1,192 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché persistente de los valores que ExtractorPDF obtiene de un PDF
+ * La clave es el SHA-256 del contenido del archivo más la versión de la plantilla,
+ * así que un archivo renombrado o movido sigue acertando y uno modificado no.
+ * Se guarda en la tabla cache_extraccion y se conservan solo las MAX_ENTRADAS usadas
+ * más recientemente. Un error de la base se trata como un fallo: se vuelve a leer el PDF.
+ */
+public class CacheExtraccion {
+    private static final int MAX_ENTRADAS = 5000;
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    // ultimo_uso solo se actualiza si tiene más de esta antigüedad: para el orden LRU
+    // alcanza con la hora, y un acierto no debe pelear por el escritor en cada lectura
+    private static final long PRECISION_ULTIMO_USO_MS = 60 * 60 * 1000;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static CacheExtraccion instance;
+
+    private final DatabaseConnection db;
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    private CacheExtraccion() {
+        db = DatabaseConnection.getInstance();
+    }
+
+    public static synchronized CacheExtraccion getInstance() {
+        if (instance == null) {
+            instance = new CacheExtraccion();
+        }
+        return instance;
+    }
+
+    /**
+     * SHA-256 del contenido del archivo, leído por bloques sin cargarlo entero en memoria
+     */
+    public static String hashArchivo(File archivo) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[TAMANO_BUFFER];
+        try (InputStream in = Files.newInputStream(archivo.toPath())) {
+            int leidos;
+            while ((leidos = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, leidos);
+            }
+        }
+        return hexadecimal(digest.digest());
+    }
+
+    static String hexadecimal(byte[] bytes) {
+        char[] texto = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            texto[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            texto[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(texto);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Valores guardados para el archivo y la versión de plantilla
+     * @return Una copia de los valores, o null si no están en la caché
+     */
+    public Map<String, String> obtener(String hash, String version) {
+        String sql = "SELECT valores, ultimo_uso FROM cache_extraccion WHERE hash = ? AND version = ?";
+        String json = null;
+        long ultimoUso = 0;
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, hash);
+            pstmt.setString(2, version);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    json = rs.getString("valores");
+                    ultimoUso = rs.getLong("ultimo_uso");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al leer la caché de extracción: " + e.getMessage());
+        }
+        if (json == null) {
+            fallos.incrementAndGet();
+            return null;
+        }
+
+        Map<String, String> valores = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Object> entrada : Json.leerObjeto(json).entrySet()) {
+                if (entrada.getValue() != null) {
+                    valores.put(entrada.getKey(), entrada.getValue().toString());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error al leer la caché de extracción: " + e.getMessage());
+            fallos.incrementAndGet();
+            return null;
+        }
+        aciertos.incrementAndGet();
+        long ahora = System.currentTimeMillis();
+        if (ahora - ultimoUso >= PRECISION_ULTIMO_USO_MS) {
+            marcarUso(hash, version, ahora);
+        }
+        return valores;
+    }
+
+    private void marcarUso(String hash, String version, long ahora) {
+        // La condición evita reescribir si otro hilo o cliente ya la marcó
+        String sql = "UPDATE cache_extraccion SET ultimo_uso = ? WHERE hash = ? AND version = ? AND ultimo_uso < ?";
+        try {
+            db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setLong(1, ahora);
+                    pstmt.setString(2, hash);
+                    pstmt.setString(3, version);
+                    pstmt.setLong(4, ahora - PRECISION_ULTIMO_USO_MS);
+                    return pstmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar la caché de extracción: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Guarda los valores extraídos y descarta las entradas usadas hace más tiempo
+     * si se supera MAX_ENTRADAS
+     */
+    public void guardar(String hash, String version, Map<String, String> valores) {
+        String sqlInsertar = "INSERT OR REPLACE INTO cache_extraccion (hash, version, valores, ultimo_uso) VALUES (?, ?, ?, ?)";
+        String sqlDescartar = "DELETE FROM cache_extraccion WHERE ultimo_uso < " +
+            "(SELECT ultimo_uso FROM cache_extraccion ORDER BY ultimo_uso DESC LIMIT 1 OFFSET ?)";
+        try {
+            db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlInsertar)) {
+                    pstmt.setString(1, hash);
+                    pstmt.setString(2, version);
+                    pstmt.setString(3, Json.escribir(valores));
+                    pstmt.setLong(4, System.currentTimeMillis());
+                    pstmt.executeUpdate();
+                }
+                // Sin fila en el OFFSET la subconsulta da NULL y no se borra nada
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlDescartar)) {
+                    pstmt.setInt(1, MAX_ENTRADAS - 1);
+                    return pstmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al guardar en la caché de extracción: " + e.getMessage());
+        }
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    /**
+     * Porcentaje de consultas que se resolvieron sin abrir el PDF
+     */
+    public double getTasaAciertos() {
+        long total = aciertos.get() + fallos.get();
+        return total == 0 ? 0 : 100.0 * aciertos.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Caché de extracción: %d aciertos, %d fallos (%.1f%%)",
+            getAciertos(), getFallos(), getTasaAciertos());
+    }
+}
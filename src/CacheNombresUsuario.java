@@ -0,0 +1,193 @@
+/**
+ * Caché acotada id de usuario → nombre para mostrar ("Nombre Apellido")
+ * Usa claves int primitivas en una tabla de direccionamiento abierto (sin objetos
+ * Integer ni entradas de mapa por elemento). Al llenarse desaloja con el algoritmo
+ * del reloj (segunda oportunidad), que aproxima LRU sin reordenar en cada lectura.
+ * UsuarioDAO la mantiene al día al insertar, actualizar y eliminar usuarios, y
+ * VigilanteCambios invalida los usuarios que cambian desde otros clientes.
+ */
+public final class CacheNombresUsuario {
+    private static final int CAPACIDAD_PREDETERMINADA = 1024;
+    private static final int VACIO = 0; // los ids de SQLite empiezan en 1
+
+    private static final CacheNombresUsuario INSTANCIA = new CacheNombresUsuario(CAPACIDAD_PREDETERMINADA);
+
+    private final int capacidad;
+    private final int mascara;
+    private final int[] claves;
+    private final String[] nombres;
+    private final boolean[] referenciados;
+    private int tamano;
+    private int manecilla;
+
+    private long aciertos;
+    private long fallos;
+
+    public CacheNombresUsuario(int capacidad) {
+        this.capacidad = Math.max(1, capacidad);
+        // Tabla al doble de la capacidad (potencia de dos) para mantener cortas las secuencias de sondeo
+        int tamanoTabla = Integer.highestOneBit(this.capacidad * 2 - 1) << 1;
+        this.mascara = tamanoTabla - 1;
+        this.claves = new int[tamanoTabla];
+        this.nombres = new String[tamanoTabla];
+        this.referenciados = new boolean[tamanoTabla];
+    }
+
+    public static CacheNombresUsuario getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Nombre guardado para el id, o null si no está en caché
+     */
+    public synchronized String obtener(int id) {
+        int i = buscar(id);
+        if (i < 0) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        referenciados[i] = true;
+        return nombres[i];
+    }
+
+    /**
+     * Indica si el id está en caché (sin contar acierto ni fallo)
+     */
+    public synchronized boolean contiene(int id) {
+        return buscar(id) >= 0;
+    }
+
+    /**
+     * Guarda o reemplaza el nombre de un usuario
+     */
+    public synchronized void guardar(int id, String nombre) {
+        if (id == VACIO || nombre == null) {
+            return;
+        }
+        int i = buscar(id);
+        if (i >= 0) {
+            nombres[i] = nombre;
+            referenciados[i] = true;
+            return;
+        }
+        if (tamano >= capacidad) {
+            desalojar();
+        }
+        i = posicion(id);
+        while (claves[i] != VACIO) {
+            i = (i + 1) & mascara;
+        }
+        claves[i] = id;
+        nombres[i] = nombre;
+        referenciados[i] = false;
+        tamano++;
+    }
+
+    /**
+     * Quita un usuario de la caché (por ejemplo, al eliminarlo)
+     */
+    public synchronized void invalidar(int id) {
+        int i = buscar(id);
+        if (i >= 0) {
+            quitar(i);
+        }
+    }
+
+    public synchronized void limpiar() {
+        java.util.Arrays.fill(claves, VACIO);
+        java.util.Arrays.fill(nombres, null);
+        java.util.Arrays.fill(referenciados, false);
+        tamano = 0;
+        manecilla = 0;
+    }
+
+    public synchronized int getTamano() {
+        return tamano;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    private int posicion(int id) {
+        int h = id * 0x9E3779B9; // dispersión de Fibonacci
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private int buscar(int id) {
+        if (id == VACIO) {
+            return -1;
+        }
+        int i = posicion(id);
+        while (claves[i] != VACIO) {
+            if (claves[i] == id) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Algoritmo del reloj: la manecilla recorre la tabla dando una segunda
+     * oportunidad a las entradas leídas desde la última vuelta
+     */
+    private void desalojar() {
+        while (true) {
+            int i = manecilla;
+            manecilla = (manecilla + 1) & mascara;
+            if (claves[i] == VACIO) {
+                continue;
+            }
+            if (referenciados[i]) {
+                referenciados[i] = false;
+            } else {
+                quitar(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Quita la entrada y reacomoda las siguientes de la secuencia de sondeo
+     * (borrado con desplazamiento hacia atrás, sin marcas de borrado)
+     */
+    private void quitar(int i) {
+        claves[i] = VACIO;
+        nombres[i] = null;
+        referenciados[i] = false;
+        tamano--;
+
+        int j = (i + 1) & mascara;
+        while (claves[j] != VACIO) {
+            int ideal = posicion(claves[j]);
+            // La entrada en j puede ocupar el hueco i si su posición ideal no está entre i (excl.) y j (incl.)
+            boolean entre = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+            if (!entre) {
+                claves[i] = claves[j];
+                nombres[i] = nombres[j];
+                referenciados[i] = referenciados[j];
+                claves[j] = VACIO;
+                nombres[j] = null;
+                referenciados[j] = false;
+                i = j;
+            }
+            j = (j + 1) & mascara;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CacheNombresUsuario{" +
+                "tamano=" + tamano +
+                ", capacidad=" + capacidad +
+                ", aciertos=" + aciertos +
+                ", fallos=" + fallos +
+                '}';
+    }
+}
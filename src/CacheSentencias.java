@@ -0,0 +1,216 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché LRU de PreparedStatement de una conexión física, indexada por el texto SQL
+ * Evita que SQLite vuelva a compilar la misma sentencia en cada llamada a un DAO.
+ * Las sentencias se entregan envueltas: close() cierra sus ResultSet, limpia los
+ * parámetros y la deja disponible para el siguiente uso en lugar de finalizarla.
+ * Una conexión física la usa un solo hilo a la vez (la presta PoolConexiones).
+ */
+public class CacheSentencias {
+    private final int capacidad;
+    private final AtomicLong aciertos;
+    private final AtomicLong fallos;
+    private final Map<String, Entrada> entradas;
+
+    /**
+     * Crea la sentencia física cuando no está en caché
+     */
+    @FunctionalInterface
+    public interface CreadorSentencia {
+        PreparedStatement crear() throws SQLException;
+    }
+
+    /**
+     * @param capacidad Cantidad máxima de sentencias guardadas
+     * @param aciertos Contador compartido de sentencias reutilizadas
+     * @param fallos Contador compartido de sentencias compiladas
+     */
+    public CacheSentencias(int capacidad, AtomicLong aciertos, AtomicLong fallos) {
+        this.capacidad = capacidad;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.entradas = new LinkedHashMap<String, Entrada>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() > CacheSentencias.this.capacidad) {
+                    eldest.getValue().desalojar();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve la sentencia guardada para la clave o la crea y la guarda.
+     * Si la sentencia guardada está en uso (consultas anidadas con el mismo SQL)
+     * se entrega una sentencia aparte que se cierra normalmente.
+     */
+    public synchronized PreparedStatement obtener(String clave, CreadorSentencia creador) throws SQLException {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && !entrada.enUso) {
+            aciertos.incrementAndGet();
+            return entrada.prestar();
+        }
+
+        fallos.incrementAndGet();
+        PreparedStatement fisica = creador.crear();
+        if (entrada != null) {
+            return fisica;
+        }
+        entrada = new Entrada(clave, fisica);
+        entradas.put(clave, entrada);
+        return entrada.prestar();
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Finaliza todas las sentencias guardadas (al cerrar la conexión física)
+     */
+    public synchronized void cerrar() {
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            it.next().desalojar();
+            it.remove();
+        }
+    }
+
+    private static void cerrarSilencioso(AutoCloseable recurso) {
+        try {
+            recurso.close();
+        } catch (Exception e) {
+            System.err.println("Error al cerrar sentencia: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sentencia guardada y su estado de préstamo
+     */
+    private class Entrada {
+        final String clave;
+        final PreparedStatement fisica;
+        boolean enUso = false;
+        boolean desalojada = false;
+
+        Entrada(String clave, PreparedStatement fisica) {
+            this.clave = clave;
+            this.fisica = fisica;
+        }
+
+        PreparedStatement prestar() {
+            enUso = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                CacheSentencias.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new ManejadorSentencia(this));
+        }
+
+        void devolver() {
+            synchronized (CacheSentencias.this) {
+                enUso = false;
+                if (desalojada) {
+                    cerrarSilencioso(fisica);
+                }
+            }
+        }
+
+        // Sentencia en estado dudoso: se quita de la caché y se finaliza
+        void descartar() {
+            synchronized (CacheSentencias.this) {
+                if (entradas.get(clave) == this) {
+                    entradas.remove(clave);
+                }
+                enUso = false;
+                desalojada = true;
+                cerrarSilencioso(fisica);
+            }
+        }
+
+        // Se llama con el candado de la caché tomado
+        void desalojar() {
+            desalojada = true;
+            if (!enUso) {
+                cerrarSilencioso(fisica);
+            }
+        }
+    }
+
+    /**
+     * Envoltorio de un préstamo de sentencia: close() la devuelve a la caché
+     */
+    private static class ManejadorSentencia implements InvocationHandler {
+        private final Entrada entrada;
+        private final List<ResultSet> resultados = new ArrayList<>(1);
+        private boolean devuelta = false;
+
+        ManejadorSentencia(Entrada entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        liberar();
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || entrada.fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaEnCache[" + entrada.fisica + "]";
+                default:
+                    break;
+            }
+            if (devuelta) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+            Object resultado;
+            try {
+                resultado = method.invoke(entrada.fisica, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultado instanceof ResultSet) {
+                resultados.add((ResultSet) resultado);
+            }
+            return resultado;
+        }
+
+        private void liberar() {
+            // Los DAOs no siempre cierran el ResultSet: se cierra aquí para liberar el cursor
+            for (ResultSet rs : resultados) {
+                cerrarSilencioso(rs);
+            }
+            resultados.clear();
+            try {
+                entrada.fisica.clearParameters();
+                entrada.fisica.clearBatch();
+                entrada.devolver();
+            } catch (SQLException e) {
+                entrada.descartar();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Permite interrumpir la consulta SQL en curso de una carga en segundo plano
+ * CargaAsincrona asocia una instancia al hilo que ejecuta la carga; los DAOs
+ * registran la sentencia que están ejecutando con registrar()/quitar(), de modo
+ * que al cancelar la carga se llama Statement.cancel() y SQLite detiene la
+ * consulta en lugar de terminarla para descartar el resultado.
+ */
+public class CancelacionConsulta {
+    private static final ThreadLocal<CancelacionConsulta> ACTUAL = new ThreadLocal<>();
+
+    private Statement sentencia;
+    private boolean cancelada = false;
+
+    /**
+     * Asocia la cancelación al hilo actual (null para quitarla)
+     */
+    static void asociar(CancelacionConsulta cancelacion) {
+        if (cancelacion == null) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(cancelacion);
+        }
+    }
+
+    /**
+     * Registra la sentencia que el hilo actual va a ejecutar.
+     * Si la carga ya fue cancelada, lanza SQLException sin ejecutarla.
+     */
+    public static void registrar(Statement sentencia) throws SQLException {
+        CancelacionConsulta cancelacion = ACTUAL.get();
+        if (cancelacion != null) {
+            cancelacion.establecer(sentencia);
+        }
+    }
+
+    /**
+     * Quita la sentencia registrada; debe llamarse antes de cerrarla
+     */
+    public static void quitar() {
+        CancelacionConsulta cancelacion = ACTUAL.get();
+        if (cancelacion != null) {
+            synchronized (cancelacion) {
+                cancelacion.sentencia = null;
+            }
+        }
+    }
+
+    private synchronized void establecer(Statement sentencia) throws SQLException {
+        if (cancelada) {
+            throw new SQLException("Consulta cancelada");
+        }
+        this.sentencia = sentencia;
+    }
+
+    /**
+     * Interrumpe la sentencia registrada, si hay una en ejecución
+     */
+    public synchronized void cancelar() {
+        cancelada = true;
+        if (sentencia != null) {
+            try {
+                sentencia.cancel();
+            } catch (SQLException e) {
+                System.err.println("Error al cancelar consulta: " + e.getMessage());
+            }
+            sentencia = null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import javax.swing.JComponent;
+import javax.swing.JProgressBar;
+import javax.swing.SwingWorker;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Carga de datos fuera del hilo de eventos de Swing (EDT)
+ * La consulta se ejecuta en un pool de hilos en segundo plano y el resultado
+ * se entrega al EDT en una sola actualización. Si se pide una carga nueva
+ * antes de que termine la anterior, la anterior se cancela y se descarta; si la
+ * consulta registró su sentencia en CancelacionConsulta, también se interrumpe en SQLite.
+ * Cada instancia corresponde a una pestaña y tiene su propio indicador de carga.
+ */
+public class CargaAsincrona {
+    private static final AtomicInteger CONTADOR_HILOS = new AtomicInteger();
+    private static final ExecutorService EJECUTOR = Executors.newFixedThreadPool(3, r -> {
+        Thread t = new Thread(r, "carga-datos-" + CONTADOR_HILOS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final JProgressBar indicador;
+    private SwingWorker<?, ?> actual;
+    private CancelacionConsulta cancelacionActual;
+
+    public CargaAsincrona() {
+        indicador = new JProgressBar();
+        indicador.setIndeterminate(true);
+        indicador.setStringPainted(true);
+        indicador.setString("Cargando...");
+        indicador.setVisible(false);
+    }
+
+    /**
+     * Indicador de carga para agregar al panel de la pestaña
+     */
+    public JComponent getIndicador() {
+        return indicador;
+    }
+
+    /**
+     * Ejecuta la consulta en segundo plano y aplica el resultado en el EDT.
+     * Debe llamarse desde el EDT.
+     * @param consulta Consulta a la base de datos (se ejecuta fuera del EDT)
+     * @param aplicar Actualización de la interfaz con el resultado (se ejecuta en el EDT)
+     */
+    public <T> void cargar(Callable<T> consulta, Consumer<T> aplicar) {
+        cancelar();
+
+        CancelacionConsulta cancelacion = new CancelacionConsulta();
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                CancelacionConsulta.asociar(cancelacion);
+                try {
+                    return consulta.call();
+                } finally {
+                    CancelacionConsulta.asociar(null);
+                }
+            }
+
+            @Override
+            protected void done() {
+                // Una carga más reciente reemplazó a esta
+                if (actual != this || isCancelled()) {
+                    return;
+                }
+                actual = null;
+                cancelacionActual = null;
+                indicador.setVisible(false);
+                try {
+                    aplicar.accept(get());
+                } catch (ExecutionException e) {
+                    System.err.println("Error al cargar datos: " + e.getCause().getMessage());
+                } catch (InterruptedException | CancellationException e) {
+                    // Carga descartada
+                }
+            }
+        };
+
+        actual = worker;
+        cancelacionActual = cancelacion;
+        indicador.setVisible(true);
+        EJECUTOR.execute(worker);
+    }
+
+    /**
+     * Cancela la carga en curso, si existe
+     */
+    public void cancelar() {
+        if (actual != null) {
+            cancelacionActual.cancelar();
+            actual.cancel(true);
+            actual = null;
+            cancelacionActual = null;
+            indicador.setVisible(false);
+        }
+    }
+
+    public boolean estaCargando() {
+        return actual != null;
+    }
+
+    /**
+     * Pool de hilos compartido para trabajos de base de datos de la interfaz
+     */
+    public static ExecutorService getEjecutor() {
+        return EJECUTOR;
+    }
+}
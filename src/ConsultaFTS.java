@@ -0,0 +1,48 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convierte el texto escrito por el usuario en una consulta FTS5 segura
+ * Cada palabra se busca como prefijo ("palabra"*) y todas deben aparecer.
+ * Las comillas y operadores de FTS5 del texto original no se interpretan.
+ */
+public final class ConsultaFTS {
+
+    private ConsultaFTS() {
+    }
+
+    /**
+     * Consulta de prefijos para MATCH, o null si el texto no tiene palabras
+     */
+    public static String prefijos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto != null) {
+            StringBuilder palabra = new StringBuilder();
+            for (int i = 0; i < texto.length(); ) {
+                int c = texto.codePointAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    palabra.appendCodePoint(c);
+                } else if (palabra.length() > 0) {
+                    terminos.add(palabra.toString());
+                    palabra.setLength(0);
+                }
+                i += Character.charCount(c);
+            }
+            if (palabra.length() > 0) {
+                terminos.add(palabra.toString());
+            }
+        }
+        if (terminos.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder consulta = new StringBuilder();
+        for (String termino : terminos) {
+            if (consulta.length() > 0) {
+                consulta.append(' ');
+            }
+            consulta.append('"').append(termino).append("\"*");
+        }
+        return consulta.toString();
+    }
+}
@@ -1,15 +1,32 @@
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Clase para manejar la conexión a la base de datos SQLite
+ * Las conexiones se obtienen de un pool: varias de lectura y una de escritura
  */
 public class DatabaseConnection {
     private static final String DB_URL = "jdbc:sqlite:data/data.sqlite";
-    private static DatabaseConnection instance;
-    private Connection connection;
+    
+    // Configuración del pool
+    private static final int MAX_CONEXIONES_LECTURA = 4;
+    private static final int MIN_LECTURAS_INACTIVAS = 1;
+    private static final long ESPERA_MAXIMA_MS = 5000;
+    private static final long INACTIVIDAD_MAXIMA_MS = 60000;
+    private static final int SENTENCIAS_POR_CONEXION = 64;
+    private static final long INTERVALO_VIGILANCIA_MS = 1000;
+    
+    private static volatile DatabaseConnection instance;
+    private final PerfilAlmacenamiento perfil;
+    private final ReintentoSQLite reintento;
+    private final PoolConexiones pool;
+    private volatile VigilanteCambios vigilante;
+    private DepuradorNotificaciones depurador;
     
     // Bloque estático para cargar el driver
     static {
@@ -22,63 +39,234 @@ public class DatabaseConnection {
     
     // Constructor privado (Singleton)
     private DatabaseConnection() {
-        try {
-            connection = DriverManager.getConnection(DB_URL);
-            System.out.println("Conexión a la base de datos establecida.");
-            inicializarTablas();
-        } catch (SQLException e) {
-            System.err.println("Error al conectar: " + e.getMessage());
-        }
+        perfil = PerfilAlmacenamiento.cargar();
+        reintento = perfil.crearReintento();
+        pool = new PoolConexiones(DB_URL, MAX_CONEXIONES_LECTURA, MIN_LECTURAS_INACTIVAS,
+                ESPERA_MAXIMA_MS, INACTIVIDAD_MAXIMA_MS, SENTENCIAS_POR_CONEXION, this::configurarConexion);
+        System.out.println("Pool de conexiones creado. " + perfil);
+        inicializarTablas();
     }
     
     /**
-     * Obtiene la instancia única de la conexión (Patrón Singleton)
+     * Obtiene la instancia única de la conexión (Patrón Singleton, seguro entre hilos)
      */
     public static DatabaseConnection getInstance() {
-        if (instance == null) {
-            instance = new DatabaseConnection();
+        DatabaseConnection resultado = instance;
+        if (resultado == null) {
+            synchronized (DatabaseConnection.class) {
+                resultado = instance;
+                if (resultado == null) {
+                    resultado = new DatabaseConnection();
+                    instance = resultado;
+                }
+            }
         }
-        return instance;
+        return resultado;
     }
     
     /**
-     * Obtiene la conexión activa
+     * Presta una conexión de solo lectura del pool.
+     * Debe cerrarse (try-with-resources) para devolverla.
      */
-    public Connection getConnection() {
+    public Connection obtenerConexionLectura() throws SQLException {
+        return pool.obtenerLectura();
+    }
+    
+    /**
+     * Presta la conexión de escritura del pool.
+     * Debe cerrarse (try-with-resources) para devolverla.
+     */
+    public Connection obtenerConexionEscritura() throws SQLException {
+        return pool.obtenerEscritura();
+    }
+    
+    /**
+     * Ejecuta una operación de escritura sobre la conexión de escritura,
+     * reintentando con espera creciente si la base está ocupada por otro cliente
+     */
+    public <T> T ejecutarEscritura(OperacionSQL<T> operacion) throws SQLException {
+        try (Connection conn = pool.obtenerEscritura()) {
+            T resultado = reintento.ejecutar(conn, operacion);
+            recogerCambiosPropios(conn);
+            return resultado;
+        }
+    }
+    
+    /**
+     * Ejecuta una operación dentro de una transacción en la conexión de escritura:
+     * confirma si termina bien y deshace todo si lanza una excepción.
+     * Si el hilo ya está dentro de una transacción, la operación se une a ella.
+     * Si la base está ocupada se reintenta la transacción completa.
+     */
+    public <T> T ejecutarTransaccion(OperacionSQL<T> operacion) throws SQLException {
+        try (Connection conn = pool.obtenerEscritura()) {
+            if (!conn.getAutoCommit()) {
+                return operacion.ejecutar(conn);
+            }
+            T confirmado = reintento.ejecutar(conn, c -> {
+                c.setAutoCommit(false);
+                try {
+                    T resultado = operacion.ejecutar(c);
+                    c.commit();
+                    return resultado;
+                } catch (SQLException | RuntimeException e) {
+                    c.rollback();
+                    throw e;
+                } finally {
+                    c.setAutoCommit(true);
+                }
+            });
+            recogerCambiosPropios(conn);
+            return confirmado;
+        }
+    }
+    
+    private void configurarConexion(Connection conn, boolean esEscritura) throws SQLException {
+        perfil.aplicar(conn, esEscritura);
+        if (esEscritura && vigilante != null) {
+            marcarCambiosPropios(conn);
+        }
+    }
+    
+    /**
+     * Con la vigilancia activa, un trigger temporal (solo de la conexión de escritura de
+     * este proceso) anota los ids de registro_cambios que generan sus propias escrituras.
+     * Los DAO ya publicaron esos eventos; VigilanteCambios los descarta para no volver a
+     * consultar cada fila afectada.
+     */
+    private static void marcarCambiosPropios(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM main.sqlite_master WHERE type = 'table' AND name = 'registro_cambios'")) {
+                if (!rs.next()) {
+                    return;
+                }
+            }
+            stmt.execute("CREATE TEMP TABLE IF NOT EXISTS cambios_propios (id INTEGER PRIMARY KEY)");
+            stmt.execute("CREATE TEMP TRIGGER IF NOT EXISTS registro_cambios_propios " +
+                    "AFTER INSERT ON main.registro_cambios BEGIN " +
+                    "INSERT OR IGNORE INTO cambios_propios(id) VALUES (new.id); END");
+        }
+    }
+    
+    /**
+     * Pasa a VigilanteCambios los ids que anotó el trigger temporal desde la última
+     * escritura confirmada (dentro de una transacción en curso no hay nada confirmado)
+     */
+    private void recogerCambiosPropios(Connection conn) {
+        VigilanteCambios actual = vigilante;
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL);
+            if (actual == null || !conn.getAutoCommit()) {
+                return;
             }
+            List<Long> ids = new ArrayList<>();
+            try (Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery("SELECT id FROM temp.cambios_propios")) {
+                    while (rs.next()) {
+                        ids.add(rs.getLong(1));
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    stmt.executeUpdate("DELETE FROM temp.cambios_propios");
+                }
+            }
+            actual.ignorar(ids);
         } catch (SQLException e) {
-            System.err.println("Error al obtener conexión: " + e.getMessage());
+            System.err.println("Error al leer los cambios propios: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Empieza a detectar los cambios hechos por otros clientes sobre el mismo archivo
+     * (una sola vez por proceso)
+     */
+    public synchronized void iniciarVigilanciaCambios() {
+        if (vigilante == null) {
+            try (Connection conn = pool.obtenerEscritura()) {
+                marcarCambiosPropios(conn);
+            } catch (SQLException e) {
+                System.err.println("Error al preparar la vigilancia de cambios: " + e.getMessage());
+            }
+            vigilante = new VigilanteCambios(DB_URL, perfil, INTERVALO_VIGILANCIA_MS);
+            vigilante.iniciar();
         }
-        return connection;
     }
     
     /**
-     * Inicializa las tablas de la base de datos
+     * Programa la depuración periódica de notificaciones según PoliticaRetencion
+     * (una sola vez por proceso)
+     */
+    public synchronized void iniciarDepuracionNotificaciones() {
+        if (depurador == null) {
+            PoliticaRetencion politica = PoliticaRetencion.cargar();
+            depurador = new DepuradorNotificaciones(politica);
+            depurador.iniciar();
+            System.out.println("Depuración de notificaciones programada. " + politica);
+        }
+    }
+    
+    /**
+     * Id de la última fila insertada en la conexión (usar en la misma operación de escritura)
+     */
+    public static int ultimoIdInsertado(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    /**
+     * Obtiene el perfil de almacenamiento aplicado a las conexiones
+     */
+    public PerfilAlmacenamiento getPerfil() {
+        return perfil;
+    }
+    
+    /**
+     * Obtiene las métricas del pool de conexiones
+     */
+    public PoolConexiones getPool() {
+        return pool;
+    }
+    
+    /**
+     * Inicializa las tablas de la base de datos aplicando las migraciones pendientes
      */
     private void inicializarTablas() {
-        try (Statement stmt = connection.createStatement()) {
-            // Tabla de Personas (legacy)
-            stmt.execute("CREATE TABLE IF NOT EXISTS name (" +
+        try (Connection connection = pool.obtenerEscritura()) {
+            int aplicadas = new MigradorEsquema(migraciones()).migrar(connection);
+            System.out.println(aplicadas == 0
+                    ? "Esquema de la base de datos al día."
+                    : "Esquema actualizado (" + aplicadas + " migraciones).");
+        } catch (SQLException e) {
+            System.err.println("Error al migrar el esquema: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Migraciones del esquema, en orden de versión.
+     * Una migración ya publicada no debe modificarse: los cambios nuevos van en una versión nueva.
+     */
+    private static List<Migracion> migraciones() {
+        return Arrays.asList(
+            Migracion.sql(1, "Tablas base",
+                // Tabla de Personas (legacy)
+                "CREATE TABLE IF NOT EXISTS name (" +
                     " id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     " first_name TEXT NOT NULL," +
                     " last_name TEXT NOT NULL" +
-                    ");");
-            
-            // Tabla de Usuarios
-            stmt.execute("CREATE TABLE IF NOT EXISTS usuarios (" +
+                    ")",
+                // Tabla de Usuarios
+                "CREATE TABLE IF NOT EXISTS usuarios (" +
                     " id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     " nombre TEXT NOT NULL," +
                     " apellido TEXT NOT NULL," +
                     " correo TEXT NOT NULL UNIQUE," +
                     " contraseña TEXT NOT NULL," +
                     " tipo TEXT NOT NULL DEFAULT 'Usuario'" + // Usuario, Director, Jefatura
-                    ");");
-            
-            // Tabla de Proyectos
-            stmt.execute("CREATE TABLE IF NOT EXISTS proyectos (" +
+                    ")",
+                // Tabla de Proyectos
+                "CREATE TABLE IF NOT EXISTS proyectos (" +
                     " id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     " nombre TEXT NOT NULL," +
                     " codigo TEXT NOT NULL UNIQUE," +
@@ -89,10 +277,9 @@ public class DatabaseConnection {
                     " num_ayudantes INTEGER DEFAULT 0," +
                     " id_usuario INTEGER," +
                     " FOREIGN KEY(id_usuario) REFERENCES usuarios(id)" +
-                    ");");
-
-            // Tabla de Formularios
-            stmt.execute("CREATE TABLE IF NOT EXISTS formularios (" +
+                    ")",
+                // Tabla de Formularios
+                "CREATE TABLE IF NOT EXISTS formularios (" +
                     " id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     " numero_ayudantes INTEGER," +
                     " nombre_ayudante TEXT NOT NULL," +
@@ -102,11 +289,9 @@ public class DatabaseConnection {
                     " estado TEXT DEFAULT 'Pendiente'," +
                     " id_proyecto INTEGER DEFAULT 0," +
                     " FOREIGN KEY (id_proyecto) REFERENCES proyectos(id)" +
-                    ");");
-
-            
-            // Tabla de Solicitudes
-            stmt.execute("CREATE TABLE IF NOT EXISTS solicitudes (" +
+                    ")",
+                // Tabla de Solicitudes
+                "CREATE TABLE IF NOT EXISTS solicitudes (" +
                     " id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     " fecha DATE NOT NULL," +
                     " asunto TEXT NOT NULL," +
@@ -118,48 +303,177 @@ public class DatabaseConnection {
                     " tipo_documento TEXT," +
                     " FOREIGN KEY (id_usuario) REFERENCES usuarios(id)," +
                     " FOREIGN KEY (id_director) REFERENCES usuarios(id)" +
-                    ");");
-            
-            // Tabla de Notificaciones
-            stmt.execute("CREATE TABLE IF NOT EXISTS notificaciones (" +
+                    ")",
+                // Tabla de Notificaciones
+                "CREATE TABLE IF NOT EXISTS notificaciones (" +
                     " id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     " fecha DATE NOT NULL," +
                     " informacion TEXT NOT NULL," +
                     " id_usuario INTEGER NOT NULL," +
                     " FOREIGN KEY (id_usuario) REFERENCES usuarios(id)" +
-                    ");");
-            
-            // Tabla de Planificación
-            stmt.execute("CREATE TABLE IF NOT EXISTS planificacion (" +
+                    ")",
+                // Tabla de Planificación
+                "CREATE TABLE IF NOT EXISTS planificacion (" +
                     " id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     " maximo_ayudantes INTEGER NOT NULL," +
                     " ayudantes_registrados INTEGER DEFAULT 0" +
-                    ");");
+                    ")"),
             
-            System.out.println("Todas las tablas han sido inicializadas.");
+            // Bases creadas antes de estas columnas (reemplaza las revisiones de cada arranque)
+            Migracion.codigo(2, "Columnas id_director en solicitudes e id_usuario en notificaciones",
+                "solicitudes.id_director; notificaciones.destinatario -> id_usuario",
+                conn -> {
+                    migrarEsquemaSolicitudes(conn);
+                    migrarEsquemaNotificaciones(conn);
+                }),
             
-            // Migrar esquema: agregar columna id_director si no existe
-            migrarEsquemaSolicitudes();
-            migrarEsquemaNotificaciones();
+            Migracion.sql(3, "Índices de claves foráneas y filtros",
+                "CREATE INDEX IF NOT EXISTS idx_formularios_id_proyecto ON formularios(id_proyecto)",
+                "CREATE INDEX IF NOT EXISTS idx_formularios_estado ON formularios(estado)",
+                "CREATE INDEX IF NOT EXISTS idx_solicitudes_id_usuario ON solicitudes(id_usuario)",
+                "CREATE INDEX IF NOT EXISTS idx_solicitudes_id_director ON solicitudes(id_director)",
+                "CREATE INDEX IF NOT EXISTS idx_solicitudes_estado ON solicitudes(estado)",
+                "CREATE INDEX IF NOT EXISTS idx_proyectos_id_usuario ON proyectos(id_usuario)",
+                "CREATE INDEX IF NOT EXISTS idx_notificaciones_id_usuario ON notificaciones(id_usuario)"),
             
-        } catch (SQLException e) {
-            System.err.println("Error al crear tablas: " + e.getMessage());
+            // Notificaciones generadas por una condición de un proyecto: una sola por (proyecto, director, condición)
+            Migracion.sql(4, "Clave de condición en notificaciones",
+                "ALTER TABLE notificaciones ADD COLUMN id_proyecto INTEGER",
+                "ALTER TABLE notificaciones ADD COLUMN condicion TEXT",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_notificaciones_condicion " +
+                    "ON notificaciones(id_proyecto, id_usuario, condicion) WHERE condicion IS NOT NULL"),
+            
+            // Búsqueda de texto completo: tablas FTS5 sobre el contenido de proyectos y usuarios,
+            // sin distinguir acentos (remove_diacritics) y con índices de prefijos
+            Migracion.sql(5, "Búsqueda de texto completo en proyectos y usuarios",
+                "CREATE VIRTUAL TABLE IF NOT EXISTS proyectos_fts USING fts5(" +
+                    "nombre, codigo, descripcion, content='proyectos', content_rowid='id', " +
+                    "tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+                "CREATE TRIGGER IF NOT EXISTS proyectos_fts_ai AFTER INSERT ON proyectos BEGIN " +
+                    "INSERT INTO proyectos_fts(rowid, nombre, codigo, descripcion) " +
+                    "VALUES (new.id, new.nombre, new.codigo, new.descripcion); END",
+                "CREATE TRIGGER IF NOT EXISTS proyectos_fts_ad AFTER DELETE ON proyectos BEGIN " +
+                    "INSERT INTO proyectos_fts(proyectos_fts, rowid, nombre, codigo, descripcion) " +
+                    "VALUES ('delete', old.id, old.nombre, old.codigo, old.descripcion); END",
+                "CREATE TRIGGER IF NOT EXISTS proyectos_fts_au AFTER UPDATE OF nombre, codigo, descripcion ON proyectos BEGIN " +
+                    "INSERT INTO proyectos_fts(proyectos_fts, rowid, nombre, codigo, descripcion) " +
+                    "VALUES ('delete', old.id, old.nombre, old.codigo, old.descripcion); " +
+                    "INSERT INTO proyectos_fts(rowid, nombre, codigo, descripcion) " +
+                    "VALUES (new.id, new.nombre, new.codigo, new.descripcion); END",
+                "INSERT INTO proyectos_fts(proyectos_fts) VALUES ('rebuild')",
+                "CREATE VIRTUAL TABLE IF NOT EXISTS usuarios_fts USING fts5(" +
+                    "nombre, apellido, correo, content='usuarios', content_rowid='id', " +
+                    "tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+                "CREATE TRIGGER IF NOT EXISTS usuarios_fts_ai AFTER INSERT ON usuarios BEGIN " +
+                    "INSERT INTO usuarios_fts(rowid, nombre, apellido, correo) " +
+                    "VALUES (new.id, new.nombre, new.apellido, new.correo); END",
+                "CREATE TRIGGER IF NOT EXISTS usuarios_fts_ad AFTER DELETE ON usuarios BEGIN " +
+                    "INSERT INTO usuarios_fts(usuarios_fts, rowid, nombre, apellido, correo) " +
+                    "VALUES ('delete', old.id, old.nombre, old.apellido, old.correo); END",
+                "CREATE TRIGGER IF NOT EXISTS usuarios_fts_au AFTER UPDATE OF nombre, apellido, correo ON usuarios BEGIN " +
+                    "INSERT INTO usuarios_fts(usuarios_fts, rowid, nombre, apellido, correo) " +
+                    "VALUES ('delete', old.id, old.nombre, old.apellido, old.correo); " +
+                    "INSERT INTO usuarios_fts(rowid, nombre, apellido, correo) " +
+                    "VALUES (new.id, new.nombre, new.apellido, new.correo); END",
+                "INSERT INTO usuarios_fts(usuarios_fts) VALUES ('rebuild')"),
+            
+            // Registro de cambios por fila para que otros clientes sobre el mismo archivo
+            // actualicen solo las filas afectadas (ver VigilanteCambios)
+            Migracion.sql(6, "Registro de cambios por tabla", sentenciasRegistroCambios()),
+            
+            // Estado de lectura persistido y contador de no leídas por usuario mantenido
+            // por triggers: mostrar el contador es una lectura por clave primaria
+            Migracion.sql(7, "Notificaciones leídas y contador de no leídas",
+                "ALTER TABLE notificaciones ADD COLUMN leida INTEGER NOT NULL DEFAULT 0",
+                "CREATE INDEX IF NOT EXISTS idx_notificaciones_no_leidas " +
+                    "ON notificaciones(id_usuario, id) WHERE leida = 0",
+                "CREATE TABLE IF NOT EXISTS notificaciones_no_leidas (" +
+                    " id_usuario INTEGER PRIMARY KEY," +
+                    " cantidad INTEGER NOT NULL DEFAULT 0" +
+                    ")",
+                "INSERT INTO notificaciones_no_leidas(id_usuario, cantidad) " +
+                    "SELECT id_usuario, COUNT(*) FROM notificaciones WHERE leida = 0 GROUP BY id_usuario",
+                "CREATE TRIGGER IF NOT EXISTS notificaciones_no_leidas_ai AFTER INSERT ON notificaciones " +
+                    "WHEN new.leida = 0 BEGIN " +
+                    "INSERT INTO notificaciones_no_leidas(id_usuario, cantidad) VALUES (new.id_usuario, 1) " +
+                    "ON CONFLICT(id_usuario) DO UPDATE SET cantidad = cantidad + 1; END",
+                "CREATE TRIGGER IF NOT EXISTS notificaciones_no_leidas_ad AFTER DELETE ON notificaciones " +
+                    "WHEN old.leida = 0 BEGIN " +
+                    "UPDATE notificaciones_no_leidas SET cantidad = cantidad - 1 WHERE id_usuario = old.id_usuario; END",
+                "CREATE TRIGGER IF NOT EXISTS notificaciones_no_leidas_au AFTER UPDATE OF leida, id_usuario ON notificaciones " +
+                    "BEGIN " +
+                    "UPDATE notificaciones_no_leidas SET cantidad = cantidad - 1 " +
+                    "WHERE id_usuario = old.id_usuario AND old.leida = 0; " +
+                    "INSERT INTO notificaciones_no_leidas(id_usuario, cantidad) SELECT new.id_usuario, 1 WHERE new.leida = 0 " +
+                    "ON CONFLICT(id_usuario) DO UPDATE SET cantidad = cantidad + 1; END"),
+            
+            // Retención: archivo comprimido por lotes y listado por usuario sin ordenar el historial
+            // (el índice nuevo reemplaza al de solo id_usuario, que es su prefijo)
+            Migracion.sql(8, "Archivo de notificaciones e índice por usuario y fecha",
+                "CREATE TABLE IF NOT EXISTS notificaciones_archivo (" +
+                    " id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    " fecha_archivo INTEGER NOT NULL," +
+                    " id_desde INTEGER NOT NULL," +
+                    " id_hasta INTEGER NOT NULL," +
+                    " cantidad INTEGER NOT NULL," +
+                    " datos BLOB NOT NULL" + // ArchivoNotificaciones (GZIP)
+                    ")",
+                "CREATE INDEX IF NOT EXISTS idx_notificaciones_usuario_fecha " +
+                    "ON notificaciones(id_usuario, fecha DESC, id DESC)",
+                "DROP INDEX IF EXISTS idx_notificaciones_id_usuario"),
+            
+            // Resultados de ExtractorPDF por contenido del archivo y versión de la plantilla
+            Migracion.sql(9, "Caché de extracción de PDFs",
+                "CREATE TABLE IF NOT EXISTS cache_extraccion (" +
+                    " hash TEXT NOT NULL," +          // SHA-256 del archivo
+                    " version TEXT NOT NULL," +       // PlantillaExtraccion.getVersion
+                    " valores TEXT NOT NULL," +       // JSON campo -> texto
+                    " ultimo_uso INTEGER NOT NULL," + // epoch ms, para descartar los menos usados
+                    " PRIMARY KEY (hash, version)" +
+                    ") WITHOUT ROWID",
+                "CREATE INDEX IF NOT EXISTS idx_cache_extraccion_ultimo_uso ON cache_extraccion(ultimo_uso)")
+        );
+    }
+    
+    private static String[] sentenciasRegistroCambios() {
+        String[] tablas = {"usuarios", "proyectos", "formularios", "solicitudes", "notificaciones"};
+        List<String> sentencias = new ArrayList<>();
+        sentencias.add("CREATE TABLE IF NOT EXISTS registro_cambios (" +
+                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " tabla TEXT NOT NULL," +
+                " id_fila INTEGER NOT NULL," +
+                " operacion TEXT NOT NULL," + // I, U, D; R = recargar la tabla completa
+                " fecha INTEGER NOT NULL DEFAULT (CAST(strftime('%s', 'now') AS INTEGER))" +
+                ")");
+        sentencias.add("CREATE INDEX IF NOT EXISTS idx_registro_cambios_fecha ON registro_cambios(fecha)");
+        for (String tabla : tablas) {
+            sentencias.add(disparadorCambio(tabla, "ai", "INSERT", "I", "new"));
+            sentencias.add(disparadorCambio(tabla, "au", "UPDATE", "U", "new"));
+            sentencias.add(disparadorCambio(tabla, "ad", "DELETE", "D", "old"));
         }
+        return sentencias.toArray(new String[0]);
+    }
+    
+    private static String disparadorCambio(String tabla, String sufijo, String evento, String operacion, String fila) {
+        return "CREATE TRIGGER IF NOT EXISTS " + tabla + "_cambios_" + sufijo +
+                " AFTER " + evento + " ON " + tabla + " BEGIN " +
+                "INSERT INTO registro_cambios(tabla, id_fila, operacion) " +
+                "VALUES ('" + tabla + "', " + fila + ".id, '" + operacion + "'); END";
     }
     
     /**
      * Migra el esquema de solicitudes para agregar id_director si no existe
      */
-    private void migrarEsquemaSolicitudes() {
+    private static void migrarEsquemaSolicitudes(Connection connection) throws SQLException {
         try (Statement stmt = connection.createStatement()) {
             // Verificar si la columna id_director existe
-            var rs = stmt.executeQuery("PRAGMA table_info(solicitudes)");
             boolean tieneIdDirector = false;
-            
-            while (rs.next()) {
-                if ("id_director".equals(rs.getString("name"))) {
-                    tieneIdDirector = true;
-                    break;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(solicitudes)")) {
+                while (rs.next()) {
+                    if ("id_director".equals(rs.getString("name"))) {
+                        tieneIdDirector = true;
+                        break;
+                    }
                 }
             }
             
@@ -168,28 +482,26 @@ public class DatabaseConnection {
                 stmt.execute("ALTER TABLE solicitudes ADD COLUMN id_director INTEGER");
                 System.out.println("✓ Columna id_director agregada a solicitudes");
             }
-        } catch (SQLException e) {
-            System.err.println("Error al migrar esquema: " + e.getMessage());
         }
     }
     
     /**
      * Migra el esquema de notificaciones para cambiar destinatario por id_usuario
      */
-    private void migrarEsquemaNotificaciones() {
+    private static void migrarEsquemaNotificaciones(Connection connection) throws SQLException {
         try (Statement stmt = connection.createStatement()) {
             // Verificar estructura de tabla notificaciones
-            var rs = stmt.executeQuery("PRAGMA table_info(notificaciones)");
             boolean tieneIdUsuario = false;
             boolean tieneDestinatario = false;
-            
-            while (rs.next()) {
-                String columnName = rs.getString("name");
-                if ("id_usuario".equals(columnName)) {
-                    tieneIdUsuario = true;
-                }
-                if ("destinatario".equals(columnName)) {
-                    tieneDestinatario = true;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(notificaciones)")) {
+                while (rs.next()) {
+                    String columnName = rs.getString("name");
+                    if ("id_usuario".equals(columnName)) {
+                        tieneIdUsuario = true;
+                    }
+                    if ("destinatario".equals(columnName)) {
+                        tieneDestinatario = true;
+                    }
                 }
             }
             
@@ -214,22 +526,24 @@ public class DatabaseConnection {
                 stmt.execute("ALTER TABLE notificaciones ADD COLUMN id_usuario INTEGER NOT NULL DEFAULT 0");
                 System.out.println("✓ Columna id_usuario agregada a notificaciones");
             }
-        } catch (SQLException e) {
-            System.err.println("Error al migrar notificaciones: " + e.getMessage());
         }
     }
     
     /**
-     * Cierra la conexión
+     * Cierra todas las conexiones del pool
      */
     public void cerrarConexion() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Conexión cerrada.");
+        synchronized (this) {
+            if (vigilante != null) {
+                vigilante.detener();
+                vigilante = null;
+            }
+            if (depurador != null) {
+                depurador.detener();
+                depurador = null;
             }
-        } catch (SQLException e) {
-            System.err.println("Error al cerrar conexión: " + e.getMessage());
         }
+        pool.cerrar();
+        System.out.println("Conexiones cerradas. " + pool);
     }
 }
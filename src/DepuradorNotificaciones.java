@@ -0,0 +1,190 @@
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica la política de retención de notificaciones en segundo plano
+ * Borra (y opcionalmente archiva comprimidas) las notificaciones más antiguas que el
+ * límite de días y las que exceden el máximo por usuario. Trabaja por lotes, cada uno
+ * en su propia transacción corta, con una pausa entre lotes para no retener la
+ * conexión de escritura frente a la interfaz. Después recupera el espacio libre con
+ * incremental_vacuum. Una base que todavía no está en modo incremental necesita un
+ * VACUUM completo, que reescribe el archivo reteniendo la escritura de todos los
+ * clientes: no se hace en segundo plano sino con compactar() (java App --compactar).
+ */
+public class DepuradorNotificaciones {
+    // Primera pasada poco después del arranque, sin competir con la carga inicial
+    private static final long ESPERA_INICIAL_MS = 60 * 1000;
+
+    private final PoliticaRetencion politica;
+    private final NotificacionDAO notificacionDAO;
+    private final ScheduledExecutorService programador;
+
+    public DepuradorNotificaciones(PoliticaRetencion politica) {
+        this.politica = politica;
+        this.notificacionDAO = new NotificacionDAO();
+        this.programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "depurador-notificaciones");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    public void iniciar() {
+        programador.scheduleWithFixedDelay(this::ejecutarSeguro, ESPERA_INICIAL_MS,
+                TimeUnit.HOURS.toMillis(politica.getPeriodoHoras()), TimeUnit.MILLISECONDS);
+    }
+
+    public void detener() {
+        programador.shutdownNow();
+    }
+
+    private void ejecutarSeguro() {
+        try {
+            depurar();
+        } catch (RuntimeException e) {
+            System.err.println("Error al depurar notificaciones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Una pasada completa de la política
+     * @return Cantidad de notificaciones eliminadas
+     */
+    public int depurar() {
+        int eliminadas = 0;
+        boolean soloLeidas = politica.isConservarNoLeidas();
+
+        if (politica.getDiasMaximos() > 0) {
+            java.util.Date limite = new java.util.Date(
+                System.currentTimeMillis() - TimeUnit.DAYS.toMillis(politica.getDiasMaximos()));
+            List<Integer> lote;
+            do {
+                lote = notificacionDAO.obtenerIdsVencidas(limite, soloLeidas, politica.getTamanoLote());
+                int borradas = notificacionDAO.archivarYEliminar(lote, politica.isArchivar());
+                eliminadas += borradas;
+                // Un lote que no se pudo borrar se reintenta en la próxima pasada
+                if (borradas == 0 || !pausar()) {
+                    break;
+                }
+            } while (lote.size() == politica.getTamanoLote());
+        }
+
+        if (politica.getMaximoPorUsuario() > 0) {
+            for (int idUsuario : notificacionDAO.obtenerUsuariosConExceso(politica.getMaximoPorUsuario())) {
+                List<Integer> excedentes = notificacionDAO.obtenerIdsExcedentes(
+                    idUsuario, politica.getMaximoPorUsuario(), soloLeidas);
+                for (int desde = 0; desde < excedentes.size(); desde += politica.getTamanoLote()) {
+                    List<Integer> lote = excedentes.subList(desde,
+                        Math.min(excedentes.size(), desde + politica.getTamanoLote()));
+                    eliminadas += notificacionDAO.archivarYEliminar(lote, politica.isArchivar());
+                    if (!pausar()) {
+                        return eliminadas;
+                    }
+                }
+            }
+        }
+
+        if (eliminadas > 0) {
+            System.out.println("Retención de notificaciones: " + eliminadas + " eliminadas" +
+                (politica.isArchivar() ? " (archivadas)" : ""));
+            recuperarEspacio();
+        }
+        return eliminadas;
+    }
+
+    /**
+     * Devuelve al sistema de archivos las páginas liberadas por la depuración
+     */
+    private void recuperarEspacio() {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        try {
+            int autoVacuum;
+            long libres;
+            long total;
+            try (Connection conn = db.obtenerConexionLectura()) {
+                autoVacuum = (int) pragma(conn, "auto_vacuum");
+                libres = pragma(conn, "freelist_count");
+                total = pragma(conn, "page_count");
+            }
+            if (libres == 0) {
+                return;
+            }
+
+            if (autoVacuum == 2) {
+                // INCREMENTAL: pasos cortos, soltando el escritor entre uno y otro
+                while (libres > 0) {
+                    try (Connection conn = db.obtenerConexionEscritura();
+                         Statement stmt = conn.createStatement()) {
+                        ejecutarCompleto(stmt, "PRAGMA incremental_vacuum(" + politica.getPaginasPorPasoVacuum() + ")");
+                        libres = pragma(conn, "freelist_count");
+                    }
+                    if (!pausar()) {
+                        return;
+                    }
+                }
+            } else if (total > 0 && (double) libres / total >= politica.getUmbralVacuumCompleto()) {
+                System.out.println("Retención de notificaciones: " + libres + " de " + total +
+                    " páginas libres; ejecute java App --compactar en una ventana de mantenimiento");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al recuperar espacio: " + e.getMessage());
+        }
+    }
+
+    /**
+     * VACUUM completo que deja la base en auto_vacuum INCREMENTAL, para que las próximas
+     * depuraciones recuperen espacio por pasos. Retiene la escritura de todos los clientes
+     * mientras reescribe el archivo: solo como comando de mantenimiento.
+     * @return true si se completó
+     */
+    public static boolean compactar() {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        try (Connection conn = db.obtenerConexionEscritura();
+             Statement stmt = conn.createStatement()) {
+            long antes = pragma(conn, "page_count");
+            // auto_vacuum solo cambia con un VACUUM
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            stmt.execute("VACUUM");
+            System.out.println("VACUUM completo: " + antes + " -> " + pragma(conn, "page_count") + " páginas");
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al compactar la base de datos: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static long pragma(Connection conn, String nombre) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + nombre)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // incremental_vacuum libera páginas a medida que se recorre su resultado
+    private static void ejecutarCompleto(Statement stmt, String sql) throws SQLException {
+        if (stmt.execute(sql)) {
+            try (ResultSet rs = stmt.getResultSet()) {
+                while (rs.next()) {
+                    // recorrer hasta el final
+                }
+            }
+        }
+    }
+
+    private boolean pausar() {
+        try {
+            Thread.sleep(politica.getPausaEntreLotesMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
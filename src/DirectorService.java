@@ -0,0 +1,191 @@
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Operaciones del rol Director sobre la base de datos
+ * Es una instancia única y sin estado: los DAOs se crean una sola vez y se
+ * comparten, en lugar de crearse con cada objeto Director.
+ */
+public class DirectorService {
+    private static final DirectorService INSTANCIA = new DirectorService();
+    
+    private final FormularioDAO formularioDAO;
+    private final SolicitudDAO solicitudDAO;
+    private final ProyectoDAO proyectoDAO;
+    private final NotificacionDAO notificacionDAO;
+    
+    private DirectorService() {
+        this.formularioDAO = new FormularioDAO();
+        this.solicitudDAO = new SolicitudDAO();
+        this.proyectoDAO = new ProyectoDAO();
+        this.notificacionDAO = new NotificacionDAO();
+    }
+    
+    public static DirectorService getInstance() {
+        return INSTANCIA;
+    }
+    
+    /**
+     * Registra un nuevo formulario (ayudante) para un proyecto
+     */
+    public boolean registrarFormulario(Formulario formulario) {
+        if (formulario == null) {
+            return false;
+        }
+        return formularioDAO.insertar(formulario);
+    }
+    
+    /**
+     * Registra varios formularios de una vez (por ejemplo, al inicio del semestre)
+     * en una sola transacción; el resultado indica cuáles no pudieron registrarse
+     */
+    public ResultadoLote registrarFormularios(List<Formulario> formularios) {
+        if (formularios == null || formularios.isEmpty()) {
+            return new ResultadoLote(0);
+        }
+        return formularioDAO.insertarLote(formularios);
+    }
+    
+    /**
+     * Obtiene todos los formularios registrados por este director
+     */
+    public List<Formulario> consultarFormularios() {
+        return formularioDAO.obtenerTodos();
+    }
+    
+    /**
+     * Obtiene formularios por estado
+     */
+    public List<Formulario> consultarFormulariosPorEstado(String estado) {
+        return formularioDAO.buscarPorEstado(estado);
+    }
+    
+    /**
+     * Obtiene los proyectos de un director
+     */
+    public List<Proyecto> consultarMisProyectos(int idDirector) {
+        return proyectoDAO.obtenerPorDirector(idDirector);
+    }
+    
+    /**
+     * Envía una solicitud
+     * Verifica que exista al menos un formulario antes de enviar
+     * Si no hay formularios, crea una notificación recordando llenar el formulario
+     */
+    public boolean enviarSolicitud(int idDirector, Solicitud solicitud) {
+        if (solicitud == null) {
+            return false;
+        }
+        
+        // Verificar si el director tiene formularios en SUS proyectos
+        boolean tieneFormularios = false;
+        List<Proyecto> misProyectos = proyectoDAO.obtenerPorDirector(idDirector);
+        
+        if (misProyectos != null && !misProyectos.isEmpty()) {
+            for (Proyecto proyecto : misProyectos) {
+                List<Formulario> formulariosProyecto = formularioDAO.buscarPorProyecto(proyecto.getId());
+                if (formulariosProyecto != null && !formulariosProyecto.isEmpty()) {
+                    tieneFormularios = true;
+                    break;
+                }
+            }
+        }
+        
+        if (!tieneFormularios) {
+            // No tiene formularios en sus proyectos, crear notificación
+            Notificacion notificacion = new Notificacion(
+                "ATENCIÓN: Debe llenar un formulario de ayudantes en uno de sus proyectos antes de enviar una solicitud a Jefatura. Por favor, complete el formulario requerido.",
+                idDirector
+            );
+            notificacionDAO.insertar(notificacion);
+            System.out.println("No se puede enviar la solicitud. Debe llenar un formulario en sus proyectos primero.");
+            return false;
+        }
+        
+        // Si tiene formularios en sus proyectos, proceder con el envío
+        solicitud.setIdUsuario(idDirector);
+        solicitud.setFecha(new Date());
+        solicitud.setEstadoEmisionDest("Pendiente");
+        return solicitudDAO.insertar(solicitud);
+    }
+    
+    /**
+     * Obtiene las solicitudes enviadas por un director
+     */
+    public List<Solicitud> consultarMisSolicitudes(int idDirector) {
+        return solicitudDAO.obtenerPorUsuario(idDirector);
+    }
+    
+    /**
+     * Obtiene las notificaciones del director
+     */
+    public List<Notificacion> consultarMisNotificaciones(int idDirector) {
+        return notificacionDAO.obtenerPorUsuario(idDirector);
+    }
+    
+    /**
+     * Obtiene las notificaciones no leídas del director
+     */
+    public List<Notificacion> consultarNotificacionesNoLeidas(int idDirector) {
+        return notificacionDAO.obtenerNoLeidasPorUsuario(idDirector);
+    }
+    
+    /**
+     * Cantidad de notificaciones no leídas del director (sin cargarlas)
+     */
+    public int contarNotificacionesNoLeidas(int idDirector) {
+        return notificacionDAO.contarNoLeidas(idDirector);
+    }
+    
+    /**
+     * Marca como leídas notificaciones del director
+     */
+    public int marcarNotificacionesLeidas(int idDirector, List<Integer> idsNotificaciones) {
+        return notificacionDAO.marcarComoLeidas(idDirector, idsNotificaciones);
+    }
+    
+    /**
+     * Registra un rechazo de formulario
+     */
+    public boolean rechazarFormulario(int idFormulario, String motivo) {
+        Formulario f = formularioDAO.obtenerPorId(idFormulario);
+        if (f == null) {
+            return false;
+        }
+        f.setEstado("Rechazado");
+        return formularioDAO.actualizar(f);
+    }
+    
+    /**
+     * Aprueba un formulario
+     */
+    public boolean aprobarFormulario(int idFormulario) {
+        Formulario f = formularioDAO.obtenerPorId(idFormulario);
+        if (f == null) {
+            return false;
+        }
+        f.setEstado("Aprobado");
+        return formularioDAO.actualizar(f);
+    }
+    
+    /**
+     * Crea un nuevo proyecto
+     */
+    public boolean crearProyecto(int idDirector, Proyecto proyecto) {
+        if (proyecto == null) {
+            return false;
+        }
+        proyecto.setIdDirector(idDirector);
+        return proyectoDAO.insertar(proyecto);
+    }
+    
+    /**
+     * Actualiza un proyecto existente
+     */
+    public boolean actualizarProyecto(Proyecto proyecto) {
+        if (proyecto == null) {
+            return false;
+        }
+        return proyectoDAO.actualizar(proyecto);
+    }
+}
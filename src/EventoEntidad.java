@@ -0,0 +1,53 @@
+/**
+ * Evento de cambio de una entidad publicado por los DAO después de cada escritura
+ * Inmutable: indica qué entidad cambió (tipo e id) y con qué operación.
+ */
+public final class EventoEntidad {
+
+    /**
+     * Tipos de entidad que publican cambios
+     */
+    public enum Tipo {
+        USUARIO, PROYECTO, FORMULARIO, SOLICITUD, NOTIFICACION
+    }
+
+    /**
+     * Operación aplicada sobre la entidad
+     */
+    public enum Operacion {
+        INSERTADO, ACTUALIZADO, ELIMINADO,
+        // Se perdieron cambios de la entidad (id 0): hay que recargar todo
+        RECARGA
+    }
+
+    private final Tipo tipo;
+    private final int id;
+    private final Operacion operacion;
+
+    public EventoEntidad(Tipo tipo, int id, Operacion operacion) {
+        this.tipo = tipo;
+        this.id = id;
+        this.operacion = operacion;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoEntidad{" +
+                "tipo=" + tipo +
+                ", id=" + id +
+                ", operacion=" + operacion +
+                '}';
+    }
+}
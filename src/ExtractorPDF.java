@@ -1,9 +1,20 @@
 import javax.swing.*;
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
 import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.io.RandomAccessStreamCache;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 
@@ -12,6 +23,12 @@ import org.apache.pdfbox.text.PDFTextStripper;
  * Permite extraer el número de ayudante y otros campos
  */
 public class ExtractorPDF {
+    public static final String CAMPO_AYUDANTE = "Ayudante de investigación";
+    // A partir de este tamaño el PDF no se copia al heap
+    private static final long UMBRAL_ARCHIVO_GRANDE_BYTES = 16L * 1024 * 1024;
+    // RandomAccessReadMemoryMappedFile mapea el archivo en un solo búfer (máximo 2 GB)
+    private static final long MAX_MAPEO_BYTES = 1024L * 1024 * 1024;
+    private static final long MAX_CACHE_MEMORIA_BYTES = 8L * 1024 * 1024;
 
     /**
      * Abre un diálogo para seleccionar un PDF y extrae el campo buscado
@@ -20,15 +37,23 @@ public class ExtractorPDF {
      * @return Valor extraído del campo, o null si no se encuentra o hay error
      */
     public static String extraerCampoDelPDF(JFrame parent, String campoBuscado) {
+        File pdf = seleccionarPDF(parent, "Seleccionar PDF para extraer " + campoBuscado);
+        return pdf != null ? extraerCampo(pdf, campoBuscado) : null;
+    }
+
+    /**
+     * Abre un diálogo para seleccionar un PDF
+     * @return El archivo elegido, o null si se canceló
+     */
+    public static File seleccionarPDF(JFrame parent, String titulo) {
         JFileChooser chooser = new JFileChooser();
-        chooser.setDialogTitle("Seleccionar PDF para extraer " + campoBuscado);
+        chooser.setDialogTitle(titulo);
         chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Archivos PDF", "pdf"));
         
         int opcion = chooser.showOpenDialog(parent);
         
         if (opcion == JFileChooser.APPROVE_OPTION) {
-            File pdf = chooser.getSelectedFile();
-            return extraerCampo(pdf, campoBuscado);
+            return chooser.getSelectedFile();
         }
         
         return null;
@@ -42,20 +67,8 @@ public class ExtractorPDF {
      */
     public static String extraerCampo(File archivoPDF, String campoBuscado) {
         try {
-            // Leer PDF a bytes
-            byte[] pdfBytes = Files.readAllBytes(archivoPDF.toPath());
-
-            // Buffer compatible con PDFBox 3.x
-            RandomAccessReadBuffer buffer = new RandomAccessReadBuffer(pdfBytes);
-
-            // Leer PDF
-            try (PDDocument document = Loader.loadPDF(buffer)) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                String texto = stripper.getText(document);
-
-                // Extraer campo - buscar la línea que contiene el campo
-                return extraerValorDelTexto(texto, campoBuscado);
-            }
+            // Extraer campo - buscar la línea que contiene el campo
+            return extraerCampos(archivoPDF, Collections.singletonList(campoBuscado)).get(campoBuscado);
         } catch (Exception ex) {
             System.err.println("Error al procesar PDF: " + ex.getMessage());
             ex.printStackTrace();
@@ -64,28 +77,163 @@ public class ExtractorPDF {
     }
 
     /**
-     * Extrae el valor de un campo del texto extraído del PDF
-     * Busca la línea que contiene el nombre del campo y extrae el valor
-     * @param texto Texto completo extraído del PDF
-     * @param campoBuscado Campo a buscar
-     * @return Valor encontrado, o null si no existe
+     * Extrae varios campos de un PDF, cada uno reconocido por su etiqueta
+     * @param archivoPDF Archivo PDF a procesar
+     * @param campos Campos a buscar
+     * @return Valor de cada campo encontrado (los que no aparecen no se incluyen)
+     * @throws IOException Si el archivo no se puede leer o no es un PDF válido
+     */
+    public static Map<String, String> extraerCampos(File archivoPDF, List<String> campos) throws IOException {
+        PlantillaExtraccion plantilla = new PlantillaExtraccion();
+        for (String campo : campos) {
+            plantilla.etiqueta(campo, campo, PlantillaExtraccion.TEXTO, null);
+        }
+        return extraerValores(archivoPDF, plantilla);
+    }
+
+    /**
+     * Extrae un Proyecto completo de un PDF en una sola pasada
+     * @throws IOException Si el archivo no se puede leer o no es un PDF válido
+     * @throws IllegalArgumentException Si falta un campo requerido o un valor tiene formato inválido
+     */
+    public static Proyecto extraerProyecto(File archivoPDF, PlantillaExtraccion plantilla) throws IOException {
+        return plantilla.crearProyecto(extraerValores(archivoPDF, plantilla));
+    }
+
+    /**
+     * Extrae el texto de todos los campos de una plantilla
+     * El texto se extrae página por página y se revisa línea por línea a medida que
+     * PDFTextStripper lo produce, sin armar el texto completo del documento; en cuanto
+     * aparecen todos los campos se dejan de procesar las páginas restantes.
+     * No usa Swing ni estado compartido, así que puede llamarse desde varios hilos.
+     * Los resultados se guardan en CacheExtraccion por contenido del archivo.
+     * @return Texto de cada campo encontrado, por nombre de campo
+     * @throws IOException Si el archivo no se puede leer o no es un PDF válido
+     */
+    public static Map<String, String> extraerValores(File archivoPDF, PlantillaExtraccion plantilla) throws IOException {
+        // El mismo archivo con la misma plantilla da siempre el mismo resultado: no hace falta PDFBox
+        CacheExtraccion cache = CacheExtraccion.getInstance();
+        String hash = CacheExtraccion.hashArchivo(archivoPDF);
+        String version = plantilla.getVersion();
+        Map<String, String> guardados = cache.obtener(hash, version);
+        if (guardados != null) {
+            return guardados;
+        }
+        
+        Map<String, String> valores = extraerValoresSinCache(archivoPDF, plantilla);
+        cache.guardar(hash, version, valores);
+        return valores;
+    }
+
+    private static Map<String, String> extraerValoresSinCache(File archivoPDF, PlantillaExtraccion plantilla) throws IOException {
+        // Leer PDF
+        try (PDDocument document = abrir(archivoPDF)) {
+            BuscadorCampos buscador = new BuscadorCampos(plantilla.getCampos());
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setLineSeparator("\n");
+            int paginas = document.getNumberOfPages();
+            for (int pagina = 1; pagina <= paginas && !buscador.completo(); pagina++) {
+                stripper.setStartPage(pagina);
+                stripper.setEndPage(pagina);
+                stripper.writeText(document, buscador);
+                buscador.terminarLinea();
+            }
+            return buscador.valores;
+        }
+    }
+
+    /**
+     * Abre un PDF eligiendo cómo leerlo según su tamaño
+     * Los archivos pequeños se copian a memoria (lo más rápido). Los grandes se mapean
+     * en memoria fuera del heap y, pasado el límite de un mapeo, se leen del disco con
+     * un búfer; así el archivo no queda copiado en el heap mientras PDFBox lo analiza.
+     * Los flujos que PDFBox necesita guardar usan a lo sumo MAX_CACHE_MEMORIA_BYTES de
+     * heap por documento y el resto va a archivos temporales.
+     */
+    private static PDDocument abrir(File archivoPDF) throws IOException {
+        long tamano = archivoPDF.length();
+        RandomAccessStreamCache.StreamCacheCreateFunction cache =
+            MemoryUsageSetting.setupMixed(MAX_CACHE_MEMORIA_BYTES).streamCache;
+
+        if (tamano < UMBRAL_ARCHIVO_GRANDE_BYTES) {
+            // Leer PDF a bytes; buffer compatible con PDFBox 3.x
+            byte[] pdfBytes = Files.readAllBytes(archivoPDF.toPath());
+            return Loader.loadPDF(new RandomAccessReadBuffer(pdfBytes), cache);
+        }
+
+        RandomAccessRead lectura = null;
+        if (tamano <= MAX_MAPEO_BYTES) {
+            try {
+                lectura = new RandomAccessReadMemoryMappedFile(archivoPDF);
+            } catch (IOException e) {
+                System.err.println("Error al mapear PDF en memoria, se lee del disco: " + e.getMessage());
+            }
+        }
+        if (lectura == null) {
+            lectura = new RandomAccessReadBufferedFile(archivoPDF);
+        }
+        try {
+            // El documento cierra la lectura al cerrarse
+            return Loader.loadPDF(lectura, cache);
+        } catch (IOException | RuntimeException e) {
+            lectura.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Recibe el texto de PDFTextStripper y busca los campos en cada línea completa
      */
-    private static String extraerValorDelTexto(String texto, String campoBuscado) {
-        for (String linea : texto.split("\\r?\\n")) {
-            if (linea.contains(campoBuscado)) {
-                // Extraer el valor después del nombre del campo
-                String valor = linea.replace(campoBuscado, "").trim();
-                
-                // Remover caracteres especiales y espacios extras
-                valor = valor.replaceAll("[:\\s]+", " ").trim();
-                
-                // Si el valor está vacío, continuar buscando
-                if (!valor.isEmpty()) {
-                    return valor;
+    private static final class BuscadorCampos extends Writer {
+        private final List<PlantillaExtraccion.Campo> campos;
+        private final Map<String, String> valores = new LinkedHashMap<>();
+        private final StringBuilder linea = new StringBuilder();
+
+        BuscadorCampos(List<PlantillaExtraccion.Campo> campos) {
+            this.campos = campos;
+        }
+
+        boolean completo() {
+            return valores.size() == campos.size();
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                char c = cbuf[i];
+                if (c == '\n') {
+                    terminarLinea();
+                } else if (c != '\r') {
+                    linea.append(c);
                 }
             }
         }
-        return null;
+
+        void terminarLinea() {
+            if (linea.length() == 0) {
+                return;
+            }
+            String texto = linea.toString();
+            linea.setLength(0);
+            for (PlantillaExtraccion.Campo campo : campos) {
+                // Se conserva la primera línea con valor, como al buscar en el texto completo
+                if (!valores.containsKey(campo.getNombre())) {
+                    String valor = campo.buscar(texto);
+                    if (valor != null) {
+                        valores.put(campo.getNombre(), valor);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            terminarLinea();
+        }
     }
 
     /**
@@ -94,8 +242,14 @@ public class ExtractorPDF {
      * @return Número de ayudante extraído, o 0 si no se encuentra
      */
     public static int extraerNumeroDeAyudanteDePDF(JFrame parent) {
-        String valor = extraerCampoDelPDF(parent, "Ayudante de investigación");
-        
+        return convertirNumeroDeAyudante(extraerCampoDelPDF(parent, CAMPO_AYUDANTE));
+    }
+
+    /**
+     * Convierte el valor del campo de ayudantes a número
+     * @return Número de ayudante, o 0 si el valor no tiene un número
+     */
+    public static int convertirNumeroDeAyudante(String valor) {
         if (valor != null && !valor.isEmpty()) {
             try {
                 // Extraer solo números del valor
@@ -0,0 +1,66 @@
+/**
+ * Proyecto que tiene menos formularios de ayudantes registrados que los requeridos
+ * Se obtiene con una sola consulta agrupada (ProyectoDAO.obtenerFaltaAyudantes)
+ */
+public class FaltaAyudantes {
+    // Condición con la que se identifica la notificación de este caso
+    public static final String CONDICION = "FALTAN_AYUDANTES";
+
+    private final int idProyecto;
+    private final String nombreProyecto;
+    private final int idDirector;
+    private final int ayudantesRequeridos;
+    private final int ayudantesRegistrados;
+
+    public FaltaAyudantes(int idProyecto, String nombreProyecto, int idDirector,
+                          int ayudantesRequeridos, int ayudantesRegistrados) {
+        this.idProyecto = idProyecto;
+        this.nombreProyecto = nombreProyecto;
+        this.idDirector = idDirector;
+        this.ayudantesRequeridos = ayudantesRequeridos;
+        this.ayudantesRegistrados = ayudantesRegistrados;
+    }
+
+    public int getIdProyecto() {
+        return idProyecto;
+    }
+
+    public String getNombreProyecto() {
+        return nombreProyecto;
+    }
+
+    public int getIdDirector() {
+        return idDirector;
+    }
+
+    public int getAyudantesRequeridos() {
+        return ayudantesRequeridos;
+    }
+
+    public int getAyudantesRegistrados() {
+        return ayudantesRegistrados;
+    }
+
+    /**
+     * Texto de la notificación para el director del proyecto
+     */
+    public String getMensaje() {
+        return String.format(
+            "El proyecto '%s' requiere %d ayudante(s) pero solo tiene %d registrado(s). " +
+            "Por favor, complete los formularios de ayudantes.",
+            nombreProyecto,
+            ayudantesRequeridos,
+            ayudantesRegistrados
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "FaltaAyudantes{" +
+                "idProyecto=" + idProyecto +
+                ", idDirector=" + idDirector +
+                ", requeridos=" + ayudantesRequeridos +
+                ", registrados=" + ayudantesRegistrados +
+                '}';
+    }
+}
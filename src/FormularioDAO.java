@@ -1,229 +1,416 @@
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * DAO para operaciones CRUD sobre Formularios
- */
-public class FormularioDAO {
-    private Connection connection;
-    
-    public FormularioDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
-    /**
-     * Insertar un nuevo formulario
-     */
-    public boolean insertar(Formulario formulario) {
-        String sql = "INSERT INTO formularios(numero_ayudantes, nombre_ayudante, apellido_ayudante, cedula, facultad, estado, id_proyecto) VALUES(?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, formulario.getNumeroDeAyudantes());
-            pstmt.setString(2, formulario.getNombreDelAyudante());
-            pstmt.setString(3, formulario.getApellidoDelAyudante());
-            pstmt.setString(4, formulario.getCedula());
-            pstmt.setString(5, formulario.getFacultad());
-            pstmt.setString(6, formulario.getEstado());
-            pstmt.setInt(7, formulario.getIdProyecto());
-            pstmt.executeUpdate();
-            System.out.println("Formulario insertado para: " + formulario.getNombreDelAyudante());
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error al insertar formulario: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Obtener todos los formularios
-     */
-    public List<Formulario> obtenerTodos() {
-        List<Formulario> formularios = new ArrayList<>();
-        String sql = "SELECT * FROM formularios ORDER BY id";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Formulario formulario = new Formulario(
-                    rs.getInt("id"),
-                    rs.getInt("numero_ayudantes"),
-                    rs.getString("nombre_ayudante"),
-                    rs.getString("apellido_ayudante"),
-                    rs.getString("cedula"),
-                    rs.getString("facultad"),
-                    rs.getString("estado")
-                );
-                formulario.setIdProyecto(rs.getInt("id_proyecto"));
-                formularios.add(formulario);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener formularios: " + e.getMessage());
-        }
-        
-        return formularios;
-    }
-    
-    /**
-     * Obtener formulario por ID
-     */
-    public Formulario obtenerPorId(int id) {
-        String sql = "SELECT * FROM formularios WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                Formulario formulario = new Formulario(
-                    rs.getInt("id"),
-                    rs.getInt("numero_ayudantes"),
-                    rs.getString("nombre_ayudante"),
-                    rs.getString("apellido_ayudante"),
-                    rs.getString("cedula"),
-                    rs.getString("facultad"),
-                    rs.getString("estado")
-                );
-                formulario.setIdProyecto(rs.getInt("id_proyecto"));
-                return formulario;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener formulario: " + e.getMessage());
-        }
-        
-        return null;
-    }
-    
-    /**
-     * Actualizar formulario
-     */
-    public boolean actualizar(Formulario formulario) {
-        String sql = "UPDATE formularios SET numero_ayudantes = ?, nombre_ayudante = ?, apellido_ayudante = ?, cedula = ?, facultad = ?, estado = ?, id_proyecto = ? WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, formulario.getNumeroDeAyudantes());
-            pstmt.setString(2, formulario.getNombreDelAyudante());
-            pstmt.setString(3, formulario.getApellidoDelAyudante());
-            pstmt.setString(4, formulario.getCedula());
-            pstmt.setString(5, formulario.getFacultad());
-            pstmt.setString(6, formulario.getEstado());
-            pstmt.setInt(7, formulario.getIdProyecto());
-            pstmt.setInt(8, formulario.getId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar formulario: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Eliminar formulario
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM formularios WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al eliminar formulario: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Buscar formularios por estado
-     */
-    public List<Formulario> buscarPorEstado(String estado) {
-        List<Formulario> formularios = new ArrayList<>();
-        String sql = "SELECT * FROM formularios WHERE estado = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, estado);
-            
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Formulario formulario = new Formulario(
-                    rs.getInt("id"),
-                    rs.getInt("numero_ayudantes"),
-                    rs.getString("nombre_ayudante"),
-                    rs.getString("apellido_ayudante"),
-                    rs.getString("cedula"),
-                    rs.getString("facultad"),
-                    rs.getString("estado")
-                );
-                formulario.setIdProyecto(rs.getInt("id_proyecto"));
-                formularios.add(formulario);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al buscar formularios: " + e.getMessage());
-        }
-        
-        return formularios;
-    }
-    
-    /**
-     * Obtener formularios de un usuario específico (por sus proyectos)
-     */
-    public List<Formulario> obtenerFormulariosPorUsuario(int idUsuario) {
-        List<Formulario> formularios = new ArrayList<>();
-        String sql = "SELECT f.* FROM formularios f " +
-                     "INNER JOIN proyectos p ON f.id_proyecto = p.id " +
-                     "WHERE p.id_usuario = ? " +
-                     "ORDER BY f.id";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, idUsuario);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                Formulario formulario = new Formulario(
-                    rs.getInt("id"),
-                    rs.getInt("numero_ayudantes"),
-                    rs.getString("nombre_ayudante"),
-                    rs.getString("apellido_ayudante"),
-                    rs.getString("cedula"),
-                    rs.getString("facultad"),
-                    rs.getString("estado")
-                );
-                formulario.setIdProyecto(rs.getInt("id_proyecto"));
-                formularios.add(formulario);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener formularios del usuario: " + e.getMessage());
-        }
-        
-        return formularios;
-    }
-    public List<Formulario> buscarPorProyecto(int idProyecto) {
-    List<Formulario> formularios = new ArrayList<>();
-    String sql = "SELECT * FROM formularios WHERE id_proyecto = ? ORDER BY id";
-    
-    try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-        pstmt.setInt(1, idProyecto);
-        ResultSet rs = pstmt.executeQuery();
-        
-        while (rs.next()) {
-            Formulario formulario = new Formulario(
-                rs.getInt("id"),
-                rs.getInt("numero_ayudantes"),
-                rs.getString("nombre_ayudante"),
-                rs.getString("apellido_ayudante"),
-                rs.getString("cedula"),
-                rs.getString("facultad"),
-                rs.getString("estado")
-            );
-            formulario.setIdProyecto(rs.getInt("id_proyecto"));
-            formularios.add(formulario);
-        }
-    } catch (SQLException e) {
-        System.err.println("Error al buscar formularios por proyecto: " + e.getMessage());
-    }
-    
-    return formularios;
-}
-}
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para operaciones CRUD sobre Formularios
+ */
+public class FormularioDAO {
+    // Columnas del formulario junto con proyecto y director (para las vistas)
+    private static final String SELECT_VISTA =
+        "SELECT f.id, f.numero_ayudantes, f.nombre_ayudante, f.apellido_ayudante, f.cedula, " +
+        "f.facultad, f.estado, f.id_proyecto, p.nombre AS nombre_proyecto, " +
+        "p.codigo AS codigo_proyecto, u.nombre AS nombre_director " +
+        "FROM formularios f ";
+    
+    private final DatabaseConnection db;
+    
+    public FormularioDAO() {
+        this.db = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Insertar un nuevo formulario
+     */
+    public boolean insertar(Formulario formulario) {
+        String sql = "INSERT INTO formularios(numero_ayudantes, nombre_ayudante, apellido_ayudante, cedula, facultad, estado, id_proyecto) VALUES(?, ?, ?, ?, ?, ?, ?)";
+        
+        try {
+            int id = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, formulario.getNumeroDeAyudantes());
+                    pstmt.setString(2, formulario.getNombreDelAyudante());
+                    pstmt.setString(3, formulario.getApellidoDelAyudante());
+                    pstmt.setString(4, formulario.getCedula());
+                    pstmt.setString(5, formulario.getFacultad());
+                    pstmt.setString(6, formulario.getEstado());
+                    pstmt.setInt(7, formulario.getIdProyecto());
+                    pstmt.executeUpdate();
+                }
+                return DatabaseConnection.ultimoIdInsertado(conn);
+            });
+            formulario.setId(id);
+            publicar(id, EventoEntidad.Operacion.INSERTADO);
+            System.out.println("Formulario insertado para: " + formulario.getNombreDelAyudante());
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar formulario: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Insertar varios formularios en una sola transacción (por bloques con executeBatch)
+     */
+    public ResultadoLote insertarLote(List<Formulario> formularios) {
+        return insertarLote(formularios, InsercionLote.TAMANO_BLOQUE_PREDETERMINADO);
+    }
+    
+    /**
+     * Insertar varios formularios en una sola transacción
+     * @param tamanoBloque Cantidad de filas por executeBatch
+     * @return Ids generados y formularios que no pudieron insertarse
+     */
+    public ResultadoLote insertarLote(List<Formulario> formularios, int tamanoBloque) {
+        String sql = "INSERT INTO formularios(numero_ayudantes, nombre_ayudante, apellido_ayudante, cedula, facultad, estado, id_proyecto) VALUES(?, ?, ?, ?, ?, ?, ?)";
+        
+        try {
+            ResultadoLote resultado = db.ejecutarTransaccion(conn ->
+                InsercionLote.insertar(conn, sql, formularios, tamanoBloque, (pstmt, formulario) -> {
+                    pstmt.setInt(1, formulario.getNumeroDeAyudantes());
+                    pstmt.setString(2, formulario.getNombreDelAyudante());
+                    pstmt.setString(3, formulario.getApellidoDelAyudante());
+                    pstmt.setString(4, formulario.getCedula());
+                    pstmt.setString(5, formulario.getFacultad());
+                    pstmt.setString(6, formulario.getEstado());
+                    pstmt.setInt(7, formulario.getIdProyecto());
+                }));
+            for (int i = 0; i < formularios.size(); i++) {
+                if (resultado.getIdGenerado(i) > 0) {
+                    formularios.get(i).setId(resultado.getIdGenerado(i));
+                    publicar(resultado.getIdGenerado(i), EventoEntidad.Operacion.INSERTADO);
+                }
+            }
+            System.out.println("Lote de formularios insertado: " + resultado);
+            return resultado;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar lote de formularios: " + e.getMessage());
+            return ResultadoLote.fallido(formularios.size(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Obtener todos los formularios
+     */
+    public List<Formulario> obtenerTodos() {
+        List<Formulario> formularios = new ArrayList<>();
+        String sql = "SELECT * FROM formularios ORDER BY id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                Formulario formulario = new Formulario(
+                    rs.getInt("id"),
+                    rs.getInt("numero_ayudantes"),
+                    rs.getString("nombre_ayudante"),
+                    rs.getString("apellido_ayudante"),
+                    rs.getString("cedula"),
+                    rs.getString("facultad"),
+                    rs.getString("estado")
+                );
+                formulario.setIdProyecto(rs.getInt("id_proyecto"));
+                formularios.add(formulario);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener formularios: " + e.getMessage());
+        }
+        
+        return formularios;
+    }
+    
+    /**
+     * Obtener formulario por ID
+     */
+    public Formulario obtenerPorId(int id) {
+        String sql = "SELECT * FROM formularios WHERE id = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                Formulario formulario = new Formulario(
+                    rs.getInt("id"),
+                    rs.getInt("numero_ayudantes"),
+                    rs.getString("nombre_ayudante"),
+                    rs.getString("apellido_ayudante"),
+                    rs.getString("cedula"),
+                    rs.getString("facultad"),
+                    rs.getString("estado")
+                );
+                formulario.setIdProyecto(rs.getInt("id_proyecto"));
+                return formulario;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener formulario: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Actualizar formulario
+     */
+    public boolean actualizar(Formulario formulario) {
+        String sql = "UPDATE formularios SET numero_ayudantes = ?, nombre_ayudante = ?, apellido_ayudante = ?, cedula = ?, facultad = ?, estado = ?, id_proyecto = ? WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, formulario.getNumeroDeAyudantes());
+                    pstmt.setString(2, formulario.getNombreDelAyudante());
+                    pstmt.setString(3, formulario.getApellidoDelAyudante());
+                    pstmt.setString(4, formulario.getCedula());
+                    pstmt.setString(5, formulario.getFacultad());
+                    pstmt.setString(6, formulario.getEstado());
+                    pstmt.setInt(7, formulario.getIdProyecto());
+                    pstmt.setInt(8, formulario.getId());
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(formulario.getId(), EventoEntidad.Operacion.ACTUALIZADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar formulario: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Eliminar formulario
+     */
+    public boolean eliminar(int id) {
+        String sql = "DELETE FROM formularios WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, id);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(id, EventoEntidad.Operacion.ELIMINADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar formulario: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Buscar formularios por estado
+     */
+    public List<Formulario> buscarPorEstado(String estado) {
+        List<Formulario> formularios = new ArrayList<>();
+        String sql = "SELECT * FROM formularios WHERE estado = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, estado);
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Formulario formulario = new Formulario(
+                    rs.getInt("id"),
+                    rs.getInt("numero_ayudantes"),
+                    rs.getString("nombre_ayudante"),
+                    rs.getString("apellido_ayudante"),
+                    rs.getString("cedula"),
+                    rs.getString("facultad"),
+                    rs.getString("estado")
+                );
+                formulario.setIdProyecto(rs.getInt("id_proyecto"));
+                formularios.add(formulario);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar formularios: " + e.getMessage());
+        }
+        
+        return formularios;
+    }
+    
+    /**
+     * Obtener formularios de un usuario específico (por sus proyectos)
+     */
+    public List<Formulario> obtenerFormulariosPorUsuario(int idUsuario) {
+        List<Formulario> formularios = new ArrayList<>();
+        String sql = "SELECT f.* FROM formularios f " +
+                     "INNER JOIN proyectos p ON f.id_proyecto = p.id " +
+                     "WHERE p.id_usuario = ? " +
+                     "ORDER BY f.id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsuario);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Formulario formulario = new Formulario(
+                    rs.getInt("id"),
+                    rs.getInt("numero_ayudantes"),
+                    rs.getString("nombre_ayudante"),
+                    rs.getString("apellido_ayudante"),
+                    rs.getString("cedula"),
+                    rs.getString("facultad"),
+                    rs.getString("estado")
+                );
+                formulario.setIdProyecto(rs.getInt("id_proyecto"));
+                formularios.add(formulario);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener formularios del usuario: " + e.getMessage());
+        }
+        
+        return formularios;
+    }
+    /**
+     * Obtener las filas de vista de todos los formularios con el nombre y código
+     * del proyecto y el nombre del director, en una sola consulta
+     */
+    public List<FormularioVista> obtenerVistas() {
+        String sql = SELECT_VISTA +
+                     "LEFT JOIN proyectos p ON p.id = f.id_proyecto " +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "ORDER BY f.id";
+        return consultarVistas(sql);
+    }
+    
+    /**
+     * Obtener las filas de vista de los formularios de los proyectos de un usuario
+     */
+    public List<FormularioVista> obtenerVistasPorUsuario(int idUsuario) {
+        String sql = SELECT_VISTA +
+                     "INNER JOIN proyectos p ON p.id = f.id_proyecto " +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE p.id_usuario = ? " +
+                     "ORDER BY f.id";
+        return consultarVistas(sql, idUsuario);
+    }
+    
+    /**
+     * Obtener una página de filas de vista con paginación por clave (keyset)
+     * @param despuesDeId Último id de la página anterior (0 para la primera página)
+     * @param limite Cantidad máxima de filas de la página
+     */
+    public List<FormularioVista> obtenerPaginaVistas(int despuesDeId, int limite) {
+        String sql = SELECT_VISTA +
+                     "LEFT JOIN proyectos p ON p.id = f.id_proyecto " +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE f.id > ? " +
+                     "ORDER BY f.id LIMIT ?";
+        return consultarVistas(sql, despuesDeId, limite);
+    }
+    
+    /**
+     * Obtener una página de filas de vista de los proyectos de un usuario (paginación por clave)
+     */
+    public List<FormularioVista> obtenerPaginaVistasPorUsuario(int idUsuario, int despuesDeId, int limite) {
+        String sql = SELECT_VISTA +
+                     "INNER JOIN proyectos p ON p.id = f.id_proyecto " +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE p.id_usuario = ? AND f.id > ? " +
+                     "ORDER BY f.id LIMIT ?";
+        return consultarVistas(sql, idUsuario, despuesDeId, limite);
+    }
+    
+    /**
+     * Obtener la fila de vista de un formulario por ID
+     */
+    public FormularioVista obtenerVistaPorId(int id) {
+        String sql = SELECT_VISTA +
+                     "LEFT JOIN proyectos p ON p.id = f.id_proyecto " +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE f.id = ?";
+        List<FormularioVista> vistas = consultarVistas(sql, id);
+        return vistas.isEmpty() ? null : vistas.get(0);
+    }
+    
+    /**
+     * Obtener la fila de vista de un formulario solo si pertenece a un proyecto del usuario
+     */
+    public FormularioVista obtenerVistaPorIdYUsuario(int id, int idUsuario) {
+        String sql = SELECT_VISTA +
+                     "INNER JOIN proyectos p ON p.id = f.id_proyecto " +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE f.id = ? AND p.id_usuario = ?";
+        List<FormularioVista> vistas = consultarVistas(sql, id, idUsuario);
+        return vistas.isEmpty() ? null : vistas.get(0);
+    }
+    
+    private List<FormularioVista> consultarVistas(String sql, int... parametros) {
+        List<FormularioVista> vistas = new ArrayList<>();
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                pstmt.setInt(i + 1, parametros[i]);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    vistas.add(mapearVista(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener vista de formularios: " + e.getMessage());
+        }
+        
+        return vistas;
+    }
+    
+    private FormularioVista mapearVista(ResultSet rs) throws SQLException {
+        return new FormularioVista(
+            rs.getInt("id"),
+            rs.getInt("numero_ayudantes"),
+            rs.getString("nombre_ayudante"),
+            rs.getString("apellido_ayudante"),
+            rs.getString("cedula"),
+            rs.getString("facultad"),
+            rs.getString("estado"),
+            rs.getInt("id_proyecto"),
+            rs.getString("nombre_proyecto"),
+            rs.getString("codigo_proyecto"),
+            rs.getString("nombre_director")
+        );
+    }
+    
+    public List<Formulario> buscarPorProyecto(int idProyecto) {
+    List<Formulario> formularios = new ArrayList<>();
+    String sql = "SELECT * FROM formularios WHERE id_proyecto = ? ORDER BY id";
+    
+    try (Connection conn = db.obtenerConexionLectura();
+         PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        pstmt.setInt(1, idProyecto);
+        ResultSet rs = pstmt.executeQuery();
+        
+        while (rs.next()) {
+            Formulario formulario = new Formulario(
+                rs.getInt("id"),
+                rs.getInt("numero_ayudantes"),
+                rs.getString("nombre_ayudante"),
+                rs.getString("apellido_ayudante"),
+                rs.getString("cedula"),
+                rs.getString("facultad"),
+                rs.getString("estado")
+            );
+            formulario.setIdProyecto(rs.getInt("id_proyecto"));
+            formularios.add(formulario);
+        }
+    } catch (SQLException e) {
+        System.err.println("Error al buscar formularios por proyecto: " + e.getMessage());
+    }
+    
+    return formularios;
+}
+    
+    private static void publicar(int id, EventoEntidad.Operacion operacion) {
+        BusEventos.getInstance().publicar(EventoEntidad.Tipo.FORMULARIO, id, operacion);
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Fila de solo lectura para mostrar formularios en tablas
+ * Incluye los datos del proyecto y del director obtenidos con un JOIN,
+ * evitando consultar proyecto y director por cada formulario
+ */
+public class FormularioVista {
+    private final int id;
+    private final int numeroDeAyudantes;
+    private final String nombreDelAyudante;
+    private final String apellidoDelAyudante;
+    private final String cedula;
+    private final String facultad;
+    private final String estado;
+    private final int idProyecto;
+    private final String nombreProyecto;
+    private final String codigoProyecto;
+    private final String nombreDirector;
+
+    public FormularioVista(int id, int numeroDeAyudantes, String nombreDelAyudante, String apellidoDelAyudante,
+                           String cedula, String facultad, String estado, int idProyecto,
+                           String nombreProyecto, String codigoProyecto, String nombreDirector) {
+        this.id = id;
+        this.numeroDeAyudantes = numeroDeAyudantes;
+        this.nombreDelAyudante = nombreDelAyudante;
+        this.apellidoDelAyudante = apellidoDelAyudante;
+        this.cedula = cedula;
+        this.facultad = facultad;
+        this.estado = estado;
+        this.idProyecto = idProyecto;
+        this.nombreProyecto = nombreProyecto != null ? nombreProyecto : "";
+        this.codigoProyecto = codigoProyecto != null ? codigoProyecto : "";
+        this.nombreDirector = nombreDirector != null ? nombreDirector : "";
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public int getNumeroDeAyudantes() {
+        return numeroDeAyudantes;
+    }
+
+    public String getNombreDelAyudante() {
+        return nombreDelAyudante;
+    }
+
+    public String getApellidoDelAyudante() {
+        return apellidoDelAyudante;
+    }
+
+    public String getCedula() {
+        return cedula;
+    }
+
+    public String getFacultad() {
+        return facultad;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public int getIdProyecto() {
+        return idProyecto;
+    }
+
+    public String getNombreProyecto() {
+        return nombreProyecto;
+    }
+
+    public String getCodigoProyecto() {
+        return codigoProyecto;
+    }
+
+    public String getNombreDirector() {
+        return nombreDirector;
+    }
+
+    @Override
+    public String toString() {
+        return "FormularioVista{" +
+                "id=" + id +
+                ", ayudante='" + nombreDelAyudante + " " + apellidoDelAyudante + '\'' +
+                ", estado='" + estado + '\'' +
+                ", proyecto='" + nombreProyecto + '\'' +
+                ", director='" + nombreDirector + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hash de contraseñas con sal usando PBKDF2 del JDK
+ * Formato almacenado: pbkdf2_sha512$iteraciones$sal$hash (sal y hash en Base64)
+ * Las contraseñas antiguas en texto plano se siguen aceptando para poder migrarlas.
+ */
+public final class HashContrasena {
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA512";
+    private static final String PREFIJO = "pbkdf2_sha512";
+    private static final int ITERACIONES = 210000;
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private HashContrasena() {
+    }
+
+    /**
+     * Genera el hash con sal aleatoria de una contraseña
+     */
+    public static String generar(String contraseña) {
+        byte[] sal = new byte[BYTES_SAL];
+        ALEATORIO.nextBytes(sal);
+        byte[] hash = derivar(contraseña, sal, ITERACIONES, BITS_HASH);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIJO + "$" + ITERACIONES + "$" + b64.encodeToString(sal) + "$" + b64.encodeToString(hash);
+    }
+
+    /**
+     * Verifica una contraseña contra el valor almacenado en la base de datos
+     */
+    public static boolean verificar(String contraseña, String almacenado) {
+        if (contraseña == null || almacenado == null) {
+            return false;
+        }
+        if (!esHash(almacenado)) {
+            // Contraseña heredada en texto plano
+            return MessageDigest.isEqual(
+                contraseña.getBytes(StandardCharsets.UTF_8),
+                almacenado.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] partes = almacenado.split("\\$");
+        if (partes.length != 4) {
+            return false;
+        }
+        try {
+            int iteraciones = Integer.parseInt(partes[1]);
+            byte[] sal = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+            byte[] calculado = derivar(contraseña, sal, iteraciones, esperado.length * 8);
+            return MessageDigest.isEqual(esperado, calculado);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Hash de contraseña con formato inválido");
+            return false;
+        }
+    }
+
+    /**
+     * Consume el mismo tiempo que una verificación real (para correos inexistentes)
+     */
+    public static void verificarFicticio(String contraseña) {
+        verificar(contraseña != null ? contraseña : "", Ficticio.HASH);
+    }
+
+    /**
+     * Indica si el valor almacenado ya es un hash PBKDF2
+     */
+    public static boolean esHash(String almacenado) {
+        return almacenado != null && almacenado.startsWith(PREFIJO + "$");
+    }
+
+    /**
+     * Indica si el valor almacenado debe regenerarse (texto plano o menos iteraciones)
+     */
+    public static boolean requiereActualizacion(String almacenado) {
+        if (!esHash(almacenado)) {
+            return true;
+        }
+        String[] partes = almacenado.split("\\$");
+        try {
+            return partes.length != 4 || Integer.parseInt(partes[1]) < ITERACIONES;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derivar(String contraseña, byte[] sal, int iteraciones, int bits) {
+        KeySpec spec = new PBEKeySpec(contraseña.toCharArray(), sal, iteraciones, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException("PBKDF2 no disponible en este JDK", e);
+        }
+    }
+
+    // Hash fijo para igualar el tiempo de respuesta cuando el correo no existe (se crea al primer uso)
+    private static class Ficticio {
+        static final String HASH = generar("contraseña-ficticia");
+    }
+}
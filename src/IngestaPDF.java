@@ -0,0 +1,356 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingesta por lotes de PDFs de proyectos desde una carpeta de entrada
+ * Vigila la carpeta con WatchService; cuando deja de recibir archivos por un momento,
+ * extrae los campos de todos los PDFs pendientes en paralelo (un hilo por núcleo, con
+ * cola acotada para no cargar demasiados documentos a la vez en memoria) y guarda
+ * los proyectos con ProyectoDAO.insertarLote en bloques, mientras siguen llegando
+ * resultados. Cada archivo termina en procesados/ o errores/ y cada lote deja un
+ * reporte CSV en reportes/ con el resultado y el tiempo de cada archivo.
+ */
+public class IngestaPDF {
+    // Proyectos extraídos que se acumulan antes de cada transacción
+    private static final int PROYECTOS_POR_TRANSACCION = 100;
+    // Tiempo sin eventos nuevos antes de procesar lo recibido
+    private static final long ESPERA_ESTABLE_MS = 1000;
+    // Nombres alternativos que se prueban cuando el archivo ya existe en el destino
+    private static final int MAX_RENOMBRES = 100;
+
+    private final Path bandeja;
+    private final Path procesados;
+    private final Path errores;
+    private final Path reportes;
+    private final int hilos;
+    private final PlantillaExtraccion plantilla;
+    private final ProyectoDAO proyectoDAO;
+    private final UsuarioDAO usuarioDAO;
+
+    private ThreadPoolExecutor trabajadores;
+    private Thread vigilante;
+    private volatile boolean activo;
+
+    /**
+     * Resultado de un archivo en el reporte
+     */
+    public static final class ResultadoArchivo {
+        private final Path archivo;
+        private final long milisegundos;
+        private Proyecto proyecto;
+        private String error;
+
+        private ResultadoArchivo(Path archivo, long milisegundos) {
+            this.archivo = archivo;
+            this.milisegundos = milisegundos;
+        }
+
+        public Path getArchivo() {
+            return archivo;
+        }
+
+        public long getMilisegundos() {
+            return milisegundos;
+        }
+
+        public Proyecto getProyecto() {
+            return proyecto;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isExitoso() {
+            return error == null;
+        }
+    }
+
+    /**
+     * @param bandeja Carpeta de entrada
+     * @param hilos Hilos de extracción (0 = uno por núcleo)
+     */
+    public IngestaPDF(Path bandeja, int hilos) {
+        this.bandeja = bandeja;
+        this.procesados = bandeja.resolve("procesados");
+        this.errores = bandeja.resolve("errores");
+        this.reportes = bandeja.resolve("reportes");
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        // Para la ingesta el director también es obligatorio: sin él el proyecto no tiene dueño
+        this.plantilla = PlantillaExtraccion.proyecto().requerir("director");
+        this.proyectoDAO = new ProyectoDAO();
+        this.usuarioDAO = new UsuarioDAO();
+    }
+
+    /**
+     * Procesa los PDFs que ya están en la bandeja y empieza a vigilarla
+     */
+    public synchronized void iniciar() throws IOException {
+        if (activo) {
+            return;
+        }
+        Files.createDirectories(procesados);
+        Files.createDirectories(errores);
+        Files.createDirectories(reportes);
+
+        AtomicInteger contador = new AtomicInteger();
+        // Cola acotada: si los trabajadores no dan abasto, el hilo que reparte extrae también
+        trabajadores = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(hilos * 2), r -> {
+                Thread t = new Thread(r, "ingesta-pdf-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        WatchService servicio = FileSystems.getDefault().newWatchService();
+        bandeja.register(servicio, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        activo = true;
+        vigilante = new Thread(() -> vigilar(servicio), "ingesta-bandeja");
+        vigilante.setDaemon(true);
+        vigilante.start();
+        System.out.println("Ingesta de PDFs: vigilando " + bandeja.toAbsolutePath() + " con " + hilos + " hilos");
+    }
+
+    public synchronized void detener() {
+        activo = false;
+        if (vigilante != null) {
+            vigilante.interrupt();
+            vigilante = null;
+        }
+        if (trabajadores != null) {
+            trabajadores.shutdownNow();
+            trabajadores = null;
+        }
+    }
+
+    private void vigilar(WatchService servicio) {
+        Set<Path> pendientes = new LinkedHashSet<>(listarPDFs());
+        try (WatchService ws = servicio) {
+            while (activo) {
+                WatchKey clave = ws.poll(ESPERA_ESTABLE_MS, TimeUnit.MILLISECONDS);
+                if (clave != null) {
+                    for (WatchEvent<?> evento : clave.pollEvents()) {
+                        if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            pendientes.addAll(listarPDFs());
+                        } else if (esPDF((Path) evento.context())) {
+                            pendientes.add(bandeja.resolve((Path) evento.context()));
+                        }
+                    }
+                    if (!clave.reset()) {
+                        System.err.println("Error al vigilar bandeja: la carpeta ya no está disponible");
+                        return;
+                    }
+                    // Mientras sigan llegando eventos, los archivos pueden estar copiándose
+                    continue;
+                }
+                if (!pendientes.isEmpty()) {
+                    List<Path> lote = new ArrayList<>(pendientes);
+                    pendientes.clear();
+                    procesar(lote);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error al vigilar bandeja: " + e.getMessage());
+        }
+    }
+
+    private List<Path> listarPDFs() {
+        List<Path> archivos = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(bandeja, "*.{pdf,PDF}")) {
+            for (Path archivo : stream) {
+                archivos.add(archivo);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al listar bandeja: " + e.getMessage());
+        }
+        return archivos;
+    }
+
+    private static boolean esPDF(Path nombre) {
+        return nombre.toString().toLowerCase().endsWith(".pdf");
+    }
+
+    /**
+     * Extrae y guarda un lote de PDFs
+     * @return Resultado de cada archivo, en el orden en que terminaron
+     */
+    public List<ResultadoArchivo> procesar(List<Path> archivos) {
+        long inicio = System.currentTimeMillis();
+        ExecutorCompletionService<ResultadoArchivo> completados = new ExecutorCompletionService<>(trabajadores);
+        int enviados = 0;
+        for (Path archivo : archivos) {
+            if (Files.isRegularFile(archivo)) {
+                completados.submit(() -> extraer(archivo));
+                enviados++;
+            }
+        }
+
+        List<ResultadoArchivo> resultados = new ArrayList<>(enviados);
+        List<ResultadoArchivo> porGuardar = new ArrayList<>();
+        try {
+            for (int i = 0; i < enviados; i++) {
+                ResultadoArchivo resultado = completados.take().get();
+                resultados.add(resultado);
+                if (resultado.isExitoso()) {
+                    porGuardar.add(resultado);
+                    if (porGuardar.size() >= PROYECTOS_POR_TRANSACCION) {
+                        guardar(porGuardar);
+                        porGuardar.clear();
+                    }
+                } else {
+                    mover(resultado.archivo, errores);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // extraer() no lanza: cualquier error queda en su ResultadoArchivo
+            System.err.println("Error al procesar lote de PDFs: " + e.getCause());
+        }
+        guardar(porGuardar);
+
+        escribirReporte(resultados, System.currentTimeMillis() - inicio);
+        return resultados;
+    }
+
+    private ResultadoArchivo extraer(Path archivo) {
+        long inicio = System.nanoTime();
+        Proyecto proyecto = null;
+        String error;
+        try {
+            // Una sola pasada por el documento para todos los campos de la plantilla
+            Map<String, String> valores = ExtractorPDF.extraerValores(archivo.toFile(), plantilla);
+            proyecto = plantilla.crearProyecto(valores);
+            Usuario director = usuarioDAO.buscarPorCorreo(valores.get("director"));
+            if (director instanceof Director) {
+                proyecto.setIdUsuario(director.getId());
+                error = null;
+            } else {
+                proyecto = null;
+                error = "No existe un director con el correo " + valores.get("director");
+            }
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        } catch (IOException | RuntimeException e) {
+            error = "No se pudo leer el PDF: " + e.getMessage();
+        }
+        ResultadoArchivo resultado = new ResultadoArchivo(archivo,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        resultado.proyecto = proyecto;
+        resultado.error = error;
+        return resultado;
+    }
+
+    private void guardar(List<ResultadoArchivo> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<Proyecto> proyectos = new ArrayList<>(lote.size());
+        for (ResultadoArchivo r : lote) {
+            proyectos.add(r.proyecto);
+        }
+        ResultadoLote resultado = proyectoDAO.insertarLote(proyectos);
+        for (int i = 0; i < lote.size(); i++) {
+            ResultadoArchivo r = lote.get(i);
+            if (resultado.getIdGenerado(i) > 0) {
+                mover(r.archivo, procesados);
+            } else {
+                r.error = "No se pudo guardar: " + resultado.getFallos().get(i);
+                mover(r.archivo, errores);
+            }
+        }
+    }
+
+    /**
+     * Mueve el archivo a procesados/ o errores/. Las propuestas reenviadas suelen repetir
+     * el nombre: si ya existe uno igual se agrega la fecha (y un contador) en lugar de
+     * reemplazar el anterior
+     */
+    private static void mover(Path archivo, Path destino) {
+        String nombre = archivo.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        String base = punto > 0 ? nombre.substring(0, punto) : nombre;
+        String extension = punto > 0 ? nombre.substring(punto) : "";
+        String marca = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+
+        Path objetivo = destino.resolve(nombre);
+        try {
+            for (int intento = 1; ; intento++) {
+                try {
+                    Files.move(archivo, objetivo);
+                    return;
+                } catch (FileAlreadyExistsException e) {
+                    if (intento > MAX_RENOMBRES) {
+                        throw e;
+                    }
+                    objetivo = destino.resolve(base + "-" + marca + (intento > 1 ? "-" + intento : "") + extension);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error al mover " + nombre + ": " + e.getMessage());
+        }
+    }
+
+    private void escribirReporte(List<ResultadoArchivo> resultados, long duracionMs) {
+        if (resultados.isEmpty()) {
+            return;
+        }
+        int exitosos = 0;
+        String marca = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        Path reporte = reportes.resolve("ingesta-" + marca + ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(reporte, StandardCharsets.UTF_8)) {
+            out.write("archivo;estado;milisegundos;id_proyecto;detalle");
+            out.newLine();
+            for (ResultadoArchivo r : resultados) {
+                if (r.isExitoso()) {
+                    exitosos++;
+                }
+                out.write(csv(r.archivo.getFileName().toString()) + ";" +
+                    (r.isExitoso() ? "OK" : "ERROR") + ";" +
+                    r.milisegundos + ";" +
+                    (r.isExitoso() ? r.proyecto.getId() : "") + ";" +
+                    csv(r.isExitoso() ? r.proyecto.getCodigo() : r.error));
+                out.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al escribir reporte de ingesta: " + e.getMessage());
+        }
+        System.out.println("Ingesta de PDFs: " + exitosos + " de " + resultados.size() +
+            " archivos en " + duracionMs + " ms (" + reporte.getFileName() + "). " + CacheExtraccion.getInstance());
+    }
+
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(';') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+}
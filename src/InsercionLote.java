@@ -0,0 +1,86 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+
+/**
+ * Inserción de muchas filas con addBatch/executeBatch dentro de una transacción
+ * Las filas se envían en bloques; cada bloque tiene su propio savepoint, de modo
+ * que si un bloque falla se deshace solo ese bloque y sus filas se reintentan una
+ * por una para identificar las que fallan. El resto del lote se confirma igual.
+ */
+public final class InsercionLote {
+    public static final int TAMANO_BLOQUE_PREDETERMINADO = 500;
+
+    /**
+     * Asigna los parámetros de la sentencia INSERT para un elemento
+     */
+    @FunctionalInterface
+    public interface AsignadorParametros<T> {
+        void asignar(PreparedStatement pstmt, T elemento) throws SQLException;
+    }
+
+    private InsercionLote() {
+    }
+
+    /**
+     * Inserta los elementos sobre una conexión que ya está dentro de una transacción
+     * @param sql Sentencia INSERT sobre una tabla con id INTEGER PRIMARY KEY AUTOINCREMENT
+     * @param tamanoBloque Cantidad de filas por executeBatch
+     */
+    public static <T> ResultadoLote insertar(Connection conn, String sql, List<T> elementos,
+                                             int tamanoBloque, AsignadorParametros<T> asignador) throws SQLException {
+        ResultadoLote resultado = new ResultadoLote(elementos.size());
+        int bloque = Math.max(1, tamanoBloque);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int inicio = 0; inicio < elementos.size(); inicio += bloque) {
+                int fin = Math.min(inicio + bloque, elementos.size());
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    for (int i = inicio; i < fin; i++) {
+                        asignador.asignar(pstmt, elementos.get(i));
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    // Con un solo escritor dentro de la transacción los ids del bloque son consecutivos
+                    int ultimoId = DatabaseConnection.ultimoIdInsertado(conn);
+                    for (int i = inicio; i < fin; i++) {
+                        resultado.registrarId(i, ultimoId - (fin - 1 - i));
+                    }
+                    conn.releaseSavepoint(savepoint);
+                } catch (SQLException | RuntimeException e) {
+                    pstmt.clearBatch();
+                    conn.rollback(savepoint);
+                    insertarUnoPorUno(conn, pstmt, elementos, inicio, fin, asignador, resultado);
+                    conn.releaseSavepoint(savepoint);
+                }
+            }
+        }
+
+        return resultado;
+    }
+
+    private static <T> void insertarUnoPorUno(Connection conn, PreparedStatement pstmt, List<T> elementos,
+                                              int inicio, int fin, AsignadorParametros<T> asignador,
+                                              ResultadoLote resultado) throws SQLException {
+        for (int i = inicio; i < fin; i++) {
+            Savepoint fila = conn.setSavepoint();
+            try {
+                asignador.asignar(pstmt, elementos.get(i));
+                pstmt.executeUpdate();
+                resultado.registrarId(i, DatabaseConnection.ultimoIdInsertado(conn));
+                conn.releaseSavepoint(fila);
+            } catch (SQLException e) {
+                conn.rollback(fila);
+                conn.releaseSavepoint(fila);
+                resultado.registrarFallo(i, e.getMessage());
+            } catch (RuntimeException e) {
+                conn.rollback(fila);
+                conn.releaseSavepoint(fila);
+                resultado.registrarFallo(i, String.valueOf(e));
+            }
+        }
+    }
+}
@@ -2,150 +2,117 @@ import java.util.List;
 
 /**
  * Clase Jefatura que extiende de Usuario
- * Representa a un miembro de la jefatura con funciones administrativas
+ * Representa a un miembro de la jefatura con funciones administrativas.
+ * Es un objeto liviano: las operaciones se delegan en JefaturaService.
  */
 public class Jefatura extends Usuario {
     
-    // DAOs
-    private ProyectoDAO proyectoDAO;
-    private FormularioDAO formularioDAO;
-    private SolicitudDAO solicitudDAO;
-    private UsuarioDAO usuarioDAO;
-    
     // Constructor
     public Jefatura() {
         super();
-        inicializarDAOs();
     }
     
     public Jefatura(String nombre, String apellido, String correo, String contraseña) {
         super(nombre, apellido, correo, contraseña);
-        inicializarDAOs();
     }
     
     public Jefatura(int id, String nombre, String apellido, String correo, String contraseña) {
         super(id, nombre, apellido, correo, contraseña);
-        inicializarDAOs();
     }
     
-    /**
-     * Inicializa los DAOs
-     */
-    private void inicializarDAOs() {
-        this.proyectoDAO = new ProyectoDAO();
-        this.formularioDAO = new FormularioDAO();
-        this.solicitudDAO = new SolicitudDAO();
-        this.usuarioDAO = new UsuarioDAO();
+    private static JefaturaService servicio() {
+        return JefaturaService.getInstance();
     }
     
     /**
      * Obtiene todos los proyectos registrados
      */
     public List<Proyecto> consultarProyectos() {
-        return proyectoDAO.obtenerTodos();
+        return servicio().consultarProyectos();
     }
     
     /**
      * Obtiene todos los formularios registrados
      */
     public List<Formulario> consultarFormularios() {
-        return formularioDAO.obtenerTodos();
+        return servicio().consultarFormularios();
     }
     
     /**
      * Obtiene formularios por estado
      */
     public List<Formulario> consultarFormulariosPorEstado(String estado) {
-        return formularioDAO.buscarPorEstado(estado);
+        return servicio().consultarFormulariosPorEstado(estado);
     }
     
     /**
      * Obtiene todas las solicitudes
      */
     public List<Solicitud> consultarSolicitudes() {
-        return solicitudDAO.obtenerTodas();
+        return servicio().consultarSolicitudes();
     }
     
     /**
      * Obtiene solicitudes por estado
      */
     public List<Solicitud> consultarSolicitudesPorEstado(String estado) {
-        return solicitudDAO.buscarPorEstado(estado);
+        return servicio().consultarSolicitudesPorEstado(estado);
     }
     
     /**
      * Aprueba un formulario
      */
     public boolean aprobarFormulario(int idFormulario) {
-        Formulario f = formularioDAO.obtenerPorId(idFormulario);
-        if (f == null) {
-            return false;
-        }
-        f.setEstado("Aprobado");
-        return formularioDAO.actualizar(f);
+        return servicio().aprobarFormulario(idFormulario);
     }
     
     /**
      * Rechaza un formulario
      */
     public boolean rechazarFormulario(int idFormulario) {
-        Formulario f = formularioDAO.obtenerPorId(idFormulario);
-        if (f == null) {
-            return false;
-        }
-        f.setEstado("Rechazado");
-        return formularioDAO.actualizar(f);
+        return servicio().rechazarFormulario(idFormulario);
     }
     
     /**
      * Asesora sobre una solicitud
      */
     public boolean asesorarSolicitud(int idSolicitud, String asesoramiento) {
-        Solicitud s = solicitudDAO.obtenerPorId(idSolicitud);
-        if (s == null) {
-            return false;
-        }
-        s.setEstadoEmisionDest("Asesorada");
-        // Nota: Agregar campo de asesoramiento en Solicitud si no existe
-        return solicitudDAO.actualizar(s);
+        return servicio().asesorarSolicitud(idSolicitud, asesoramiento);
     }
     
     /**
      * Aprueba una solicitud
      */
     public boolean aprobarSolicitud(int idSolicitud) {
-        Solicitud s = solicitudDAO.obtenerPorId(idSolicitud);
-        if (s == null) {
-            return false;
-        }
-        s.setEstadoEmisionDest("Aprobada");
-        return solicitudDAO.actualizar(s);
+        return servicio().aprobarSolicitud(idSolicitud);
     }
     
     /**
      * Rechaza una solicitud
      */
     public boolean rechazarSolicitud(int idSolicitud) {
-        Solicitud s = solicitudDAO.obtenerPorId(idSolicitud);
-        if (s == null) {
-            return false;
-        }
-        s.setEstadoEmisionDest("Rechazada");
-        return solicitudDAO.actualizar(s);
+        return servicio().rechazarSolicitud(idSolicitud);
+    }
+    
+    /**
+     * Cambia el estado de varias solicitudes a la vez
+     */
+    public ResultadoCambioEstado actualizarEstadoSolicitudes(List<Integer> idsSolicitudes, String estado, boolean notificar) {
+        return servicio().actualizarEstadoSolicitudes(idsSolicitudes, estado, notificar);
     }
     
     /**
      * Obtiene información de un director específico
      */
     public Usuario obtenerDirector(int idDirector) {
-        return usuarioDAO.obtenerPorId(idDirector);
+        return servicio().obtenerDirector(idDirector);
     }
     
     /**
      * Obtiene todos los directores registrados
      */
     public List<Usuario> consultarDirectores() {
-        return usuarioDAO.obtenerTodos();
+        return servicio().consultarDirectores();
     }
     
     @Override
@@ -0,0 +1,171 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Operaciones del rol Jefatura sobre la base de datos
+ * Es una instancia única y sin estado: los DAOs se crean una sola vez y se
+ * comparten, en lugar de crearse con cada objeto Jefatura.
+ */
+public class JefaturaService {
+    private static final JefaturaService INSTANCIA = new JefaturaService();
+    
+    private final ProyectoDAO proyectoDAO;
+    private final FormularioDAO formularioDAO;
+    private final SolicitudDAO solicitudDAO;
+    private final UsuarioDAO usuarioDAO;
+    private final NotificacionDAO notificacionDAO;
+    
+    private JefaturaService() {
+        this.proyectoDAO = new ProyectoDAO();
+        this.formularioDAO = new FormularioDAO();
+        this.solicitudDAO = new SolicitudDAO();
+        this.usuarioDAO = new UsuarioDAO();
+        this.notificacionDAO = new NotificacionDAO();
+    }
+    
+    public static JefaturaService getInstance() {
+        return INSTANCIA;
+    }
+    
+    /**
+     * Obtiene todos los proyectos registrados
+     */
+    public List<Proyecto> consultarProyectos() {
+        return proyectoDAO.obtenerTodos();
+    }
+    
+    /**
+     * Obtiene todos los formularios registrados
+     */
+    public List<Formulario> consultarFormularios() {
+        return formularioDAO.obtenerTodos();
+    }
+    
+    /**
+     * Obtiene formularios por estado
+     */
+    public List<Formulario> consultarFormulariosPorEstado(String estado) {
+        return formularioDAO.buscarPorEstado(estado);
+    }
+    
+    /**
+     * Obtiene todas las solicitudes
+     */
+    public List<Solicitud> consultarSolicitudes() {
+        return solicitudDAO.obtenerTodas();
+    }
+    
+    /**
+     * Obtiene solicitudes por estado
+     */
+    public List<Solicitud> consultarSolicitudesPorEstado(String estado) {
+        return solicitudDAO.buscarPorEstado(estado);
+    }
+    
+    /**
+     * Aprueba un formulario
+     */
+    public boolean aprobarFormulario(int idFormulario) {
+        Formulario f = formularioDAO.obtenerPorId(idFormulario);
+        if (f == null) {
+            return false;
+        }
+        f.setEstado("Aprobado");
+        return formularioDAO.actualizar(f);
+    }
+    
+    /**
+     * Rechaza un formulario
+     */
+    public boolean rechazarFormulario(int idFormulario) {
+        Formulario f = formularioDAO.obtenerPorId(idFormulario);
+        if (f == null) {
+            return false;
+        }
+        f.setEstado("Rechazado");
+        return formularioDAO.actualizar(f);
+    }
+    
+    /**
+     * Asesora sobre una solicitud
+     */
+    public boolean asesorarSolicitud(int idSolicitud, String asesoramiento) {
+        Solicitud s = solicitudDAO.obtenerPorId(idSolicitud);
+        if (s == null) {
+            return false;
+        }
+        s.setEstadoEmisionDest("Asesorada");
+        // Nota: Agregar campo de asesoramiento en Solicitud si no existe
+        return solicitudDAO.actualizar(s);
+    }
+    
+    /**
+     * Aprueba una solicitud
+     */
+    public boolean aprobarSolicitud(int idSolicitud) {
+        return solicitudDAO.actualizarEstado(idSolicitud, "Aprobada");
+    }
+    
+    /**
+     * Rechaza una solicitud
+     */
+    public boolean rechazarSolicitud(int idSolicitud) {
+        return solicitudDAO.actualizarEstado(idSolicitud, "Rechazada");
+    }
+    
+    /**
+     * Cambia el estado de varias solicitudes y notifica a cada solicitante
+     * El cambio es un solo UPDATE por bloque de ids y las notificaciones se insertan
+     * en un lote, todo en la misma transacción: si algo falla no cambia ninguna solicitud.
+     * Solo se notifican las solicitudes que realmente cambiaron; los eventos se publican
+     * después del commit.
+     * @param notificar Si se avisa a los solicitantes
+     */
+    public ResultadoCambioEstado actualizarEstadoSolicitudes(List<Integer> idsSolicitudes, String estado, boolean notificar) {
+        if (idsSolicitudes.isEmpty()) {
+            return new ResultadoCambioEstado(new ArrayList<>(), null);
+        }
+        List<Notificacion> notificaciones = new ArrayList<>();
+        ResultadoCambioEstado resultado;
+        try {
+            resultado = DatabaseConnection.getInstance().ejecutarTransaccion(conn -> {
+                // Se arma de nuevo en cada intento si la transacción se reintenta
+                notificaciones.clear();
+                List<Solicitud> cambiadas = solicitudDAO.actualizarEstadoLote(conn, idsSolicitudes, estado);
+                if (!notificar || cambiadas.isEmpty()) {
+                    return new ResultadoCambioEstado(cambiadas, null);
+                }
+                for (Solicitud s : cambiadas) {
+                    notificaciones.add(new Notificacion(
+                        "Su solicitud \"" + s.getAsunto() + "\" cambió a estado: " + estado, s.getIdUsuario()));
+                }
+                return new ResultadoCambioEstado(cambiadas, notificacionDAO.insertarLote(
+                    conn, notificaciones, InsercionLote.TAMANO_BLOQUE_PREDETERMINADO));
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar estado de solicitudes: " + e.getMessage());
+            return ResultadoCambioEstado.fallido(e.getMessage());
+        }
+        
+        solicitudDAO.publicarActualizadas(resultado.getCambiadas());
+        if (resultado.getNotificaciones() != null) {
+            notificacionDAO.publicarInsertadas(notificaciones, resultado.getNotificaciones());
+        }
+        return resultado;
+    }
+    
+    /**
+     * Obtiene información de un director específico
+     */
+    public Usuario obtenerDirector(int idDirector) {
+        return usuarioDAO.obtenerPorId(idDirector);
+    }
+    
+    /**
+     * Obtiene todos los directores registrados
+     */
+    public List<Usuario> consultarDirectores() {
+        return usuarioDAO.obtenerTodos();
+    }
+}
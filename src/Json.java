@@ -0,0 +1,271 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lectura y escritura de JSON para la API del servidor
+ * Solo cubre lo que usa la API: objetos, arreglos, texto, números, booleanos y null.
+ * Las fechas se escriben en milisegundos desde epoch, igual que se guardan en la base.
+ */
+public final class Json {
+    // La lectura es recursiva: un cuerpo "[[[[..." no debe llegar a desbordar la pila
+    private static final int MAX_PROFUNDIDAD = 64;
+
+    private Json() {
+    }
+
+    /**
+     * Convierte un valor (Map, Collection, String, Number, Boolean, Date o null) a texto JSON
+     */
+    public static String escribir(Object valor) {
+        StringBuilder sb = new StringBuilder();
+        escribir(sb, valor);
+        return sb.toString();
+    }
+
+    private static void escribir(StringBuilder sb, Object valor) {
+        if (valor == null) {
+            sb.append("null");
+        } else if (valor instanceof String) {
+            escribirTexto(sb, (String) valor);
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            sb.append(valor);
+        } else if (valor instanceof Date) {
+            sb.append(((Date) valor).getTime());
+        } else if (valor instanceof Map) {
+            sb.append('{');
+            boolean primero = true;
+            for (Map.Entry<?, ?> entrada : ((Map<?, ?>) valor).entrySet()) {
+                if (!primero) {
+                    sb.append(',');
+                }
+                primero = false;
+                escribirTexto(sb, String.valueOf(entrada.getKey()));
+                sb.append(':');
+                escribir(sb, entrada.getValue());
+            }
+            sb.append('}');
+        } else if (valor instanceof Collection) {
+            sb.append('[');
+            boolean primero = true;
+            for (Object elemento : (Collection<?>) valor) {
+                if (!primero) {
+                    sb.append(',');
+                }
+                primero = false;
+                escribir(sb, elemento);
+            }
+            sb.append(']');
+        } else {
+            escribirTexto(sb, valor.toString());
+        }
+    }
+
+    private static void escribirTexto(StringBuilder sb, String texto) {
+        sb.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Lee un objeto JSON. Los números quedan como Long o Double
+     * @throws IllegalArgumentException si el texto no es un objeto JSON válido
+     */
+    public static Map<String, Object> leerObjeto(String texto) {
+        Lector lector = new Lector(texto);
+        lector.saltarEspacios();
+        if (lector.fin() || lector.actual() != '{') {
+            throw new IllegalArgumentException("Se esperaba un objeto JSON");
+        }
+        Object valor = lector.leerValor();
+        lector.saltarEspacios();
+        if (!lector.fin()) {
+            throw new IllegalArgumentException("Contenido inesperado en la posición " + lector.pos);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> objeto = (Map<String, Object>) valor;
+        return objeto;
+    }
+
+    private static final class Lector {
+        private final String texto;
+        private int pos;
+        private int profundidad;
+
+        Lector(String texto) {
+            this.texto = texto;
+        }
+
+        boolean fin() {
+            return pos >= texto.length();
+        }
+
+        char actual() {
+            return texto.charAt(pos);
+        }
+
+        void saltarEspacios() {
+            while (!fin() && Character.isWhitespace(actual())) {
+                pos++;
+            }
+        }
+
+        void esperar(char c) {
+            saltarEspacios();
+            if (fin() || actual() != c) {
+                throw new IllegalArgumentException("Se esperaba '" + c + "' en la posición " + pos);
+            }
+            pos++;
+        }
+
+        Object leerValor() {
+            saltarEspacios();
+            if (fin()) {
+                throw new IllegalArgumentException("JSON incompleto");
+            }
+            char c = actual();
+            switch (c) {
+                case '{': return leerMapa();
+                case '[': return leerArreglo();
+                case '"': return leerTexto();
+                case 't': return leerLiteral("true", Boolean.TRUE);
+                case 'f': return leerLiteral("false", Boolean.FALSE);
+                case 'n': return leerLiteral("null", null);
+                default: return leerNumero();
+            }
+        }
+
+        private void entrar() {
+            if (++profundidad > MAX_PROFUNDIDAD) {
+                throw new IllegalArgumentException("JSON con más de " + MAX_PROFUNDIDAD + " niveles de anidación");
+            }
+        }
+
+        private Map<String, Object> leerMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            entrar();
+            esperar('{');
+            saltarEspacios();
+            if (!fin() && actual() == '}') {
+                pos++;
+                profundidad--;
+                return mapa;
+            }
+            while (true) {
+                String clave = leerTexto();
+                esperar(':');
+                mapa.put(clave, leerValor());
+                saltarEspacios();
+                if (fin() || actual() != ',') {
+                    break;
+                }
+                pos++;
+            }
+            esperar('}');
+            profundidad--;
+            return mapa;
+        }
+
+        private List<Object> leerArreglo() {
+            List<Object> lista = new ArrayList<>();
+            entrar();
+            esperar('[');
+            saltarEspacios();
+            if (!fin() && actual() == ']') {
+                pos++;
+                profundidad--;
+                return lista;
+            }
+            while (true) {
+                lista.add(leerValor());
+                saltarEspacios();
+                if (fin() || actual() != ',') {
+                    break;
+                }
+                pos++;
+            }
+            esperar(']');
+            profundidad--;
+            return lista;
+        }
+
+        private String leerTexto() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (fin()) {
+                    throw new IllegalArgumentException("Texto sin cerrar");
+                }
+                char c = texto.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (fin()) {
+                    throw new IllegalArgumentException("Escape incompleto");
+                }
+                char e = texto.charAt(pos++);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > texto.length()) {
+                            throw new IllegalArgumentException("Escape unicode incompleto");
+                        }
+                        sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(e); break;
+                }
+            }
+        }
+
+        private Object leerLiteral(String literal, Object valor) {
+            if (!texto.startsWith(literal, pos)) {
+                throw new IllegalArgumentException("Valor inválido en la posición " + pos);
+            }
+            pos += literal.length();
+            return valor;
+        }
+
+        private Number leerNumero() {
+            int inicio = pos;
+            while (!fin() && "+-0123456789.eE".indexOf(actual()) >= 0) {
+                pos++;
+            }
+            String numero = texto.substring(inicio, pos);
+            try {
+                if (numero.indexOf('.') >= 0 || numero.indexOf('e') >= 0 || numero.indexOf('E') >= 0) {
+                    return Double.parseDouble(numero);
+                }
+                return Long.parseLong(numero);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Número inválido en la posición " + inicio);
+            }
+        }
+    }
+}
@@ -132,29 +132,47 @@ public class LoginWindow  extends JFrame{
                 return;
             }
             
-            if (autenticar(correo, password)) {
-                // Validar que solo Director y Jefatura pueden acceder
-                if (!"Director".equals(rolActual) && !"Jefatura".equals(rolActual)) {
-                    lblEstado.setText("✗ Acceso restringido a Director y Jefatura únicamente");
-                    lblEstado.setForeground(Color.RED);
-                    txtPassword.setText("");
-                    return;
+            // PBKDF2 tarda cientos de milisegundos: se verifica fuera del EDT
+            btnLogin.setEnabled(false);
+            lblEstado.setText("Verificando...");
+            lblEstado.setForeground(Color.GRAY);
+            CargaAsincrona.getEjecutor().execute(() -> {
+                Usuario autenticado;
+                try {
+                    autenticado = autenticar(correo, password);
+                } catch (RuntimeException ex) {
+                    System.err.println("Error al autenticar: " + ex.getMessage());
+                    autenticado = null;
                 }
-                
-                lblEstado.setText("✓ Autenticación exitosa");
-                lblEstado.setForeground(new Color(46, 204, 113));
-                
-                // Abrir sistema con rol validado
+                Usuario usuario = autenticado;
                 SwingUtilities.invokeLater(() -> {
+                    btnLogin.setEnabled(true);
+                    if (usuario == null) {
+                        lblEstado.setText("✗ Correo o contraseña inválidos");
+                        lblEstado.setForeground(Color.RED);
+                        txtPassword.setText("");
+                        return;
+                    }
+                    
+                    usuarioActual = usuario;
+                    rolActual = rol(usuario);
+                    // Validar que solo Director y Jefatura pueden acceder
+                    if (!"Director".equals(rolActual) && !"Jefatura".equals(rolActual)) {
+                        lblEstado.setText("✗ Acceso restringido a Director y Jefatura únicamente");
+                        lblEstado.setForeground(Color.RED);
+                        txtPassword.setText("");
+                        return;
+                    }
+                    
+                    lblEstado.setText("✓ Autenticación exitosa");
+                    lblEstado.setForeground(new Color(46, 204, 113));
+                    
+                    // Abrir sistema con rol validado
                     dispose();
                     SistemaGestionWindow sistema = new SistemaGestionWindow(usuarioActual, rolActual);
                     sistema.setVisible(true);
                 });
-            } else {
-                lblEstado.setText("✗ Correo o contraseña inválidos");
-                lblEstado.setForeground(Color.RED);
-                txtPassword.setText("");
-            }
+            });
         });
         
         btnRegistrar.addActionListener(e -> mostrarFormularioRegistro());
@@ -192,27 +210,40 @@ public class LoginWindow  extends JFrame{
         add(mainPanel);
     }
     
-    private boolean autenticar(String correo, String password) {
-        List<Usuario> usuarios = usuarioDAO.obtenerTodos();
+    /**
+     * Verifica las credenciales (fuera del EDT: no toca componentes ni campos de la ventana)
+     * @return El usuario autenticado, o null si el correo o la contraseña no coinciden
+     */
+    private Usuario autenticar(String correo, String password) {
+        // Búsqueda indexada por correo en lugar de recorrer todos los usuarios
+        Usuario usuario = usuarioDAO.buscarPorCorreo(correo);
         
-        for (Usuario usuario : usuarios) {
-            if (usuario.getCorreo().equals(correo) && usuario.getPassword().equals(password)) {
-                usuarioActual = usuario;
-                
-                // Determinar el rol del usuario
-                if (usuario instanceof Director) {
-                    rolActual = "Director";
-                } else if (usuario instanceof Jefatura) {
-                    rolActual = "Jefatura";
-                } else {
-                    rolActual = "Usuario";
-                }
-                
-                return true;
-            }
+        if (usuario == null) {
+            HashContrasena.verificarFicticio(password);
+            return null;
         }
         
-        return false;
+        if (!HashContrasena.verificar(password, usuario.getPassword())) {
+            return null;
+        }
+        
+        // Migrar contraseñas antiguas en texto plano al hash PBKDF2
+        if (HashContrasena.requiereActualizacion(usuario.getPassword())) {
+            usuarioDAO.actualizarContraseña(usuario.getId(), password);
+        }
+        
+        return usuario;
+    }
+    
+    // Determinar el rol del usuario
+    private static String rol(Usuario usuario) {
+        if (usuario instanceof Director) {
+            return "Director";
+        } else if (usuario instanceof Jefatura) {
+            return "Jefatura";
+        } else {
+            return "Usuario";
+        }
     }
       private void mostrarFormularioRegistro() {
         JDialog dialog = new JDialog(this, "Registrar Director", true);
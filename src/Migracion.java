@@ -0,0 +1,91 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Paso versionado del esquema de la base de datos
+ * Cada migración tiene un número de versión, una descripción y una suma de
+ * verificación (SHA-256) calculada sobre su contenido, que se guarda en
+ * schema_version para detectar migraciones ya aplicadas que fueron modificadas.
+ */
+public final class Migracion {
+
+    /**
+     * Cambio de esquema que necesita lógica además de SQL fijo
+     */
+    @FunctionalInterface
+    public interface Paso {
+        void aplicar(Connection conn) throws SQLException;
+    }
+
+    private final int version;
+    private final String descripcion;
+    private final String contenido;
+    private final Paso paso;
+
+    private Migracion(int version, String descripcion, String contenido, Paso paso) {
+        this.version = version;
+        this.descripcion = descripcion;
+        this.contenido = contenido;
+        this.paso = paso;
+    }
+
+    /**
+     * Migración formada por sentencias SQL que se ejecutan en orden
+     */
+    public static Migracion sql(int version, String descripcion, String... sentencias) {
+        String contenido = String.join(";\n", sentencias);
+        return new Migracion(version, descripcion, contenido, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sentencia : sentencias) {
+                    stmt.execute(sentencia);
+                }
+            }
+        });
+    }
+
+    /**
+     * Migración escrita en Java. La firma identifica su contenido para la suma de
+     * verificación y debe cambiarse si se modifica el paso.
+     */
+    public static Migracion codigo(int version, String descripcion, String firma, Paso paso) {
+        return new Migracion(version, descripcion, firma, paso);
+    }
+
+    public void aplicar(Connection conn) throws SQLException {
+        paso.aplicar(conn);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Suma de verificación SHA-256 (hexadecimal) de la versión y el contenido
+     */
+    public String getChecksum() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((version + "\n" + contenido).getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en este JDK", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + descripcion;
+    }
+}
@@ -0,0 +1,97 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica en orden las migraciones pendientes y registra cada una en schema_version
+ * Las migraciones ya aplicadas se omiten sin inspeccionar el esquema; si la suma
+ * de verificación de una migración aplicada cambió, se detiene sin aplicar más.
+ * Cada migración se ejecuta en su propia transacción.
+ */
+public class MigradorEsquema {
+    private final List<Migracion> migraciones;
+
+    public MigradorEsquema(List<Migracion> migraciones) {
+        this.migraciones = new ArrayList<>(migraciones);
+        this.migraciones.sort(Comparator.comparingInt(Migracion::getVersion));
+        for (int i = 1; i < this.migraciones.size(); i++) {
+            if (this.migraciones.get(i).getVersion() == this.migraciones.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Versión de migración duplicada: " + this.migraciones.get(i));
+            }
+        }
+    }
+
+    /**
+     * Aplica las migraciones pendientes sobre la conexión de escritura
+     * @return Cantidad de migraciones aplicadas
+     */
+    public int migrar(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    " version INTEGER PRIMARY KEY," +
+                    " descripcion TEXT NOT NULL," +
+                    " checksum TEXT NOT NULL," +
+                    " aplicada_en TEXT NOT NULL DEFAULT (datetime('now'))" +
+                    ")");
+        }
+
+        Map<Integer, String> aplicadas = leerAplicadas(conn);
+        int aplicadasAhora = 0;
+
+        for (Migracion migracion : migraciones) {
+            String checksum = aplicadas.get(migracion.getVersion());
+            if (checksum != null) {
+                if (!checksum.equals(migracion.getChecksum())) {
+                    throw new SQLException("La migración " + migracion +
+                            " ya aplicada fue modificada (checksum distinto)");
+                }
+                continue;
+            }
+
+            aplicar(conn, migracion);
+            aplicadasAhora++;
+            System.out.println("✓ Migración aplicada: " + migracion);
+        }
+
+        return aplicadasAhora;
+    }
+
+    private void aplicar(Connection conn, Migracion migracion) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            migracion.aplicar(conn);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version(version, descripcion, checksum) VALUES(?, ?, ?)")) {
+                pstmt.setInt(1, migracion.getVersion());
+                pstmt.setString(2, migracion.getDescripcion());
+                pstmt.setString(3, migracion.getChecksum());
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Error en la migración " + migracion + ": " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private Map<Integer, String> leerAplicadas(Connection conn) throws SQLException {
+        Map<Integer, String> aplicadas = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return aplicadas;
+    }
+}
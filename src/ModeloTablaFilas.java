@@ -0,0 +1,17 @@
+/**
+ * Modelo paginado de filas genéricas (Object[]) para las pestañas que muestran
+ * datos ya convertidos a celdas. La primera columna debe ser el id de la entidad,
+ * que se usa como clave de paginación.
+ */
+public class ModeloTablaFilas extends ModeloTablaPaginado<Object[]> {
+    private static final long serialVersionUID = 1L;
+
+    public ModeloTablaFilas(String[] columnas, CargaAsincrona carga) {
+        super(columnas, fila -> (Integer) fila[0], carga);
+    }
+
+    @Override
+    protected Object valorColumna(Object[] fila, int columna) {
+        return fila[columna];
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Modelo de tabla para la pestaña de Formularios
+ * Trabaja directamente sobre las filas FormularioVista, sin copiar a Object[],
+ * cargadas por páginas a medida que se desplaza la tabla
+ */
+public class ModeloTablaFormularios extends ModeloTablaPaginado<FormularioVista> {
+    private static final long serialVersionUID = 1L;
+    public static final int COL_ID = 0;
+    public static final int COL_ESTADO = 6;
+    public static final int COL_ID_PROYECTO = 7;
+
+    private static final String[] COLUMNAS = {"ID", "N° Ayudantes", "Nombre", "Apellido", "Cédula",
+        "Facultad", "Estado", "IdProyecto", "Proyecto", "Director"};
+
+    public ModeloTablaFormularios(CargaAsincrona carga) {
+        super(COLUMNAS, FormularioVista::getId, carga);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 0:
+            case 1:
+            case 7:
+                return Integer.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    protected Object valorColumna(FormularioVista f, int column) {
+        switch (column) {
+            case 0: return f.getId();
+            case 1: return f.getNumeroDeAyudantes();
+            case 2: return f.getNombreDelAyudante();
+            case 3: return f.getApellidoDelAyudante();
+            case 4: return f.getCedula();
+            case 5: return f.getFacultad();
+            case 6: return f.getEstado();
+            case 7: return f.getIdProyecto();
+            case 8: return f.getNombreProyecto();
+            case 9: return f.getNombreDirector();
+            default: return null;
+        }
+    }
+}
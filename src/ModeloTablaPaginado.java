@@ -0,0 +1,338 @@
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Modelo de tabla que carga las filas por páginas a medida que se desplaza la vista
+ * Las páginas se piden a los DAO con paginación por clave (WHERE id > ? ORDER BY id LIMIT ?),
+ * por lo que abrir una pestaña cuesta una sola página y no la tabla completa.
+ * Para resultados que no están ordenados por id (búsquedas por relevancia) se
+ * puede paginar por desplazamiento (LIMIT ? OFFSET ?).
+ * Las consultas se ejecutan fuera del EDT mediante CargaAsincrona.
+ * Los cambios publicados en BusEventos se aplican fila por fila con aplicarCambios().
+ */
+public abstract class ModeloTablaPaginado<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    public static final int TAMANO_PAGINA = 50;
+
+    // Filas restantes bajo la vista a partir de las cuales se pide la siguiente página
+    private static final int MARGEN_FILAS = 10;
+
+    /**
+     * Consulta de una página (se ejecuta fuera del EDT)
+     */
+    @FunctionalInterface
+    public interface CargadorPagina<T> {
+        List<T> cargar(int despuesDeId, int limite) throws Exception;
+    }
+
+    /**
+     * Consulta de una página por desplazamiento (se ejecuta fuera del EDT)
+     */
+    @FunctionalInterface
+    public interface CargadorDesplazamiento<T> {
+        List<T> cargar(int limite, int desplazamiento) throws Exception;
+    }
+
+    /**
+     * Consulta de una sola fila por id (se ejecuta fuera del EDT).
+     * Devuelve null si la fila ya no existe o no pertenece a la vista actual.
+     */
+    @FunctionalInterface
+    public interface CargadorFila<T> {
+        T cargar(int id) throws Exception;
+    }
+
+    private final String[] columnas;
+    private final ToIntFunction<T> obtenerId;
+    private final CargaAsincrona carga;
+    private final int tamanoPagina;
+    private final List<T> filas = new ArrayList<>();
+
+    private CargadorPagina<T> cargador;
+    private CargadorFila<T> cargadorFila;
+    private boolean porDesplazamiento;
+    private int ultimoId;
+    private boolean hayMas;
+    private int generacion;
+    private JScrollPane scrollPane;
+
+    protected ModeloTablaPaginado(String[] columnas, ToIntFunction<T> obtenerId, CargaAsincrona carga) {
+        this(columnas, obtenerId, carga, TAMANO_PAGINA);
+    }
+
+    protected ModeloTablaPaginado(String[] columnas, ToIntFunction<T> obtenerId, CargaAsincrona carga, int tamanoPagina) {
+        this.columnas = columnas;
+        this.obtenerId = obtenerId;
+        this.carga = carga;
+        this.tamanoPagina = tamanoPagina;
+    }
+
+    /**
+     * Valor de una columna para una fila cargada
+     */
+    protected abstract Object valorColumna(T fila, int columna);
+
+    /**
+     * Pide la siguiente página cuando la barra de desplazamiento se acerca al final
+     */
+    public void instalar(JScrollPane scrollPane) {
+        this.scrollPane = scrollPane;
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting() && cercaDelFinal()) {
+                cargarSiguientePagina();
+            }
+        });
+    }
+
+    /**
+     * Cambia la consulta de origen y vuelve a cargar desde la primera página
+     */
+    public void setCargador(CargadorPagina<T> cargador) {
+        this.cargador = cargador;
+        this.porDesplazamiento = false;
+        reiniciar();
+    }
+
+    /**
+     * Cambia la consulta de origen a una paginada por desplazamiento y vuelve a cargar
+     */
+    public void setCargadorDesplazamiento(CargadorDesplazamiento<T> cargador) {
+        this.cargador = (desplazamiento, limite) -> cargador.cargar(limite, desplazamiento);
+        this.porDesplazamiento = true;
+        reiniciar();
+    }
+
+    /**
+     * Consulta usada para corregir filas individuales al recibir cambios
+     */
+    public void setCargadorFila(CargadorFila<T> cargadorFila) {
+        this.cargadorFila = cargadorFila;
+    }
+
+    /**
+     * Descarta las filas cargadas y pide de nuevo la primera página
+     */
+    public void reiniciar() {
+        carga.cancelar();
+        generacion++;
+        filas.clear();
+        ultimoId = 0;
+        hayMas = true;
+        fireTableDataChanged();
+        cargarSiguientePagina();
+    }
+
+    /**
+     * Pide la página siguiente a la última fila cargada, si no hay otra en curso
+     */
+    public void cargarSiguientePagina() {
+        if (cargador == null || !hayMas || carga.estaCargando()) {
+            return;
+        }
+
+        CargadorPagina<T> consulta = cargador;
+        int desde = porDesplazamiento ? filas.size() : ultimoId;
+        carga.cargar(() -> consulta.cargar(desde, tamanoPagina), this::agregarPagina);
+    }
+
+    private void agregarPagina(List<T> pagina) {
+        hayMas = pagina.size() >= tamanoPagina;
+        if (pagina.isEmpty()) {
+            return;
+        }
+
+        int primera = filas.size();
+        filas.addAll(pagina);
+        ultimoId = obtenerId.applyAsInt(pagina.get(pagina.size() - 1));
+        fireTableRowsInserted(primera, filas.size() - 1);
+
+        // Si la página no alcanza a llenar la vista no habrá desplazamiento que pida la siguiente
+        SwingUtilities.invokeLater(() -> {
+            if (cercaDelFinal()) {
+                cargarSiguientePagina();
+            }
+        });
+    }
+
+    /**
+     * Aplica los cambios recibidos de BusEventos sin recargar la tabla: las filas
+     * eliminadas se quitan de inmediato y las insertadas o actualizadas se vuelven a
+     * consultar una por una en segundo plano. Debe llamarse desde el EDT.
+     * Sin cargador de fila, o con un evento RECARGA, se recarga la tabla completa.
+     */
+    public void aplicarCambios(List<EventoEntidad> eventos) {
+        Set<Integer> recargar = new LinkedHashSet<>();
+        for (EventoEntidad evento : eventos) {
+            int id = evento.getId();
+            switch (evento.getOperacion()) {
+                case RECARGA:
+                    reiniciar();
+                    return;
+                case ELIMINADO:
+                    reemplazarFila(id, null);
+                    break;
+                case ACTUALIZADO:
+                    // Una fila no cargada puede entrar en la vista si cambió el filtro que la excluía
+                    if (indice(id) >= 0 || dentroDeLoCargado(id)) {
+                        recargar.add(id);
+                    }
+                    break;
+                case INSERTADO:
+                    // Las filas más allá de la última página llegarán al desplazarse
+                    if (dentroDeLoCargado(id)) {
+                        recargar.add(id);
+                    }
+                    break;
+            }
+        }
+        if (recargar.isEmpty()) {
+            return;
+        }
+        if (cargadorFila == null) {
+            reiniciar();
+            return;
+        }
+
+        CargadorFila<T> consulta = cargadorFila;
+        int generacionActual = generacion;
+        CargaAsincrona.getEjecutor().execute(() -> {
+            Map<Integer, T> cargadas = new LinkedHashMap<>();
+            for (int id : recargar) {
+                try {
+                    cargadas.put(id, consulta.cargar(id));
+                } catch (Exception e) {
+                    System.err.println("Error al recargar fila " + id + ": " + e.getMessage());
+                }
+            }
+            SwingUtilities.invokeLater(() -> {
+                // Se cambió la consulta de origen mientras tanto: las filas ya no corresponden
+                if (generacionActual != generacion) {
+                    return;
+                }
+                for (Map.Entry<Integer, T> entrada : cargadas.entrySet()) {
+                    reemplazarFila(entrada.getKey(), entrada.getValue());
+                }
+            });
+        });
+    }
+
+    /**
+     * Reemplaza, inserta (en orden de id) o quita (fila null) una sola fila
+     */
+    private void reemplazarFila(int id, T fila) {
+        int i = indice(id);
+        if (fila == null) {
+            if (i >= 0) {
+                filas.remove(i);
+                fireTableRowsDeleted(i, i);
+            }
+            return;
+        }
+        if (i >= 0) {
+            filas.set(i, fila);
+            fireTableRowsUpdated(i, i);
+            return;
+        }
+        if (!dentroDeLoCargado(id)) {
+            return;
+        }
+        int posicion = -(busquedaBinaria(id) + 1);
+        filas.add(posicion, fila);
+        if (id > ultimoId) {
+            ultimoId = id;
+        }
+        fireTableRowsInserted(posicion, posicion);
+    }
+
+    /**
+     * Indica si una fila con este id se mostraría dentro de las páginas ya cargadas.
+     * En las búsquedas por relevancia la posición depende del ranking: solo se corrigen
+     * las filas que ya están en la tabla.
+     */
+    private boolean dentroDeLoCargado(int id) {
+        return !porDesplazamiento && (!hayMas || id < ultimoId);
+    }
+
+    private int indice(int id) {
+        if (!porDesplazamiento) {
+            int i = busquedaBinaria(id);
+            return i >= 0 ? i : -1;
+        }
+        for (int i = 0; i < filas.size(); i++) {
+            if (obtenerId.applyAsInt(filas.get(i)) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Las páginas por clave llegan ordenadas por id ascendente
+    private int busquedaBinaria(int id) {
+        int bajo = 0;
+        int alto = filas.size() - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            int actual = obtenerId.applyAsInt(filas.get(medio));
+            if (actual < id) {
+                bajo = medio + 1;
+            } else if (actual > id) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(bajo + 1);
+    }
+
+    private boolean cercaDelFinal() {
+        if (scrollPane == null) {
+            return false;
+        }
+        JScrollBar barra = scrollPane.getVerticalScrollBar();
+        int alturaFila = Math.max(1, barra.getUnitIncrement(1));
+        int restante = barra.getMaximum() - (barra.getValue() + barra.getVisibleAmount());
+        return restante <= alturaFila * MARGEN_FILAS;
+    }
+
+    public T getFila(int fila) {
+        return filas.get(fila);
+    }
+
+    public boolean hayMasPaginas() {
+        return hayMas;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnas[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return valorColumna(filas.get(row), column);
+    }
+}
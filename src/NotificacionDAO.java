@@ -1,102 +1,571 @@
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * DAO para operaciones CRUD sobre Notificaciones
- */
-public class NotificacionDAO {
-    private Connection connection;
-    
-    public NotificacionDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
-    /**
-     * Insertar una nueva notificación
-     */
-    public boolean insertar(Notificacion notificacion) {
-        String sql = "INSERT INTO notificaciones(fecha, informacion, id_usuario) VALUES(?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setDate(1, new java.sql.Date(notificacion.getFecha().getTime()));
-            pstmt.setString(2, notificacion.getInformacion());
-            pstmt.setInt(3, notificacion.getIdUsuario());
-            pstmt.executeUpdate();
-            System.out.println("Notificación insertada para usuario ID: " + notificacion.getIdUsuario());
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error al insertar notificación: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Obtener todas las notificaciones
-     */
-    public List<Notificacion> obtenerTodas() {
-        List<Notificacion> notificaciones = new ArrayList<>();
-        String sql = "SELECT * FROM notificaciones ORDER BY fecha DESC";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Notificacion notificacion = new Notificacion(
-                    rs.getInt("id"),
-                    rs.getDate("fecha"),
-                    rs.getString("informacion"),
-                    rs.getInt("id_usuario")
-                );
-                notificaciones.add(notificacion);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener notificaciones: " + e.getMessage());
-        }
-        
-        return notificaciones;
-    }
-    
-    /**
-     * Obtener notificaciones por usuario
-     */
-    public List<Notificacion> obtenerPorUsuario(int idUsuario) {
-        List<Notificacion> notificaciones = new ArrayList<>();
-        String sql = "SELECT * FROM notificaciones WHERE id_usuario = ? ORDER BY fecha DESC";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, idUsuario);
-            
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Notificacion notificacion = new Notificacion(
-                    rs.getInt("id"),
-                    rs.getDate("fecha"),
-                    rs.getString("informacion"),
-                    rs.getInt("id_usuario")
-                );
-                notificaciones.add(notificacion);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener notificaciones: " + e.getMessage());
-        }
-        
-        return notificaciones;
-    }
-    
-    /**
-     * Eliminar notificación
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM notificaciones WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al eliminar notificación: " + e.getMessage());
-            return false;
-        }
-    }
-}
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para operaciones CRUD sobre Notificaciones
+ */
+public class NotificacionDAO {
+    private final DatabaseConnection db;
+    
+    public NotificacionDAO() {
+        this.db = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Insertar una nueva notificación
+     */
+    public boolean insertar(Notificacion notificacion) {
+        String sql = "INSERT INTO notificaciones(fecha, informacion, id_usuario) VALUES(?, ?, ?)";
+        
+        try {
+            int id = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setDate(1, new java.sql.Date(notificacion.getFecha().getTime()));
+                    pstmt.setString(2, notificacion.getInformacion());
+                    pstmt.setInt(3, notificacion.getIdUsuario());
+                    pstmt.executeUpdate();
+                }
+                return DatabaseConnection.ultimoIdInsertado(conn);
+            });
+            notificacion.setId(id);
+            publicar(id, EventoEntidad.Operacion.INSERTADO);
+            System.out.println("Notificación insertada para usuario ID: " + notificacion.getIdUsuario());
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar notificación: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Insertar varias notificaciones en una sola transacción (por bloques con executeBatch)
+     */
+    public ResultadoLote insertarLote(List<Notificacion> notificaciones) {
+        return insertarLote(notificaciones, InsercionLote.TAMANO_BLOQUE_PREDETERMINADO);
+    }
+    
+    /**
+     * Insertar varias notificaciones en una sola transacción
+     * @param tamanoBloque Cantidad de filas por executeBatch
+     * @return Ids generados y notificaciones que no pudieron insertarse
+     */
+    public ResultadoLote insertarLote(List<Notificacion> notificaciones, int tamanoBloque) {
+        try {
+            ResultadoLote resultado = db.ejecutarTransaccion(conn -> insertarLote(conn, notificaciones, tamanoBloque));
+            publicarInsertadas(notificaciones, resultado);
+            System.out.println("Lote de notificaciones insertado: " + resultado);
+            return resultado;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar lote de notificaciones: " + e.getMessage());
+            return ResultadoLote.fallido(notificaciones.size(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Variante de insertarLote sobre una conexión que ya está dentro de una transacción
+     * (para combinarla con otras escrituras). No publica eventos: después del commit
+     * hay que llamar a publicarInsertadas.
+     */
+    public ResultadoLote insertarLote(Connection conn, List<Notificacion> notificaciones, int tamanoBloque) throws SQLException {
+        String sql = "INSERT INTO notificaciones(fecha, informacion, id_usuario) VALUES(?, ?, ?)";
+        return InsercionLote.insertar(conn, sql, notificaciones, tamanoBloque, (pstmt, notificacion) -> {
+            pstmt.setDate(1, new java.sql.Date(notificacion.getFecha().getTime()));
+            pstmt.setString(2, notificacion.getInformacion());
+            pstmt.setInt(3, notificacion.getIdUsuario());
+        });
+    }
+    
+    /**
+     * Asigna los ids generados y publica en BusEventos las notificaciones de un lote
+     * cuya transacción ya se confirmó
+     */
+    public void publicarInsertadas(List<Notificacion> notificaciones, ResultadoLote resultado) {
+        for (int i = 0; i < notificaciones.size(); i++) {
+            if (resultado.getIdGenerado(i) > 0) {
+                notificaciones.get(i).setId(resultado.getIdGenerado(i));
+                publicar(resultado.getIdGenerado(i), EventoEntidad.Operacion.INSERTADO);
+            }
+        }
+    }
+    
+    /**
+     * Obtener todas las notificaciones
+     */
+    public List<Notificacion> obtenerTodas() {
+        List<Notificacion> notificaciones = new ArrayList<>();
+        String sql = "SELECT * FROM notificaciones ORDER BY fecha DESC";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                notificaciones.add(mapear(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener notificaciones: " + e.getMessage());
+        }
+        
+        return notificaciones;
+    }
+    
+    /**
+     * Obtener notificaciones por usuario
+     */
+    public List<Notificacion> obtenerPorUsuario(int idUsuario) {
+        return obtenerPorUsuario(idUsuario, -1);
+    }
+    
+    /**
+     * Obtener las notificaciones más recientes de un usuario
+     * (recorre el índice (id_usuario, fecha DESC, id DESC) sin ordenar todo el historial)
+     * @param limite Cantidad máxima de notificaciones (-1 sin límite)
+     */
+    public List<Notificacion> obtenerPorUsuario(int idUsuario, int limite) {
+        List<Notificacion> notificaciones = new ArrayList<>();
+        String sql = "SELECT * FROM notificaciones WHERE id_usuario = ? ORDER BY fecha DESC, id DESC LIMIT ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsuario);
+            pstmt.setInt(2, limite);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    notificaciones.add(mapear(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener notificaciones: " + e.getMessage());
+        }
+        
+        return notificaciones;
+    }
+    
+    /**
+     * Obtener las notificaciones no leídas de un usuario (usa el índice parcial de no leídas)
+     */
+    public List<Notificacion> obtenerNoLeidasPorUsuario(int idUsuario) {
+        List<Notificacion> notificaciones = new ArrayList<>();
+        String sql = "SELECT * FROM notificaciones WHERE id_usuario = ? AND leida = 0 ORDER BY id DESC";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsuario);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    notificaciones.add(mapear(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener notificaciones no leídas: " + e.getMessage());
+        }
+        
+        return notificaciones;
+    }
+    
+    /**
+     * Cantidad de notificaciones no leídas de un usuario.
+     * Lee el contador que mantienen los triggers, sin recorrer las notificaciones.
+     */
+    public int contarNoLeidas(int idUsuario) {
+        String sql = "SELECT cantidad FROM notificaciones_no_leidas WHERE id_usuario = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsuario);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al contar notificaciones no leídas: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Marca como leídas varias notificaciones de un usuario con una sola sentencia
+     * @return Cantidad de notificaciones que pasaron a leídas
+     */
+    public int marcarComoLeidas(int idUsuario, List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(
+            "UPDATE notificaciones SET leida = 1 WHERE id_usuario = ? AND leida = 0 AND id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        
+        try {
+            int marcadas = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                    pstmt.setInt(1, idUsuario);
+                    for (int i = 0; i < ids.size(); i++) {
+                        pstmt.setInt(i + 2, ids.get(i));
+                    }
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (marcadas > 0) {
+                for (int id : ids) {
+                    publicar(id, EventoEntidad.Operacion.ACTUALIZADO);
+                }
+            }
+            return marcadas;
+        } catch (SQLException e) {
+            System.err.println("Error al marcar notificaciones como leídas: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Marca como leídas todas las notificaciones de un usuario
+     * @return Cantidad de notificaciones que pasaron a leídas
+     */
+    public int marcarTodasComoLeidas(int idUsuario) {
+        String sqlIds = "SELECT id FROM notificaciones WHERE id_usuario = ? AND leida = 0";
+        String sqlMarcar = "UPDATE notificaciones SET leida = 1 WHERE id_usuario = ? AND leida = 0";
+        
+        try {
+            // Los ids se leen en la misma transacción para publicar exactamente las filas marcadas
+            List<Integer> marcadas = db.ejecutarTransaccion(conn -> {
+                List<Integer> ids = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlIds)) {
+                    pstmt.setInt(1, idUsuario);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
+                        }
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(sqlMarcar)) {
+                        pstmt.setInt(1, idUsuario);
+                        pstmt.executeUpdate();
+                    }
+                }
+                return ids;
+            });
+            for (int id : marcadas) {
+                publicar(id, EventoEntidad.Operacion.ACTUALIZADO);
+            }
+            return marcadas.size();
+        } catch (SQLException e) {
+            System.err.println("Error al marcar notificaciones como leídas: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Sincroniza las notificaciones de falta de ayudantes en una sola transacción.
+     * Cada notificación se identifica por (proyecto, director, condición): si ya existe
+     * solo se actualiza su texto cuando cambió, así que repetir la verificación no
+     * duplica notificaciones. Se eliminan las que ya no corresponden a un par
+     * (proyecto, director) vigente: proyectos completos o reasignados a otro director.
+     * @param faltas Resultado de ProyectoDAO.obtenerFaltaAyudantes
+     * @param idProyecto Proyecto verificado, o null si se verificaron todos
+     * @return Cantidad de notificaciones creadas o actualizadas
+     */
+    public int sincronizarFaltaAyudantes(List<FaltaAyudantes> faltas, Integer idProyecto) {
+        String sqlUpsert = "INSERT INTO notificaciones(fecha, informacion, id_usuario, id_proyecto, condicion) " +
+                           "VALUES(?, ?, ?, ?, ?) " +
+                           "ON CONFLICT(id_proyecto, id_usuario, condicion) WHERE condicion IS NOT NULL " +
+                           "DO UPDATE SET informacion = excluded.informacion, fecha = excluded.fecha, leida = 0 " +
+                           "WHERE informacion <> excluded.informacion";
+        
+        // Los pares vigentes van a una tabla temporal de la conexión: una lista NOT IN
+        // con un parámetro por proyecto superaría el límite de variables de SQLite
+        String sqlCrearVigentes = "CREATE TEMP TABLE IF NOT EXISTS falta_ayudantes_vigentes (" +
+                                  "id_proyecto INTEGER NOT NULL, id_usuario INTEGER NOT NULL, " +
+                                  "PRIMARY KEY (id_proyecto, id_usuario)) WITHOUT ROWID";
+        String sqlVaciarVigentes = "DELETE FROM temp.falta_ayudantes_vigentes";
+        String sqlVigente = "INSERT OR IGNORE INTO temp.falta_ayudantes_vigentes(id_proyecto, id_usuario) VALUES(?, ?)";
+        String sqlResueltas = "DELETE FROM notificaciones WHERE condicion = ?" +
+                              (idProyecto != null ? " AND id_proyecto = ?" : "") +
+                              " AND NOT EXISTS (SELECT 1 FROM temp.falta_ayudantes_vigentes v " +
+                              "WHERE v.id_proyecto = notificaciones.id_proyecto " +
+                              "AND v.id_usuario = notificaciones.id_usuario)";
+        
+        try {
+            return db.ejecutarTransaccion(conn -> {
+                int cambios = 0;
+                java.sql.Date hoy = new java.sql.Date(System.currentTimeMillis());
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlUpsert)) {
+                    for (FaltaAyudantes falta : faltas) {
+                        pstmt.setDate(1, hoy);
+                        pstmt.setString(2, falta.getMensaje());
+                        pstmt.setInt(3, falta.getIdDirector());
+                        pstmt.setInt(4, falta.getIdProyecto());
+                        pstmt.setString(5, FaltaAyudantes.CONDICION);
+                        pstmt.addBatch();
+                    }
+                    for (int filas : pstmt.executeBatch()) {
+                        cambios += Math.max(filas, 0);
+                    }
+                }
+                
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(sqlCrearVigentes);
+                    stmt.executeUpdate(sqlVaciarVigentes);
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlVigente)) {
+                    for (FaltaAyudantes falta : faltas) {
+                        pstmt.setInt(1, falta.getIdProyecto());
+                        pstmt.setInt(2, falta.getIdDirector());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlResueltas)) {
+                    pstmt.setString(1, FaltaAyudantes.CONDICION);
+                    if (idProyecto != null) {
+                        pstmt.setInt(2, idProyecto);
+                    }
+                    pstmt.executeUpdate();
+                }
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(sqlVaciarVigentes);
+                }
+                
+                return cambios;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al sincronizar notificaciones de ayudantes: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Eliminar notificación
+     */
+    public boolean eliminar(int id) {
+        String sql = "DELETE FROM notificaciones WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, id);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(id, EventoEntidad.Operacion.ELIMINADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar notificación: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // ==================== RETENCIÓN ====================
+    
+    /**
+     * Ids de notificaciones anteriores a una fecha (sin las de condición)
+     * @param soloLeidas Si es true, las no leídas se conservan
+     * @param cantidad Cantidad máxima de ids (un lote de depuración)
+     */
+    public List<Integer> obtenerIdsVencidas(java.util.Date limite, boolean soloLeidas, int cantidad) {
+        String sql = "SELECT id FROM notificaciones WHERE fecha < ? AND condicion IS NULL" +
+                     (soloLeidas ? " AND leida = 1" : "") +
+                     " ORDER BY id LIMIT ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, new java.sql.Date(limite.getTime()));
+            pstmt.setInt(2, cantidad);
+            return leerIds(pstmt);
+        } catch (SQLException e) {
+            System.err.println("Error al buscar notificaciones vencidas: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Usuarios con más notificaciones que el máximo permitido
+     */
+    public List<Integer> obtenerUsuariosConExceso(int maximo) {
+        String sql = "SELECT id_usuario FROM notificaciones GROUP BY id_usuario HAVING COUNT(*) > ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, maximo);
+            return leerIds(pstmt);
+        } catch (SQLException e) {
+            System.err.println("Error al contar notificaciones por usuario: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Ids de las notificaciones de un usuario que quedan fuera de las más recientes
+     * @param conservar Cantidad de notificaciones recientes que se conservan
+     * @param soloLeidas Si es true, las no leídas se conservan además de las recientes
+     */
+    public List<Integer> obtenerIdsExcedentes(int idUsuario, int conservar, boolean soloLeidas) {
+        String sql = "SELECT id FROM notificaciones WHERE id_usuario = ? AND condicion IS NULL" +
+                     (soloLeidas ? " AND leida = 1" : "") +
+                     " ORDER BY fecha DESC, id DESC LIMIT -1 OFFSET ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsuario);
+            pstmt.setInt(2, conservar);
+            return leerIds(pstmt);
+        } catch (SQLException e) {
+            System.err.println("Error al buscar notificaciones excedentes: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Copia un lote de notificaciones (comprimido) a notificaciones_archivo y las
+     * elimina, en una sola transacción. En registro_cambios el lote deja una sola
+     * entrada de recarga en lugar de una por fila, para que los demás clientes no
+     * reciban cientos de eventos por cada pasada de la retención.
+     * @param archivar Si es false solo se eliminan
+     * @return Cantidad de notificaciones eliminadas
+     */
+    public int archivarYEliminar(List<Integer> ids, boolean archivar) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        StringBuilder marcadores = new StringBuilder();
+        for (int i = 0; i < ids.size(); i++) {
+            marcadores.append(i == 0 ? "?" : ", ?");
+        }
+        String sqlLeer = (archivar ? "SELECT *" : "SELECT id") +
+                         " FROM notificaciones WHERE id IN (" + marcadores + ") ORDER BY id";
+        String sqlArchivar = "INSERT INTO notificaciones_archivo(fecha_archivo, id_desde, id_hasta, cantidad, datos) " +
+                             "VALUES(?, ?, ?, ?, ?)";
+        String sqlEliminar = "DELETE FROM notificaciones WHERE id IN (" + marcadores + ")";
+        String sqlUltimoCambio = "SELECT COALESCE(MAX(id), 0) FROM registro_cambios";
+        String sqlQuitarCambios = "DELETE FROM registro_cambios WHERE id > ? AND tabla = 'notificaciones'";
+        String sqlRecarga = "INSERT INTO registro_cambios(tabla, id_fila, operacion) VALUES ('notificaciones', 0, 'R')";
+        
+        try {
+            List<Integer> eliminadas = db.ejecutarTransaccion(conn -> {
+                // Solo las filas que todavía existen: otro cliente pudo borrar parte del lote
+                List<Notificacion> lote = new ArrayList<>();
+                List<Integer> existentes = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlLeer)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        pstmt.setInt(i + 1, ids.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            existentes.add(rs.getInt("id"));
+                            if (archivar) {
+                                lote.add(mapear(rs));
+                            }
+                        }
+                    }
+                }
+                if (existentes.isEmpty()) {
+                    return existentes;
+                }
+                
+                if (archivar) {
+                    byte[] datos;
+                    try {
+                        datos = ArchivoNotificaciones.comprimir(lote);
+                    } catch (java.io.IOException e) {
+                        throw new SQLException("No se pudo comprimir el lote: " + e.getMessage(), e);
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(sqlArchivar)) {
+                        pstmt.setLong(1, System.currentTimeMillis());
+                        pstmt.setInt(2, lote.get(0).getId());
+                        pstmt.setInt(3, lote.get(lote.size() - 1).getId());
+                        pstmt.setInt(4, lote.size());
+                        pstmt.setBytes(5, datos);
+                        pstmt.executeUpdate();
+                    }
+                }
+                
+                // Las entradas que agreguen los triggers dentro de esta transacción son solo del lote
+                long ultimoCambio;
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(sqlUltimoCambio)) {
+                    ultimoCambio = rs.next() ? rs.getLong(1) : 0;
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlEliminar)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        pstmt.setInt(i + 1, ids.get(i));
+                    }
+                    pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlQuitarCambios)) {
+                    pstmt.setLong(1, ultimoCambio);
+                    pstmt.executeUpdate();
+                }
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(sqlRecarga);
+                }
+                return existentes;
+            });
+            for (int id : eliminadas) {
+                publicar(id, EventoEntidad.Operacion.ELIMINADO);
+            }
+            return eliminadas.size();
+        } catch (SQLException e) {
+            System.err.println("Error al archivar notificaciones: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Notificaciones archivadas de un usuario. Descomprime todos los lotes del
+     * archivo: es para consultas ocasionales, no para la interfaz.
+     */
+    public List<Notificacion> obtenerArchivadas(int idUsuario) {
+        List<Notificacion> archivadas = new ArrayList<>();
+        String sql = "SELECT datos FROM notificaciones_archivo ORDER BY id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                for (Notificacion n : ArchivoNotificaciones.descomprimir(rs.getBytes("datos"))) {
+                    if (n.getIdUsuario() == idUsuario) {
+                        archivadas.add(n);
+                    }
+                }
+            }
+        } catch (SQLException | java.io.IOException e) {
+            System.err.println("Error al leer notificaciones archivadas: " + e.getMessage());
+        }
+        
+        return archivadas;
+    }
+    
+    private static List<Integer> leerIds(PreparedStatement pstmt) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+    
+    private Notificacion mapear(ResultSet rs) throws SQLException {
+        Notificacion notificacion = new Notificacion(
+            rs.getInt("id"),
+            rs.getDate("fecha"),
+            rs.getString("informacion"),
+            rs.getInt("id_usuario")
+        );
+        notificacion.setLeida(rs.getInt("leida") != 0);
+        return notificacion;
+    }
+    
+    private static void publicar(int id, EventoEntidad.Operacion operacion) {
+        BusEventos.getInstance().publicar(EventoEntidad.Tipo.NOTIFICACION, id, operacion);
+    }
+}
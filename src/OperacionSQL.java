@@ -0,0 +1,11 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Operación de base de datos que se ejecuta sobre una conexión prestada del pool
+ * @param <T> Tipo del resultado de la operación
+ */
+@FunctionalInterface
+public interface OperacionSQL<T> {
+    T ejecutar(Connection conn) throws SQLException;
+}
@@ -0,0 +1,156 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Perfil de almacenamiento de SQLite que se aplica al abrir cada conexión
+ * Los valores se leen de data/almacenamiento.properties (si existe) y pueden
+ * sobrescribirse con propiedades del sistema, por ejemplo -Dsqlite.synchronous=FULL
+ */
+public class PerfilAlmacenamiento {
+    private static final String ARCHIVO = "data/almacenamiento.properties";
+    private static final String PREFIJO = "sqlite.";
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORE = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    private String journalMode = "WAL";
+    private String synchronous = "NORMAL";
+    private int cacheSizeKb = 16384;        // 16 MB por conexión
+    private long mmapSize = 268435456L;     // 256 MB
+    private String tempStore = "MEMORY";
+    private int busyTimeoutMs = 5000;
+
+    // Reintentos de escritura ante SQLITE_BUSY
+    private int maxReintentos = 5;
+    private long esperaInicialMs = 50;
+    private long esperaMaximaMs = 2000;
+
+    /**
+     * Carga el perfil desde el archivo de configuración y las propiedades del sistema
+     */
+    public static PerfilAlmacenamiento cargar() {
+        Properties props = new Properties();
+        Path archivo = Paths.get(ARCHIVO);
+        if (Files.exists(archivo)) {
+            try (InputStream in = new FileInputStream(archivo.toFile())) {
+                props.load(in);
+            } catch (IOException e) {
+                System.err.println("Error al leer " + ARCHIVO + ": " + e.getMessage());
+            }
+        }
+        for (String nombre : System.getProperties().stringPropertyNames()) {
+            if (nombre.startsWith(PREFIJO)) {
+                props.setProperty(nombre, System.getProperty(nombre));
+            }
+        }
+
+        PerfilAlmacenamiento perfil = new PerfilAlmacenamiento();
+        perfil.journalMode = elegir(props, "journal_mode", perfil.journalMode, JOURNAL_MODES);
+        perfil.synchronous = elegir(props, "synchronous", perfil.synchronous, SYNCHRONOUS);
+        perfil.tempStore = elegir(props, "temp_store", perfil.tempStore, TEMP_STORE);
+        perfil.cacheSizeKb = (int) numero(props, "cache_size_kb", perfil.cacheSizeKb);
+        perfil.mmapSize = numero(props, "mmap_size", perfil.mmapSize);
+        perfil.busyTimeoutMs = (int) numero(props, "busy_timeout_ms", perfil.busyTimeoutMs);
+        perfil.maxReintentos = (int) numero(props, "reintentos", perfil.maxReintentos);
+        perfil.esperaInicialMs = numero(props, "reintento_espera_inicial_ms", perfil.esperaInicialMs);
+        perfil.esperaMaximaMs = numero(props, "reintento_espera_maxima_ms", perfil.esperaMaximaMs);
+        return perfil;
+    }
+
+    /**
+     * Aplica los PRAGMA del perfil a una conexión recién abierta
+     * El modo de journal es persistente en el archivo, así que solo lo fija el escritor
+     */
+    public void aplicar(Connection conn, boolean esEscritura) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            if (esEscritura) {
+                stmt.execute("PRAGMA journal_mode = " + journalMode);
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = " + (-cacheSizeKb)); // negativo = KiB
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /**
+     * Crea la política de reintentos configurada para las escrituras
+     */
+    public ReintentoSQLite crearReintento() {
+        return new ReintentoSQLite(maxReintentos, esperaInicialMs, esperaMaximaMs);
+    }
+
+    private static String elegir(Properties props, String clave, String porDefecto, Set<String> validos) {
+        String valor = props.getProperty(PREFIJO + clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        valor = valor.trim().toUpperCase();
+        if (!validos.contains(valor)) {
+            System.err.println("Valor inválido para " + PREFIJO + clave + ": " + valor + ", se usa " + porDefecto);
+            return porDefecto;
+        }
+        return valor;
+    }
+
+    private static long numero(Properties props, String clave, long porDefecto) {
+        String valor = props.getProperty(PREFIJO + clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Math.max(0, Long.parseLong(valor.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + PREFIJO + clave + ": " + valor + ", se usa " + porDefecto);
+            return porDefecto;
+        }
+    }
+
+    // Getters
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public int getCacheSizeKb() {
+        return cacheSizeKb;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public int getBusyTimeoutMs() {
+        return busyTimeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        return "PerfilAlmacenamiento{" +
+                "journal_mode=" + journalMode +
+                ", synchronous=" + synchronous +
+                ", cache_size_kb=" + cacheSizeKb +
+                ", mmap_size=" + mmapSize +
+                ", temp_store=" + tempStore +
+                ", busy_timeout_ms=" + busyTimeoutMs +
+                '}';
+    }
+}
@@ -0,0 +1,247 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plantilla declarativa de los campos que se extraen de un PDF de proyecto
+ * Cada campo se reconoce por una etiqueta (la línea que la contiene, como hacía
+ * ExtractorPDF.extraerCampo) o por una expresión regular precompilada, y declara cómo
+ * convertir el texto y en qué propiedad del Proyecto guardarlo. ExtractorPDF recorre
+ * el documento una sola vez buscando todos los campos a la vez.
+ * Una plantilla se arma una vez y después solo se lee, así que puede compartirse entre hilos.
+ */
+public class PlantillaExtraccion {
+    private static final Pattern SEPARADORES = Pattern.compile("[:\\s]+");
+    private static final Pattern NUMERO = Pattern.compile("\\d+");
+
+    /**
+     * Convierte el texto encontrado al tipo de la propiedad
+     * @throws IllegalArgumentException si el texto no tiene el formato esperado
+     */
+    @FunctionalInterface
+    public interface Convertidor<T> {
+        T convertir(String texto);
+    }
+
+    public static final Convertidor<String> TEXTO = texto -> texto;
+
+    /**
+     * Primer número entero del texto ("3 ayudantes" da 3)
+     */
+    public static final Convertidor<Integer> ENTERO = texto -> {
+        Matcher m = NUMERO.matcher(texto);
+        if (!m.find()) {
+            throw new IllegalArgumentException("no contiene un número: " + texto);
+        }
+        return Integer.parseInt(m.group());
+    };
+
+    /**
+     * Fecha en el primero de los formatos que coincida (DateTimeFormatter no tiene estado)
+     */
+    public static Convertidor<Date> fecha(String... formatos) {
+        List<DateTimeFormatter> formateadores = new ArrayList<>();
+        for (String formato : formatos) {
+            formateadores.add(DateTimeFormatter.ofPattern(formato));
+        }
+        return texto -> {
+            String limpio = texto.trim();
+            for (DateTimeFormatter formateador : formateadores) {
+                try {
+                    LocalDate fecha = LocalDate.parse(limpio, formateador);
+                    return Date.from(fecha.atStartOfDay(ZoneId.systemDefault()).toInstant());
+                } catch (DateTimeParseException e) {
+                    // probar el siguiente formato
+                }
+            }
+            throw new IllegalArgumentException("fecha no reconocida: " + texto);
+        };
+    }
+
+    /**
+     * Un campo de la plantilla
+     */
+    public static final class Campo {
+        private final String nombre;
+        private final String etiqueta;
+        private final Pattern patron;
+        private final BiConsumer<Proyecto, String> asignador;
+
+        private Campo(String nombre, String etiqueta, Pattern patron, BiConsumer<Proyecto, String> asignador) {
+            this.nombre = nombre;
+            this.etiqueta = etiqueta;
+            this.patron = patron;
+            this.asignador = asignador;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * Descripción estable de cómo se reconoce el campo
+         */
+        String firma() {
+            return nombre + (patron != null ? "~" + patron.pattern() : "=" + etiqueta);
+        }
+
+        /**
+         * Valor del campo en una línea de texto
+         * @return El valor, o null si la línea no lo contiene o está vacío
+         */
+        public String buscar(String linea) {
+            String valor;
+            if (patron != null) {
+                Matcher m = patron.matcher(linea);
+                if (!m.find()) {
+                    return null;
+                }
+                valor = (m.groupCount() > 0 ? m.group(1) : m.group()).trim();
+            } else {
+                if (!linea.contains(etiqueta)) {
+                    return null;
+                }
+                // Extraer el valor después del nombre del campo, sin separadores repetidos
+                valor = SEPARADORES.matcher(linea.replace(etiqueta, "").trim()).replaceAll(" ").trim();
+            }
+            return valor.isEmpty() ? null : valor;
+        }
+    }
+
+    private final List<Campo> campos = new ArrayList<>();
+    private final Set<String> requeridos = new LinkedHashSet<>();
+
+    /**
+     * Plantilla de los PDFs de propuesta de proyecto
+     */
+    public static PlantillaExtraccion proyecto() {
+        Convertidor<Date> fecha = fecha("dd/MM/yyyy", "d/M/yyyy", "yyyy-MM-dd", "dd-MM-yyyy");
+        return new PlantillaExtraccion()
+            .etiqueta("nombre", "Nombre del proyecto", TEXTO, Proyecto::setNombre)
+            .etiqueta("codigo", "Código del proyecto", TEXTO, Proyecto::setCodigo)
+            .etiqueta("tipo", "Tipo de proyecto", TEXTO, Proyecto::setTipo)
+            .etiqueta("descripcion", "Descripción", TEXTO, Proyecto::setDescripcion)
+            // La etiqueta de fechas se busca con regex para aceptar ':' y espacios y no recortar la fecha
+            .patron("fechaInicio", "Fecha de inicio\\s*:?\\s*(\\S+)", fecha, Proyecto::setFechaInicio)
+            .patron("fechaFin", "Fecha de (?:fin|finalización)\\s*:?\\s*(\\S+)", fecha, Proyecto::setFechaFin)
+            .etiqueta("ayudantes", ExtractorPDF.CAMPO_AYUDANTE, ENTERO, Proyecto::setNumeroDeDayudantesDelProyecto)
+            // Se resuelve a un id de usuario fuera de la plantilla
+            .etiqueta("director", "Correo del director", TEXTO, null)
+            .requerir("nombre", "codigo");
+    }
+
+    /**
+     * Campo que se reconoce por una etiqueta; el valor es el resto de la línea
+     * @param asignador Propiedad del Proyecto, o null si el campo solo se lee
+     */
+    public <T> PlantillaExtraccion etiqueta(String nombre, String etiqueta, Convertidor<T> convertidor,
+                                            BiConsumer<Proyecto, T> asignador) {
+        campos.add(new Campo(nombre, etiqueta, null, asignador(nombre, convertidor, asignador)));
+        return this;
+    }
+
+    /**
+     * Campo que se reconoce con una expresión regular; el valor es el grupo 1 (o toda la coincidencia)
+     * @param asignador Propiedad del Proyecto, o null si el campo solo se lee
+     */
+    public <T> PlantillaExtraccion patron(String nombre, String regex, Convertidor<T> convertidor,
+                                          BiConsumer<Proyecto, T> asignador) {
+        campos.add(new Campo(nombre, null, Pattern.compile(regex), asignador(nombre, convertidor, asignador)));
+        return this;
+    }
+
+    public PlantillaExtraccion requerir(String... nombres) {
+        Collections.addAll(requeridos, nombres);
+        return this;
+    }
+
+    public PlantillaExtraccion sinRequeridos() {
+        requeridos.clear();
+        return this;
+    }
+
+    private static <T> BiConsumer<Proyecto, String> asignador(String nombre, Convertidor<T> convertidor,
+                                                            BiConsumer<Proyecto, T> asignador) {
+        if (asignador == null) {
+            return null;
+        }
+        return (proyecto, texto) -> {
+            T valor;
+            try {
+                valor = convertidor.convertir(texto);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Campo \"" + nombre + "\": " + e.getMessage(), e);
+            }
+            asignador.accept(proyecto, valor);
+        };
+    }
+
+    /**
+     * Versión de la plantilla: resumen de cómo se reconoce cada campo
+     * Cambia si se agrega, quita o modifica una etiqueta o expresión, lo que invalida los
+     * valores guardados en CacheExtraccion. Los convertidores no cuentan porque la caché
+     * guarda el texto encontrado y la conversión se vuelve a aplicar en cada uso.
+     */
+    public String getVersion() {
+        StringBuilder firma = new StringBuilder();
+        for (Campo campo : campos) {
+            firma.append(campo.firma()).append('\n');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(firma.toString().getBytes(StandardCharsets.UTF_8));
+            return CacheExtraccion.hexadecimal(hash).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public List<Campo> getCampos() {
+        return Collections.unmodifiableList(campos);
+    }
+
+    /**
+     * Campos requeridos que no aparecen en los valores extraídos
+     */
+    public List<String> faltantes(Map<String, String> valores) {
+        List<String> faltantes = new ArrayList<>();
+        for (String nombre : requeridos) {
+            if (!valores.containsKey(nombre)) {
+                faltantes.add(nombre);
+            }
+        }
+        return faltantes;
+    }
+
+    /**
+     * Arma un Proyecto con los valores extraídos
+     * @throws IllegalArgumentException si falta un campo requerido o un valor no se puede convertir
+     */
+    public Proyecto crearProyecto(Map<String, String> valores) {
+        List<String> faltantes = faltantes(valores);
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Faltan campos: " + String.join(", ", faltantes));
+        }
+        Proyecto proyecto = new Proyecto();
+        for (Campo campo : campos) {
+            String texto = valores.get(campo.nombre);
+            if (texto != null && campo.asignador != null) {
+                campo.asignador.accept(proyecto, texto);
+            }
+        }
+        return proyecto;
+    }
+}
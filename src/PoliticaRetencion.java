@@ -0,0 +1,142 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Política de retención de notificaciones
+ * Los valores se leen de data/retencion.properties (si existe) y pueden
+ * sobrescribirse con propiedades del sistema, por ejemplo -Dretencion.dias_maximos=90
+ * Un límite en 0 queda desactivado. Las notificaciones de condición (falta de
+ * ayudantes) no se depuran: las mantiene NotificacionDAO.sincronizarFaltaAyudantes.
+ */
+public class PoliticaRetencion {
+    private static final String ARCHIVO = "data/retencion.properties";
+    private static final String PREFIJO = "retencion.";
+
+    private int diasMaximos = 180;
+    private int maximoPorUsuario = 500;
+    private boolean conservarNoLeidas = true;
+    private boolean archivar = true;
+    private int tamanoLote = 500;
+    private long pausaEntreLotesMs = 50;
+    private long periodoHoras = 6;
+    // Páginas liberadas por paso de incremental_vacuum (el escritor se suelta entre pasos)
+    private int paginasPorPasoVacuum = 1000;
+    // Fracción de páginas libres a partir de la cual se sugiere un VACUUM completo (App --compactar)
+    private double umbralVacuumCompleto = 0.25;
+
+    /**
+     * Carga la política desde el archivo de configuración y las propiedades del sistema
+     */
+    public static PoliticaRetencion cargar() {
+        Properties props = new Properties();
+        Path archivo = Paths.get(ARCHIVO);
+        if (Files.exists(archivo)) {
+            try (InputStream in = new FileInputStream(archivo.toFile())) {
+                props.load(in);
+            } catch (IOException e) {
+                System.err.println("Error al leer " + ARCHIVO + ": " + e.getMessage());
+            }
+        }
+        for (String nombre : System.getProperties().stringPropertyNames()) {
+            if (nombre.startsWith(PREFIJO)) {
+                props.setProperty(nombre, System.getProperty(nombre));
+            }
+        }
+
+        PoliticaRetencion politica = new PoliticaRetencion();
+        politica.diasMaximos = (int) numero(props, "dias_maximos", politica.diasMaximos);
+        politica.maximoPorUsuario = (int) numero(props, "maximo_por_usuario", politica.maximoPorUsuario);
+        politica.conservarNoLeidas = booleano(props, "conservar_no_leidas", politica.conservarNoLeidas);
+        politica.archivar = booleano(props, "archivar", politica.archivar);
+        politica.tamanoLote = (int) Math.max(1, numero(props, "tamano_lote", politica.tamanoLote));
+        politica.pausaEntreLotesMs = numero(props, "pausa_entre_lotes_ms", politica.pausaEntreLotesMs);
+        politica.periodoHoras = Math.max(1, numero(props, "periodo_horas", politica.periodoHoras));
+        politica.paginasPorPasoVacuum = (int) Math.max(1, numero(props, "paginas_por_paso_vacuum", politica.paginasPorPasoVacuum));
+        politica.umbralVacuumCompleto = decimal(props, "umbral_vacuum_completo", politica.umbralVacuumCompleto);
+        return politica;
+    }
+
+    private static long numero(Properties props, String clave, long porDefecto) {
+        String valor = props.getProperty(PREFIJO + clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + PREFIJO + clave + ": " + valor + ", se usa " + porDefecto);
+            return porDefecto;
+        }
+    }
+
+    private static double decimal(Properties props, String clave, double porDefecto) {
+        String valor = props.getProperty(PREFIJO + clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Double.parseDouble(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + PREFIJO + clave + ": " + valor + ", se usa " + porDefecto);
+            return porDefecto;
+        }
+    }
+
+    private static boolean booleano(Properties props, String clave, boolean porDefecto) {
+        String valor = props.getProperty(PREFIJO + clave);
+        return valor == null ? porDefecto : Boolean.parseBoolean(valor.trim());
+    }
+
+    public int getDiasMaximos() {
+        return diasMaximos;
+    }
+
+    public int getMaximoPorUsuario() {
+        return maximoPorUsuario;
+    }
+
+    public boolean isConservarNoLeidas() {
+        return conservarNoLeidas;
+    }
+
+    public boolean isArchivar() {
+        return archivar;
+    }
+
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public long getPausaEntreLotesMs() {
+        return pausaEntreLotesMs;
+    }
+
+    public long getPeriodoHoras() {
+        return periodoHoras;
+    }
+
+    public int getPaginasPorPasoVacuum() {
+        return paginasPorPasoVacuum;
+    }
+
+    public double getUmbralVacuumCompleto() {
+        return umbralVacuumCompleto;
+    }
+
+    @Override
+    public String toString() {
+        return "PoliticaRetencion{" +
+                "diasMaximos=" + diasMaximos +
+                ", maximoPorUsuario=" + maximoPorUsuario +
+                ", conservarNoLeidas=" + conservarNoLeidas +
+                ", archivar=" + archivar +
+                ", tamanoLote=" + tamanoLote +
+                ", periodoHoras=" + periodoHoras +
+                '}';
+    }
+}
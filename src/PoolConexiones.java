@@ -0,0 +1,468 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool acotado de conexiones JDBC para SQLite
+ * Mantiene varias conexiones de solo lectura y una única conexión de escritura
+ * (SQLite admite un solo escritor a la vez). Las conexiones se prestan y se
+ * devuelven al pool al llamar close(), por lo que los DAOs pueden usarlas en
+ * try-with-resources. Cada conexión física guarda sus PreparedStatement en una
+ * CacheSentencias, de modo que prepareStatement(sql) reutiliza la sentencia ya
+ * compilada sin cambios en los DAOs.
+ */
+public class PoolConexiones {
+    private final String url;
+    private final int maxLecturas;
+    private final int minLecturasInactivas;
+    private final long esperaMaximaMs;
+    private final long inactividadMaximaMs;
+    private final ConfiguradorConexion configurador;
+    private final int capacidadCacheSentencias;
+
+    // Caché de sentencias de cada conexión física abierta
+    private final Map<Connection, CacheSentencias> cachesSentencias =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    // Conexiones de lectura libres (la más reciente al frente)
+    private final Deque<ConexionLibre> lecturasLibres = new ArrayDeque<>();
+    private final Semaphore permisosLectura;
+
+    // Conexión de escritura única, reentrante para el mismo hilo
+    private final ReentrantLock candadoEscritura = new ReentrantLock(true);
+    private Connection escritura;
+
+    private final ScheduledExecutorService desalojo;
+    private volatile boolean cerrado = false;
+
+    // Métricas
+    private final AtomicLong prestamosLectura = new AtomicLong();
+    private final AtomicLong prestamosEscritura = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final AtomicLong tiemposAgotados = new AtomicLong();
+    private final AtomicLong conexionesCreadas = new AtomicLong();
+    private final AtomicLong conexionesDesalojadas = new AtomicLong();
+    private final AtomicLong aciertosSentencias = new AtomicLong();
+    private final AtomicLong fallosSentencias = new AtomicLong();
+
+    public PoolConexiones(String url, int maxLecturas, int minLecturasInactivas,
+                          long esperaMaximaMs, long inactividadMaximaMs,
+                          int capacidadCacheSentencias, ConfiguradorConexion configurador) {
+        this.url = url;
+        this.configurador = configurador;
+        this.capacidadCacheSentencias = capacidadCacheSentencias;
+        this.maxLecturas = maxLecturas;
+        this.minLecturasInactivas = minLecturasInactivas;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.permisosLectura = new Semaphore(maxLecturas, true);
+
+        this.desalojo = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-desalojo");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = Math.max(1000, inactividadMaximaMs / 2);
+        desalojo.scheduleWithFixedDelay(this::desalojarInactivas, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión de solo lectura. Debe cerrarse para devolverla al pool.
+     */
+    public Connection obtenerLectura() throws SQLException {
+        verificarAbierto();
+        long inicio = System.nanoTime();
+        try {
+            if (!permisosLectura.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                tiemposAgotados.incrementAndGet();
+                throw new SQLException("Tiempo de espera agotado al obtener una conexión de lectura");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido al esperar una conexión de lectura", e);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        try {
+            Connection fisica = tomarLecturaLibre();
+            if (fisica == null) {
+                fisica = abrirConexion(false);
+            }
+            prestamosLectura.incrementAndGet();
+            return envolver(fisica, false);
+        } catch (SQLException | RuntimeException e) {
+            permisosLectura.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Presta la conexión de escritura. Si el hilo actual ya la tiene, se reutiliza
+     * la misma conexión (y su transacción en curso).
+     */
+    public Connection obtenerEscritura() throws SQLException {
+        verificarAbierto();
+        long inicio = System.nanoTime();
+        try {
+            if (!candadoEscritura.tryLock(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                tiemposAgotados.incrementAndGet();
+                throw new SQLException("Tiempo de espera agotado al obtener la conexión de escritura");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido al esperar la conexión de escritura", e);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        try {
+            if (escritura == null || escritura.isClosed()) {
+                escritura = abrirConexion(true);
+            }
+            prestamosEscritura.incrementAndGet();
+            return envolver(escritura, true);
+        } catch (SQLException | RuntimeException e) {
+            candadoEscritura.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre una conexión física nueva con la configuración del pool
+     */
+    protected Connection abrirConexion(boolean esEscritura) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try {
+            if (configurador != null) {
+                configurador.configurar(conn, esEscritura);
+            }
+            if (!esEscritura) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA query_only = 1");
+                }
+            }
+        } catch (SQLException e) {
+            cerrarSilencioso(conn);
+            throw e;
+        }
+        if (capacidadCacheSentencias > 0) {
+            cachesSentencias.put(conn, new CacheSentencias(capacidadCacheSentencias, aciertosSentencias, fallosSentencias));
+        }
+        conexionesCreadas.incrementAndGet();
+        return conn;
+    }
+
+    private Connection tomarLecturaLibre() throws SQLException {
+        while (true) {
+            ConexionLibre libre;
+            synchronized (lecturasLibres) {
+                libre = lecturasLibres.pollFirst();
+            }
+            if (libre == null) {
+                return null;
+            }
+            if (!libre.conexion.isClosed()) {
+                return libre.conexion;
+            }
+        }
+    }
+
+    private void devolver(Connection fisica, boolean esEscritura) {
+        if (esEscritura) {
+            try {
+                // Solo se limpia el estado al liberar el préstamo más externo
+                if (candadoEscritura.getHoldCount() == 1) {
+                    restablecer(fisica);
+                }
+            } finally {
+                candadoEscritura.unlock();
+            }
+            return;
+        }
+
+        try {
+            restablecer(fisica);
+            if (cerrado || fisica.isClosed()) {
+                cerrarSilencioso(fisica);
+            } else {
+                synchronized (lecturasLibres) {
+                    lecturasLibres.addFirst(new ConexionLibre(fisica, System.currentTimeMillis()));
+                }
+            }
+        } catch (SQLException e) {
+            cerrarSilencioso(fisica);
+        } finally {
+            permisosLectura.release();
+        }
+    }
+
+    private void restablecer(Connection fisica) {
+        try {
+            if (!fisica.isClosed() && !fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al restablecer conexión: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra las conexiones de lectura que llevan demasiado tiempo sin usarse
+     */
+    private void desalojarInactivas() {
+        long limite = System.currentTimeMillis() - inactividadMaximaMs;
+        synchronized (lecturasLibres) {
+            Iterator<ConexionLibre> it = lecturasLibres.descendingIterator();
+            while (it.hasNext() && lecturasLibres.size() > minLecturasInactivas) {
+                ConexionLibre libre = it.next();
+                if (libre.devueltaEn < limite) {
+                    it.remove();
+                    cerrarSilencioso(libre.conexion);
+                    conexionesDesalojadas.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void registrarEspera(long nanos) {
+        esperaTotalNanos.addAndGet(nanos);
+        esperaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void verificarAbierto() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+    }
+
+    private Connection envolver(Connection fisica, boolean esEscritura) {
+        return (Connection) Proxy.newProxyInstance(
+            PoolConexiones.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new ManejadorPrestamo(fisica, esEscritura));
+    }
+
+    private void cerrarSilencioso(Connection conn) {
+        CacheSentencias cache = cachesSentencias.remove(conn);
+        if (cache != null) {
+            cache.cerrar();
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones del pool
+     */
+    public void cerrar() {
+        cerrado = true;
+        desalojo.shutdownNow();
+        synchronized (lecturasLibres) {
+            for (ConexionLibre libre : lecturasLibres) {
+                cerrarSilencioso(libre.conexion);
+            }
+            lecturasLibres.clear();
+        }
+        candadoEscritura.lock();
+        try {
+            if (escritura != null) {
+                cerrarSilencioso(escritura);
+                escritura = null;
+            }
+        } finally {
+            candadoEscritura.unlock();
+        }
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    public long getPrestamosLectura() {
+        return prestamosLectura.get();
+    }
+
+    public long getPrestamosEscritura() {
+        return prestamosEscritura.get();
+    }
+
+    public long getTiemposAgotados() {
+        return tiemposAgotados.get();
+    }
+
+    public long getConexionesCreadas() {
+        return conexionesCreadas.get();
+    }
+
+    public long getConexionesDesalojadas() {
+        return conexionesDesalojadas.get();
+    }
+
+    public int getLecturasEnUso() {
+        return maxLecturas - permisosLectura.availablePermits();
+    }
+
+    public int getLecturasLibres() {
+        synchronized (lecturasLibres) {
+            return lecturasLibres.size();
+        }
+    }
+
+    /**
+     * Tiempo medio de espera por una conexión, en milisegundos
+     */
+    public double getEsperaPromedioMs() {
+        long prestamos = prestamosLectura.get() + prestamosEscritura.get();
+        return prestamos == 0 ? 0 : esperaTotalNanos.get() / 1_000_000.0 / prestamos;
+    }
+
+    public double getEsperaMaximaMs() {
+        return esperaMaximaNanos.get() / 1_000_000.0;
+    }
+
+    public long getAciertosSentencias() {
+        return aciertosSentencias.get();
+    }
+
+    public long getFallosSentencias() {
+        return fallosSentencias.get();
+    }
+
+    /**
+     * Proporción de prepareStatement resueltos desde la caché de sentencias
+     */
+    public double getTasaAciertosSentencias() {
+        long total = aciertosSentencias.get() + fallosSentencias.get();
+        return total == 0 ? 0 : (double) aciertosSentencias.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConexiones{" +
+                "lecturasEnUso=" + getLecturasEnUso() +
+                ", lecturasLibres=" + getLecturasLibres() +
+                ", prestamosLectura=" + getPrestamosLectura() +
+                ", prestamosEscritura=" + getPrestamosEscritura() +
+                ", esperaPromedioMs=" + String.format("%.3f", getEsperaPromedioMs()) +
+                ", esperaMaximaMs=" + String.format("%.3f", getEsperaMaximaMs()) +
+                ", tiemposAgotados=" + getTiemposAgotados() +
+                ", creadas=" + getConexionesCreadas() +
+                ", desalojadas=" + getConexionesDesalojadas() +
+                ", sentenciasAciertos=" + getAciertosSentencias() +
+                ", sentenciasFallos=" + getFallosSentencias() +
+                '}';
+    }
+
+    /**
+     * Configuración que se aplica a cada conexión física al abrirla
+     */
+    @FunctionalInterface
+    public interface ConfiguradorConexion {
+        void configurar(Connection conn, boolean esEscritura) throws SQLException;
+    }
+
+    /**
+     * Conexión física libre junto con el momento en que se devolvió
+     */
+    private static class ConexionLibre {
+        final Connection conexion;
+        final long devueltaEn;
+
+        ConexionLibre(Connection conexion, long devueltaEn) {
+            this.conexion = conexion;
+            this.devueltaEn = devueltaEn;
+        }
+    }
+
+    /**
+     * Envoltorio de un préstamo: close() devuelve la conexión al pool
+     * en lugar de cerrarla físicamente
+     */
+    private class ManejadorPrestamo implements InvocationHandler {
+        private final Connection fisica;
+        private final boolean esEscritura;
+        private boolean devuelta = false;
+
+        ManejadorPrestamo(Connection fisica, boolean esEscritura) {
+            this.fisica = fisica;
+            this.esEscritura = esEscritura;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(fisica, esEscritura);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Prestamo[" + (esEscritura ? "escritura" : "lectura") + "]";
+                default:
+                    break;
+            }
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            if ("prepareStatement".equals(method.getName())) {
+                PreparedStatement enCache = prepararDesdeCache(method, args);
+                if (enCache != null) {
+                    return enCache;
+                }
+            }
+            try {
+                return method.invoke(fisica, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Resuelve prepareStatement(sql) y prepareStatement(sql, autoGeneratedKeys)
+         * desde la caché de la conexión física; las demás variantes no se guardan
+         */
+        private PreparedStatement prepararDesdeCache(Method method, Object[] args) throws SQLException {
+            CacheSentencias cache = cachesSentencias.get(fisica);
+            if (cache == null) {
+                return null;
+            }
+            Class<?>[] tipos = method.getParameterTypes();
+            String sql = (String) args[0];
+            if (tipos.length == 1) {
+                return cache.obtener(sql, () -> fisica.prepareStatement(sql));
+            }
+            if (tipos.length == 2 && tipos[1] == int.class) {
+                int clavesGeneradas = (Integer) args[1];
+                return cache.obtener(clavesGeneradas + "|" + sql, () -> fisica.prepareStatement(sql, clavesGeneradas));
+            }
+            return null;
+        }
+    }
+}
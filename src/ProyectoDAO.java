@@ -1,267 +1,537 @@
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * DAO para operaciones CRUD sobre Proyectos
- */
-public class ProyectoDAO {
-    private Connection connection;
-    
-    public ProyectoDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
-    /**
-     * Insertar un nuevo proyecto
-     */
-    public boolean insertar(Proyecto proyecto) {
-        String sql = "INSERT INTO proyectos(nombre, codigo, descripcion, tipo, fecha_inicio, fecha_fin, num_ayudantes, id_usuario) VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, proyecto.getNombre());
-            pstmt.setString(2, proyecto.getCodigo());
-            pstmt.setString(3, proyecto.getDescripcion());
-            pstmt.setString(4, proyecto.getTipo());
-            pstmt.setDate(5, proyecto.getFechaInicio() != null ? new java.sql.Date(proyecto.getFechaInicio().getTime()) : null);
-            pstmt.setDate(6, proyecto.getFechaFin() != null ? new java.sql.Date(proyecto.getFechaFin().getTime()) : null);
-            pstmt.setInt(7, proyecto.getNumeroDeDayudantesDelProyecto());
-            pstmt.setInt(8, proyecto.getIdUsuario());
-            pstmt.executeUpdate();
-            System.out.println("Proyecto insertado: " + proyecto.getNombre());
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error al insertar proyecto: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Obtener todos los proyectos
-     */
-    public List<Proyecto> obtenerTodos() {
-        List<Proyecto> proyectos = new ArrayList<>();
-        String sql = "SELECT * FROM proyectos ORDER BY id";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Proyecto proyecto = new Proyecto(
-                    rs.getInt("id"),
-                    rs.getString("nombre"),
-                    rs.getString("codigo"),
-                    rs.getString("descripcion"),
-                    rs.getString("tipo"),
-                    rs.getDate("fecha_inicio"),
-                    rs.getDate("fecha_fin"),
-                    rs.getInt("num_ayudantes"),
-                    rs.getInt("id_usuario")
-                );
-                proyectos.add(proyecto);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener proyectos: " + e.getMessage());
-        }
-        
-        return proyectos;
-    }
-    
-    /**
-     * Obtener proyecto por ID
-     */
-    public Proyecto obtenerPorId(int id) {
-        String sql = "SELECT * FROM proyectos WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return new Proyecto(
-                    rs.getInt("id"),
-                    rs.getString("nombre"),
-                    rs.getString("codigo"),
-                    rs.getString("descripcion"),
-                    rs.getString("tipo"),
-                    rs.getDate("fecha_inicio"),
-                    rs.getDate("fecha_fin"),
-                    rs.getInt("num_ayudantes"),
-                    rs.getInt("id_usuario")
-                );
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener proyecto: " + e.getMessage());
-        }
-        
-        return null;
-    }
-    
-    /**
-     * Obtener proyectos de un usuario específico
-     */
-    public List<Proyecto> obtenerPorUsuario(int idUsuario) {
-        List<Proyecto> proyectos = new ArrayList<>();
-        String sql = "SELECT * FROM proyectos WHERE id_usuario = ? ORDER BY id";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, idUsuario);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                Proyecto proyecto = new Proyecto(
-                    rs.getInt("id"),
-                    rs.getString("nombre"),
-                    rs.getString("codigo"),
-                    rs.getString("descripcion"),
-                    rs.getString("tipo"),
-                    rs.getDate("fecha_inicio"),
-                    rs.getDate("fecha_fin"),
-                    rs.getInt("num_ayudantes"),
-                    rs.getInt("id_usuario")
-                );
-                proyectos.add(proyecto);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener proyectos del usuario: " + e.getMessage());
-        }
-        
-        return proyectos;
-    }
-    
-    /**
-     * Actualizar proyecto
-     */
-    public boolean actualizar(Proyecto proyecto) {
-        String sql = "UPDATE proyectos SET nombre = ?, codigo = ?, descripcion = ?, tipo = ?, fecha_inicio = ?, fecha_fin = ?, num_ayudantes = ?, id_usuario = ? WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, proyecto.getNombre());
-            pstmt.setString(2, proyecto.getCodigo());
-            pstmt.setString(3, proyecto.getDescripcion());
-            pstmt.setString(4, proyecto.getTipo());
-            pstmt.setDate(5, proyecto.getFechaInicio() != null ? new java.sql.Date(proyecto.getFechaInicio().getTime()) : null);
-            pstmt.setDate(6, proyecto.getFechaFin() != null ? new java.sql.Date(proyecto.getFechaFin().getTime()) : null);
-            pstmt.setInt(7, proyecto.getNumeroDeDayudantesDelProyecto());
-            pstmt.setInt(8, proyecto.getIdUsuario());
-            pstmt.setInt(9, proyecto.getId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar proyecto: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Eliminar proyecto
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM proyectos WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al eliminar proyecto: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Buscar proyectos por nombre o código
-     */
-    public List<Proyecto> buscar(String texto) {
-        List<Proyecto> proyectos = new ArrayList<>();
-        String sql = "SELECT * FROM proyectos WHERE nombre LIKE ? OR codigo LIKE ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            String pattern = "%" + texto + "%";
-            pstmt.setString(1, pattern);
-            pstmt.setString(2, pattern);
-            
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Proyecto proyecto = new Proyecto(
-                    rs.getInt("id"),
-                    rs.getString("nombre"),
-                    rs.getString("codigo"),
-                    rs.getString("descripcion"),
-                    rs.getString("tipo"),
-                    rs.getDate("fecha_inicio"),
-                    rs.getDate("fecha_fin"),
-                    rs.getInt("num_ayudantes"),
-                    rs.getInt("id_usuario")
-                );
-                proyectos.add(proyecto);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al buscar proyectos: " + e.getMessage());
-        }
-        
-        return proyectos;
-    }
-    
-    /**
-     * Buscar proyectos por director
-     */
-    public List<Proyecto> obtenerPorDirector(int idDirector) {
-        List<Proyecto> proyectos = new ArrayList<>();
-        String sql = "SELECT * FROM proyectos WHERE id_usuario = ? ORDER BY nombre";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, idDirector);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                Proyecto proyecto = new Proyecto(
-                    rs.getInt("id"),
-                    rs.getString("nombre"),
-                    rs.getString("codigo"),
-                    rs.getString("descripcion"),
-                    rs.getString("tipo"),
-                    rs.getDate("fecha_inicio"),
-                    rs.getDate("fecha_fin"),
-                    rs.getInt("num_ayudantes"),
-                    rs.getInt("id_usuario")
-                );
-                proyectos.add(proyecto);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al buscar proyectos por director: " + e.getMessage());
-        }
-        
-        return proyectos;
-    }
-    
-    /**
-     * Obtener nombre completo del usuario que creó el proyecto
-     */
-    public String obtenerNombreUsuario(int idUsuario) {
-        if (idUsuario == 0) {
-            return "Sin asignar";
-        }
-        
-        String sql = "SELECT nombre, apellido FROM usuarios WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, idUsuario);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                String nombreCompleto = rs.getString("nombre") + " " + rs.getString("apellido");
-                System.out.println("Usuario encontrado: ID=" + idUsuario + " -> " + nombreCompleto);
-                return nombreCompleto;
-            } else {
-                System.out.println("No se encontró usuario con ID=" + idUsuario);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener usuario: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return "Sin asignar";
-    }
-}
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para operaciones CRUD sobre Proyectos
+ */
+public class ProyectoDAO {
+    // Columnas del proyecto junto con el nombre del director (para las vistas)
+    private static final String SELECT_VISTA =
+        "SELECT p.*, u.nombre || ' ' || u.apellido AS nombre_director " +
+        "FROM proyectos p ";
+    
+    private final DatabaseConnection db;
+    private final UsuarioDAO usuarioDAO;
+    
+    public ProyectoDAO() {
+        this.db = DatabaseConnection.getInstance();
+        this.usuarioDAO = new UsuarioDAO();
+    }
+    
+    /**
+     * Insertar un nuevo proyecto
+     */
+    public boolean insertar(Proyecto proyecto) {
+        String sql = "INSERT INTO proyectos(nombre, codigo, descripcion, tipo, fecha_inicio, fecha_fin, num_ayudantes, id_usuario) VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try {
+            int id = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, proyecto.getNombre());
+                    pstmt.setString(2, proyecto.getCodigo());
+                    pstmt.setString(3, proyecto.getDescripcion());
+                    pstmt.setString(4, proyecto.getTipo());
+                    pstmt.setDate(5, proyecto.getFechaInicio() != null ? new java.sql.Date(proyecto.getFechaInicio().getTime()) : null);
+                    pstmt.setDate(6, proyecto.getFechaFin() != null ? new java.sql.Date(proyecto.getFechaFin().getTime()) : null);
+                    pstmt.setInt(7, proyecto.getNumeroDeDayudantesDelProyecto());
+                    pstmt.setInt(8, proyecto.getIdUsuario());
+                    pstmt.executeUpdate();
+                }
+                return DatabaseConnection.ultimoIdInsertado(conn);
+            });
+            proyecto.setId(id);
+            publicar(id, EventoEntidad.Operacion.INSERTADO);
+            System.out.println("Proyecto insertado: " + proyecto.getNombre());
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar proyecto: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Insertar varios proyectos en una sola transacción (por bloques con executeBatch)
+     */
+    public ResultadoLote insertarLote(List<Proyecto> proyectos) {
+        return insertarLote(proyectos, InsercionLote.TAMANO_BLOQUE_PREDETERMINADO);
+    }
+    
+    /**
+     * Insertar varios proyectos en una sola transacción
+     * @param tamanoBloque Cantidad de filas por executeBatch
+     * @return Ids generados y proyectos que no pudieron insertarse
+     */
+    public ResultadoLote insertarLote(List<Proyecto> proyectos, int tamanoBloque) {
+        String sql = "INSERT INTO proyectos(nombre, codigo, descripcion, tipo, fecha_inicio, fecha_fin, num_ayudantes, id_usuario) VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try {
+            ResultadoLote resultado = db.ejecutarTransaccion(conn ->
+                InsercionLote.insertar(conn, sql, proyectos, tamanoBloque, (pstmt, proyecto) -> {
+                    pstmt.setString(1, proyecto.getNombre());
+                    pstmt.setString(2, proyecto.getCodigo());
+                    pstmt.setString(3, proyecto.getDescripcion());
+                    pstmt.setString(4, proyecto.getTipo());
+                    pstmt.setDate(5, proyecto.getFechaInicio() != null ? new java.sql.Date(proyecto.getFechaInicio().getTime()) : null);
+                    pstmt.setDate(6, proyecto.getFechaFin() != null ? new java.sql.Date(proyecto.getFechaFin().getTime()) : null);
+                    pstmt.setInt(7, proyecto.getNumeroDeDayudantesDelProyecto());
+                    pstmt.setInt(8, proyecto.getIdUsuario());
+                }));
+            for (int i = 0; i < proyectos.size(); i++) {
+                if (resultado.getIdGenerado(i) > 0) {
+                    proyectos.get(i).setId(resultado.getIdGenerado(i));
+                    publicar(resultado.getIdGenerado(i), EventoEntidad.Operacion.INSERTADO);
+                }
+            }
+            System.out.println("Lote de proyectos insertado: " + resultado);
+            return resultado;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar lote de proyectos: " + e.getMessage());
+            return ResultadoLote.fallido(proyectos.size(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Obtener todos los proyectos
+     */
+    public List<Proyecto> obtenerTodos() {
+        List<Proyecto> proyectos = new ArrayList<>();
+        String sql = "SELECT * FROM proyectos ORDER BY id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                Proyecto proyecto = new Proyecto(
+                    rs.getInt("id"),
+                    rs.getString("nombre"),
+                    rs.getString("codigo"),
+                    rs.getString("descripcion"),
+                    rs.getString("tipo"),
+                    rs.getDate("fecha_inicio"),
+                    rs.getDate("fecha_fin"),
+                    rs.getInt("num_ayudantes"),
+                    rs.getInt("id_usuario")
+                );
+                proyectos.add(proyecto);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener proyectos: " + e.getMessage());
+        }
+        
+        return proyectos;
+    }
+    
+    /**
+     * Obtener proyecto por ID
+     */
+    public Proyecto obtenerPorId(int id) {
+        String sql = "SELECT * FROM proyectos WHERE id = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return new Proyecto(
+                    rs.getInt("id"),
+                    rs.getString("nombre"),
+                    rs.getString("codigo"),
+                    rs.getString("descripcion"),
+                    rs.getString("tipo"),
+                    rs.getDate("fecha_inicio"),
+                    rs.getDate("fecha_fin"),
+                    rs.getInt("num_ayudantes"),
+                    rs.getInt("id_usuario")
+                );
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener proyecto: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Obtener proyectos de un usuario específico
+     */
+    public List<Proyecto> obtenerPorUsuario(int idUsuario) {
+        List<Proyecto> proyectos = new ArrayList<>();
+        String sql = "SELECT * FROM proyectos WHERE id_usuario = ? ORDER BY id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsuario);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Proyecto proyecto = new Proyecto(
+                    rs.getInt("id"),
+                    rs.getString("nombre"),
+                    rs.getString("codigo"),
+                    rs.getString("descripcion"),
+                    rs.getString("tipo"),
+                    rs.getDate("fecha_inicio"),
+                    rs.getDate("fecha_fin"),
+                    rs.getInt("num_ayudantes"),
+                    rs.getInt("id_usuario")
+                );
+                proyectos.add(proyecto);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener proyectos del usuario: " + e.getMessage());
+        }
+        
+        return proyectos;
+    }
+    
+    /**
+     * Obtener una página de proyectos con paginación por clave (keyset):
+     * solo los proyectos con id mayor que el último id ya mostrado
+     * @param despuesDeId Último id de la página anterior (0 para la primera página)
+     * @param limite Cantidad máxima de proyectos de la página
+     */
+    public List<Proyecto> obtenerPagina(int despuesDeId, int limite) {
+        String sql = "SELECT * FROM proyectos WHERE id > ? ORDER BY id LIMIT ?";
+        return consultarPagina(sql, despuesDeId, limite);
+    }
+    
+    /**
+     * Obtener una página de los proyectos de un usuario (paginación por clave)
+     */
+    public List<Proyecto> obtenerPaginaPorUsuario(int idUsuario, int despuesDeId, int limite) {
+        String sql = "SELECT * FROM proyectos WHERE id_usuario = ? AND id > ? ORDER BY id LIMIT ?";
+        return consultarPagina(sql, idUsuario, despuesDeId, limite);
+    }
+    
+    private List<Proyecto> consultarPagina(String sql, int... parametros) {
+        List<Proyecto> proyectos = new ArrayList<>();
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                pstmt.setInt(i + 1, parametros[i]);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    proyectos.add(new Proyecto(
+                        rs.getInt("id"),
+                        rs.getString("nombre"),
+                        rs.getString("codigo"),
+                        rs.getString("descripcion"),
+                        rs.getString("tipo"),
+                        rs.getDate("fecha_inicio"),
+                        rs.getDate("fecha_fin"),
+                        rs.getInt("num_ayudantes"),
+                        rs.getInt("id_usuario")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de proyectos: " + e.getMessage());
+        }
+        
+        return proyectos;
+    }
+    
+    /**
+     * Actualizar proyecto
+     */
+    public boolean actualizar(Proyecto proyecto) {
+        String sql = "UPDATE proyectos SET nombre = ?, codigo = ?, descripcion = ?, tipo = ?, fecha_inicio = ?, fecha_fin = ?, num_ayudantes = ?, id_usuario = ? WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, proyecto.getNombre());
+                    pstmt.setString(2, proyecto.getCodigo());
+                    pstmt.setString(3, proyecto.getDescripcion());
+                    pstmt.setString(4, proyecto.getTipo());
+                    pstmt.setDate(5, proyecto.getFechaInicio() != null ? new java.sql.Date(proyecto.getFechaInicio().getTime()) : null);
+                    pstmt.setDate(6, proyecto.getFechaFin() != null ? new java.sql.Date(proyecto.getFechaFin().getTime()) : null);
+                    pstmt.setInt(7, proyecto.getNumeroDeDayudantesDelProyecto());
+                    pstmt.setInt(8, proyecto.getIdUsuario());
+                    pstmt.setInt(9, proyecto.getId());
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(proyecto.getId(), EventoEntidad.Operacion.ACTUALIZADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar proyecto: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Eliminar proyecto
+     */
+    public boolean eliminar(int id) {
+        String sql = "DELETE FROM proyectos WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, id);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(id, EventoEntidad.Operacion.ELIMINADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar proyecto: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Buscar proyectos por nombre, código o descripción (texto completo, ordenados por relevancia)
+     */
+    public List<Proyecto> buscar(String texto) {
+        return buscar(texto, -1, 0);
+    }
+    
+    /**
+     * Buscar proyectos con texto completo: cada palabra se busca como prefijo y sin
+     * distinguir acentos; los resultados se ordenan por relevancia (bm25), pesando
+     * más el nombre y el código que la descripción
+     * @param limite Cantidad máxima de resultados (-1 sin límite)
+     * @param desplazamiento Cantidad de resultados a saltar (para paginar)
+     */
+    public List<Proyecto> buscar(String texto, int limite, int desplazamiento) {
+        List<Proyecto> proyectos = new ArrayList<>();
+        String consulta = ConsultaFTS.prefijos(texto);
+        if (consulta == null) {
+            return proyectos;
+        }
+        String sql = "SELECT p.* FROM proyectos_fts " +
+                     "INNER JOIN proyectos p ON p.id = proyectos_fts.rowid " +
+                     "WHERE proyectos_fts MATCH ? " +
+                     "ORDER BY bm25(proyectos_fts, 10.0, 5.0, 1.0), p.id " +
+                     "LIMIT ? OFFSET ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, consulta);
+            pstmt.setInt(2, limite);
+            pstmt.setInt(3, desplazamiento);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    proyectos.add(new Proyecto(
+                        rs.getInt("id"),
+                        rs.getString("nombre"),
+                        rs.getString("codigo"),
+                        rs.getString("descripcion"),
+                        rs.getString("tipo"),
+                        rs.getDate("fecha_inicio"),
+                        rs.getDate("fecha_fin"),
+                        rs.getInt("num_ayudantes"),
+                        rs.getInt("id_usuario")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar proyectos: " + e.getMessage());
+        }
+        
+        return proyectos;
+    }
+    
+    /**
+     * Obtener una página de filas de vista (con el nombre del director) por clave
+     */
+    public List<ProyectoVista> obtenerPaginaVistas(int despuesDeId, int limite) {
+        String sql = SELECT_VISTA +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE p.id > ? ORDER BY p.id LIMIT ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, despuesDeId);
+            pstmt.setInt(2, limite);
+            return consultarVistas(pstmt);
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de proyectos: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Obtener la fila de vista (con el nombre del director) de un proyecto por ID
+     */
+    public ProyectoVista obtenerVistaPorId(int id) {
+        String sql = SELECT_VISTA +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE p.id = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            List<ProyectoVista> vistas = consultarVistas(pstmt);
+            return vistas.isEmpty() ? null : vistas.get(0);
+        } catch (SQLException e) {
+            System.err.println("Error al obtener proyecto: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Búsqueda de texto completo que devuelve filas de vista (con el nombre del
+     * director en la misma consulta), ordenadas por relevancia.
+     * La consulta se puede interrumpir cancelando la carga que la ejecuta.
+     * @param limite Cantidad máxima de resultados (-1 sin límite)
+     * @param desplazamiento Cantidad de resultados a saltar (para paginar)
+     */
+    public List<ProyectoVista> buscarVistas(String texto, int limite, int desplazamiento) {
+        String consulta = ConsultaFTS.prefijos(texto);
+        if (consulta == null) {
+            return new ArrayList<>();
+        }
+        String sql = SELECT_VISTA +
+                     "INNER JOIN proyectos_fts ON proyectos_fts.rowid = p.id " +
+                     "LEFT JOIN usuarios u ON u.id = p.id_usuario " +
+                     "WHERE proyectos_fts MATCH ? " +
+                     "ORDER BY bm25(proyectos_fts, 10.0, 5.0, 1.0), p.id " +
+                     "LIMIT ? OFFSET ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, consulta);
+            pstmt.setInt(2, limite);
+            pstmt.setInt(3, desplazamiento);
+            return consultarVistas(pstmt);
+        } catch (SQLException e) {
+            System.err.println("Error al buscar proyectos: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    private List<ProyectoVista> consultarVistas(PreparedStatement pstmt) throws SQLException {
+        List<ProyectoVista> vistas = new ArrayList<>();
+        CancelacionConsulta.registrar(pstmt);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                vistas.add(new ProyectoVista(
+                    rs.getInt("id"),
+                    rs.getString("nombre"),
+                    rs.getString("codigo"),
+                    rs.getString("descripcion"),
+                    rs.getString("tipo"),
+                    rs.getDate("fecha_inicio"),
+                    rs.getDate("fecha_fin"),
+                    rs.getInt("num_ayudantes"),
+                    rs.getInt("id_usuario"),
+                    rs.getString("nombre_director")
+                ));
+            }
+        } finally {
+            CancelacionConsulta.quitar();
+        }
+        return vistas;
+    }
+    
+    /**
+     * Buscar proyectos por director
+     */
+    public List<Proyecto> obtenerPorDirector(int idDirector) {
+        List<Proyecto> proyectos = new ArrayList<>();
+        String sql = "SELECT * FROM proyectos WHERE id_usuario = ? ORDER BY nombre";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idDirector);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Proyecto proyecto = new Proyecto(
+                    rs.getInt("id"),
+                    rs.getString("nombre"),
+                    rs.getString("codigo"),
+                    rs.getString("descripcion"),
+                    rs.getString("tipo"),
+                    rs.getDate("fecha_inicio"),
+                    rs.getDate("fecha_fin"),
+                    rs.getInt("num_ayudantes"),
+                    rs.getInt("id_usuario")
+                );
+                proyectos.add(proyecto);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar proyectos por director: " + e.getMessage());
+        }
+        
+        return proyectos;
+    }
+    
+    /**
+     * Obtener los proyectos con menos formularios de ayudantes que los requeridos,
+     * contando los formularios con una sola consulta agrupada
+     */
+    public List<FaltaAyudantes> obtenerFaltaAyudantes() {
+        return consultarFaltaAyudantes(null);
+    }
+    
+    /**
+     * Obtener la falta de ayudantes de un solo proyecto (lista vacía si está completo)
+     */
+    public List<FaltaAyudantes> obtenerFaltaAyudantes(int idProyecto) {
+        return consultarFaltaAyudantes(idProyecto);
+    }
+    
+    private List<FaltaAyudantes> consultarFaltaAyudantes(Integer idProyecto) {
+        List<FaltaAyudantes> faltas = new ArrayList<>();
+        String sql = "SELECT p.id, p.nombre, p.num_ayudantes, p.id_usuario, COUNT(f.id) AS registrados " +
+                     "FROM proyectos p " +
+                     "INNER JOIN usuarios u ON u.id = p.id_usuario AND u.tipo = 'Director' " +
+                     "LEFT JOIN formularios f ON f.id_proyecto = p.id " +
+                     (idProyecto != null ? "WHERE p.id = ? " : "") +
+                     "GROUP BY p.id " +
+                     "HAVING COUNT(f.id) < p.num_ayudantes";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (idProyecto != null) {
+                pstmt.setInt(1, idProyecto);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    faltas.add(new FaltaAyudantes(
+                        rs.getInt("id"),
+                        rs.getString("nombre"),
+                        rs.getInt("id_usuario"),
+                        rs.getInt("num_ayudantes"),
+                        rs.getInt("registrados")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener proyectos con falta de ayudantes: " + e.getMessage());
+        }
+        
+        return faltas;
+    }
+    
+    /**
+     * Obtener nombre completo del usuario que creó el proyecto (desde CacheNombresUsuario)
+     */
+    public String obtenerNombreUsuario(int idUsuario) {
+        if (idUsuario == 0) {
+            return "Sin asignar";
+        }
+        String nombre = usuarioDAO.obtenerNombreCompleto(idUsuario);
+        return nombre != null ? nombre : "Sin asignar";
+    }
+    
+    private static void publicar(int id, EventoEntidad.Operacion operacion) {
+        BusEventos.getInstance().publicar(EventoEntidad.Tipo.PROYECTO, id, operacion);
+    }
+}
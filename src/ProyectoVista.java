@@ -0,0 +1,85 @@
+import java.util.Date;
+
+/**
+ * Fila de solo lectura para mostrar proyectos en tablas
+ * Incluye el nombre del director obtenido con un JOIN en la misma consulta,
+ * evitando consultar el director por cada proyecto
+ */
+public class ProyectoVista {
+    private final int id;
+    private final String nombre;
+    private final String codigo;
+    private final String descripcion;
+    private final String tipo;
+    private final Date fechaInicio;
+    private final Date fechaFin;
+    private final int numAyudantes;
+    private final int idUsuario;
+    private final String nombreDirector;
+
+    public ProyectoVista(int id, String nombre, String codigo, String descripcion, String tipo,
+                         Date fechaInicio, Date fechaFin, int numAyudantes, int idUsuario,
+                         String nombreDirector) {
+        this.id = id;
+        this.nombre = nombre;
+        this.codigo = codigo;
+        this.descripcion = descripcion;
+        this.tipo = tipo;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.numAyudantes = numAyudantes;
+        this.idUsuario = idUsuario;
+        this.nombreDirector = nombreDirector != null ? nombreDirector : "Sin asignar";
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Date getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public Date getFechaFin() {
+        return fechaFin;
+    }
+
+    public int getNumAyudantes() {
+        return numAyudantes;
+    }
+
+    public int getIdUsuario() {
+        return idUsuario;
+    }
+
+    public String getNombreDirector() {
+        return nombreDirector;
+    }
+
+    @Override
+    public String toString() {
+        return "ProyectoVista{" +
+                "id=" + id +
+                ", nombre='" + nombre + '\'' +
+                ", codigo='" + codigo + '\'' +
+                ", director='" + nombreDirector + '\'' +
+                '}';
+    }
+}
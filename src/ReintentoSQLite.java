@@ -0,0 +1,71 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reintenta operaciones de escritura cuando SQLite responde SQLITE_BUSY o SQLITE_LOCKED
+ * Espera con retroceso exponencial y un poco de aleatoriedad para que varios
+ * clientes sobre el mismo archivo no reintenten al mismo tiempo.
+ */
+public class ReintentoSQLite {
+    // Códigos primarios de SQLite
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    private final int maxIntentos;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+
+    public ReintentoSQLite(int maxIntentos, long esperaInicialMs, long esperaMaximaMs) {
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.esperaInicialMs = esperaInicialMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    /**
+     * Ejecuta la operación sobre la conexión, reintentando si la base está ocupada.
+     * Dentro de una transacción abierta no se reintenta: debe reintentarse la transacción completa.
+     */
+    public <T> T ejecutar(Connection conn, OperacionSQL<T> operacion) throws SQLException {
+        if (!conn.getAutoCommit()) {
+            return operacion.ejecutar(conn);
+        }
+
+        long espera = esperaInicialMs;
+        for (int intento = 1; ; intento++) {
+            try {
+                return operacion.ejecutar(conn);
+            } catch (SQLException e) {
+                if (!esOcupado(e) || intento >= maxIntentos) {
+                    throw e;
+                }
+                System.err.println("Base de datos ocupada, reintento " + intento + " de " + (maxIntentos - 1));
+                dormir(espera + ThreadLocalRandom.current().nextLong(espera / 2 + 1));
+                espera = Math.min(espera * 2, esperaMaximaMs);
+            }
+        }
+    }
+
+    /**
+     * Indica si la excepción corresponde a una base de datos ocupada o bloqueada
+     */
+    public static boolean esOcupado(SQLException e) {
+        int codigo = e.getErrorCode() & 0xFF; // los códigos extendidos comparten el byte bajo
+        if (codigo == SQLITE_BUSY || codigo == SQLITE_LOCKED) {
+            return true;
+        }
+        String mensaje = e.getMessage();
+        return mensaje != null && (mensaje.contains("SQLITE_BUSY")
+                || mensaje.contains("SQLITE_LOCKED")
+                || mensaje.contains("database is locked"));
+    }
+
+    private static void dormir(long ms) throws SQLException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba la base de datos", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de cambiar el estado de varias solicitudes y notificar a los solicitantes
+ * en una misma transacción: o se confirmaron ambas cosas o ninguna.
+ */
+public class ResultadoCambioEstado {
+    private final List<Solicitud> cambiadas;
+    private final ResultadoLote notificaciones;
+    private final String error;
+
+    public ResultadoCambioEstado(List<Solicitud> cambiadas, ResultadoLote notificaciones) {
+        this(cambiadas, notificaciones, null);
+    }
+
+    private ResultadoCambioEstado(List<Solicitud> cambiadas, ResultadoLote notificaciones, String error) {
+        this.cambiadas = cambiadas;
+        this.notificaciones = notificaciones;
+        this.error = error;
+    }
+
+    /**
+     * La transacción no se confirmó: ninguna solicitud cambió
+     */
+    public static ResultadoCambioEstado fallido(String motivo) {
+        return new ResultadoCambioEstado(Collections.emptyList(), null, motivo);
+    }
+
+    public boolean isExitoso() {
+        return error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Solicitudes que cambiaron de estado (ya con el estado nuevo)
+     */
+    public List<Solicitud> getCambiadas() {
+        return Collections.unmodifiableList(cambiadas);
+    }
+
+    /**
+     * Resultado del lote de notificaciones, o null si no se notificó
+     */
+    public ResultadoLote getNotificaciones() {
+        return notificaciones;
+    }
+
+    /**
+     * Notificaciones que no se pudieron insertar (las solicitudes cambiaron igual)
+     */
+    public int getNotificacionesFallidas() {
+        return notificaciones == null ? 0 : notificaciones.getFallos().size();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoCambioEstado{" +
+                "cambiadas=" + cambiadas.size() +
+                ", notificaciones=" + notificaciones +
+                ", error=" + error +
+                '}';
+    }
+}
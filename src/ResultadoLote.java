@@ -0,0 +1,76 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado de una inserción por lotes
+ * Guarda el id generado de cada elemento (en el mismo orden de la lista de entrada)
+ * y el motivo de cada elemento que no pudo insertarse.
+ */
+public class ResultadoLote {
+    private final int[] idsGenerados;
+    private final Map<Integer, String> fallos = new LinkedHashMap<>();
+
+    public ResultadoLote(int total) {
+        this.idsGenerados = new int[total];
+    }
+
+    /**
+     * Resultado en el que ningún elemento se insertó (por ejemplo, falló el commit)
+     */
+    public static ResultadoLote fallido(int total, String motivo) {
+        ResultadoLote resultado = new ResultadoLote(total);
+        for (int i = 0; i < total; i++) {
+            resultado.registrarFallo(i, motivo);
+        }
+        return resultado;
+    }
+
+    void registrarId(int indice, int id) {
+        idsGenerados[indice] = id;
+    }
+
+    void registrarFallo(int indice, String motivo) {
+        idsGenerados[indice] = 0;
+        fallos.put(indice, motivo);
+    }
+
+    /**
+     * Id generado para el elemento en la posición indicada (0 si no se insertó)
+     */
+    public int getIdGenerado(int indice) {
+        return idsGenerados[indice];
+    }
+
+    public int[] getIdsGenerados() {
+        return idsGenerados.clone();
+    }
+
+    /**
+     * Elementos que no se insertaron: posición en la lista de entrada y motivo
+     */
+    public Map<Integer, String> getFallos() {
+        return Collections.unmodifiableMap(fallos);
+    }
+
+    public int getTotal() {
+        return idsGenerados.length;
+    }
+
+    public int getInsertados() {
+        return idsGenerados.length - fallos.size();
+    }
+
+    public boolean isCompleto() {
+        return fallos.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoLote{" +
+                "total=" + getTotal() +
+                ", insertados=" + getInsertados() +
+                ", fallidos=" + fallos.size() +
+                '}';
+    }
+}
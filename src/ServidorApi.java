@@ -0,0 +1,740 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP sin interfaz gráfica que expone la lógica de negocio como JSON
+ * Las operaciones pasan por las mismas clases que usa la interfaz (Director,
+ * Jefatura, ControladorSolicitudes y los DAO), así que las validaciones y los
+ * eventos son los mismos. Cada petición corre en su propio hilo virtual cuando la
+ * JVM los ofrece (Java 21+); en JVM anteriores se usa un grupo fijo de hilos.
+ * La concurrencia real contra SQLite la sigue limitando el pool de conexiones.
+ *
+ * Autenticación HTTP Basic con el correo y la contraseña de la cuenta, las mismas del
+ * inicio de sesión de escritorio. El servidor habla HTTP plano y por defecto solo escucha
+ * en la interfaz local (127.0.0.1): para abrirlo a las facultades hay que ponerlo detrás
+ * de un proxy que termine TLS (nginx, Apache, etc.), nunca exponer el puerto directamente.
+ * Cada verificación de contraseña cuesta un PBKDF2 completo: se limitan las que corren a
+ * la vez (una por núcleo) y una dirección con demasiados intentos fallidos recibe 429
+ * sin verificar nada hasta que pase la ventana.
+ *
+ *   GET  /api/proyectos[/{id}]
+ *   GET  /api/formularios[?estado=]            POST /api/formularios (Director)
+ *   POST /api/formularios/{id}/aprobar|rechazar (Jefatura)
+ *   GET  /api/solicitudes[?estado=]            POST /api/solicitudes (Director)
+ *   POST /api/solicitudes/{id}/aprobar|rechazar|asesorar (Jefatura)
+ *   POST /api/solicitudes/estado               {"ids":[...],"estado":"...","notificar":true} (Jefatura)
+ *        responde {"solicitudes":[...],"notificacionesFallidas":n}
+ *   GET  /api/notificaciones[?noLeidas=true]   POST /api/notificaciones (Jefatura)
+ *   POST /api/notificaciones/leidas            {"ids":[...]} o {"todas":true}
+ */
+public class ServidorApi {
+    public static final int PUERTO_POR_DEFECTO = 8080;
+    public static final String DIRECCION_POR_DEFECTO = "127.0.0.1";
+
+    private static final int HILOS_RESPALDO = 32;
+    private static final int MAX_CUERPO_BYTES = 64 * 1024;
+    private static final int MAX_NOTIFICACIONES = 200;
+    // Verificar PBKDF2 en cada petición costaría más que la consulta misma
+    private static final long VIGENCIA_CREDENCIAL_MS = 5 * 60 * 1000;
+    private static final int MAX_CREDENCIALES = 1000;
+    // Intentos fallidos por dirección antes de bloquearla hasta que termine la ventana
+    private static final int MAX_FALLOS_POR_DIRECCION = 10;
+    private static final long VENTANA_FALLOS_MS = 5 * 60 * 1000;
+    private static final int MAX_DIRECCIONES_VIGILADAS = 10000;
+    // Espera máxima por un turno de verificación antes de responder 503
+    private static final long ESPERA_VERIFICACION_MS = 2000;
+
+    private final String direccion;
+    private final int puerto;
+    private final UsuarioDAO usuarioDAO;
+    private final ProyectoDAO proyectoDAO;
+    private final FormularioDAO formularioDAO;
+    private final SolicitudDAO solicitudDAO;
+    private final NotificacionDAO notificacionDAO;
+    private final Map<String, CredencialVerificada> credenciales = new ConcurrentHashMap<>();
+    private final Map<String, IntentosFallidos> fallos = new ConcurrentHashMap<>();
+    private final Semaphore verificaciones = new Semaphore(Runtime.getRuntime().availableProcessors());
+
+    private HttpServer servidor;
+    private ExecutorService ejecutor;
+
+    /**
+     * Ruta de la API; recibe el usuario ya autenticado y los segmentos tras /api/{recurso}
+     */
+    @FunctionalInterface
+    private interface Ruta {
+        Respuesta atender(HttpExchange intercambio, Usuario usuario, String[] segmentos) throws IOException;
+    }
+
+    private static final class Respuesta {
+        private final int estado;
+        private final Object cuerpo;
+
+        private Respuesta(int estado, Object cuerpo) {
+            this.estado = estado;
+            this.cuerpo = cuerpo;
+        }
+
+        static Respuesta ok(Object cuerpo) {
+            return new Respuesta(200, cuerpo);
+        }
+
+        static Respuesta error(int estado, String mensaje) {
+            Map<String, Object> cuerpo = new LinkedHashMap<>();
+            cuerpo.put("error", mensaje);
+            return new Respuesta(estado, cuerpo);
+        }
+
+        static Respuesta desde(ResultadoOperacion resultado, int estadoExito) {
+            Map<String, Object> cuerpo = new LinkedHashMap<>();
+            cuerpo.put("exitoso", resultado.isExitoso());
+            cuerpo.put("mensaje", resultado.getMensaje());
+            return new Respuesta(resultado.isExitoso() ? estadoExito : 422, cuerpo);
+        }
+    }
+
+    /**
+     * Credencial ya verificada; guarda el hash con el que se verificó para notar
+     * si la contraseña cambió desde otro cliente
+     */
+    private static final class CredencialVerificada {
+        private final int idUsuario;
+        private final String hashContraseña;
+        private final long vence;
+
+        private CredencialVerificada(int idUsuario, String hashContraseña, long vence) {
+            this.idUsuario = idUsuario;
+            this.hashContraseña = hashContraseña;
+            this.vence = vence;
+        }
+    }
+
+    /**
+     * Intentos fallidos de una dirección dentro de la ventana actual
+     */
+    private static final class IntentosFallidos {
+        private final long inicio = System.currentTimeMillis();
+        private final AtomicInteger cantidad = new AtomicInteger();
+
+        private boolean vencido(long ahora) {
+            return ahora - inicio >= VENTANA_FALLOS_MS;
+        }
+    }
+
+    /**
+     * No hay turno para verificar una contraseña (todas las verificaciones ocupadas)
+     */
+    private static final class ServidorSaturado extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private ServidorSaturado() {
+            super("Servidor ocupado, intente nuevamente");
+        }
+    }
+
+    public ServidorApi(int puerto) {
+        this(DIRECCION_POR_DEFECTO, puerto);
+    }
+
+    /**
+     * @param direccion Interfaz en la que escuchar; "0.0.0.0" escucha en todas y solo
+     *                  debe usarse detrás de un proxy que termine TLS
+     */
+    public ServidorApi(String direccion, int puerto) {
+        this.direccion = direccion;
+        this.puerto = puerto;
+        this.usuarioDAO = new UsuarioDAO();
+        this.proyectoDAO = new ProyectoDAO();
+        this.formularioDAO = new FormularioDAO();
+        this.solicitudDAO = new SolicitudDAO();
+        this.notificacionDAO = new NotificacionDAO();
+    }
+
+    /**
+     * Abre el puerto y empieza a atender peticiones
+     */
+    public void iniciar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress(direccion, puerto), 0);
+        servidor.createContext("/api/proyectos", intercambio -> atender(intercambio, this::proyectos));
+        servidor.createContext("/api/formularios", intercambio -> atender(intercambio, this::formularios));
+        servidor.createContext("/api/solicitudes", intercambio -> atender(intercambio, this::solicitudes));
+        servidor.createContext("/api/notificaciones", intercambio -> atender(intercambio, this::notificaciones));
+        ejecutor = crearEjecutor();
+        servidor.setExecutor(ejecutor);
+        servidor.start();
+        System.out.println("Servidor API escuchando en " + direccion + ":" + puerto);
+        if (!servidor.getAddress().getAddress().isLoopbackAddress()) {
+            System.out.println("Servidor API: HTTP sin cifrar fuera de la interfaz local; " +
+                "las contraseñas solo deben llegar a través de un proxy con TLS");
+        }
+    }
+
+    /**
+     * Deja de aceptar peticiones y espera a que terminen las que están en curso
+     */
+    public void detener() {
+        if (servidor != null) {
+            servidor.stop(2);
+            servidor = null;
+        }
+        if (ejecutor != null) {
+            ejecutor.shutdown();
+            try {
+                ejecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ejecutor = null;
+        }
+    }
+
+    /**
+     * Un hilo virtual por petición si la JVM lo permite (Executors.newVirtualThreadPerTaskExecutor
+     * existe desde Java 21; se busca por reflexión para seguir compilando con Java 17)
+     */
+    private static ExecutorService crearEjecutor() {
+        try {
+            Method metodo = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService virtual = (ExecutorService) metodo.invoke(null);
+            System.out.println("Servidor API: un hilo virtual por petición");
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger contador = new AtomicInteger();
+            System.out.println("Servidor API: hilos virtuales no disponibles, se usan " + HILOS_RESPALDO + " hilos");
+            return Executors.newFixedThreadPool(HILOS_RESPALDO, r -> {
+                Thread t = new Thread(r, "api-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private void atender(HttpExchange intercambio, Ruta ruta) {
+        Respuesta respuesta;
+        String origen = intercambio.getRemoteAddress().getAddress().getHostAddress();
+        try {
+            Usuario usuario = autenticar(intercambio, origen);
+            if (usuario == null && bloqueado(origen)) {
+                intercambio.getResponseHeaders().set("Retry-After", String.valueOf(VENTANA_FALLOS_MS / 1000));
+                respuesta = Respuesta.error(429, "Demasiados intentos fallidos, intente más tarde");
+            } else if (usuario == null) {
+                intercambio.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"api\", charset=\"UTF-8\"");
+                respuesta = Respuesta.error(401, "Credenciales inválidas");
+            } else {
+                respuesta = ruta.atender(intercambio, usuario, segmentos(intercambio));
+            }
+        } catch (IllegalArgumentException e) {
+            respuesta = Respuesta.error(400, e.getMessage());
+        } catch (ServidorSaturado e) {
+            intercambio.getResponseHeaders().set("Retry-After", "1");
+            respuesta = Respuesta.error(503, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al atender " + intercambio.getRequestURI() + ": " + e.getMessage());
+            respuesta = Respuesta.error(500, "Error interno");
+        }
+        responder(intercambio, respuesta);
+    }
+
+    private static void responder(HttpExchange intercambio, Respuesta respuesta) {
+        byte[] cuerpo = Json.escribir(respuesta.cuerpo).getBytes(StandardCharsets.UTF_8);
+        try {
+            intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            intercambio.sendResponseHeaders(respuesta.estado, cuerpo.length);
+            try (OutputStream out = intercambio.getResponseBody()) {
+                out.write(cuerpo);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al responder: " + e.getMessage());
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    // ==================== AUTENTICACIÓN ====================
+
+    /**
+     * Valida el encabezado Authorization: Basic con el mismo criterio que LoginWindow
+     * @return El usuario autenticado o null
+     */
+    private Usuario autenticar(HttpExchange intercambio, String origen) {
+        String encabezado = intercambio.getRequestHeaders().getFirst("Authorization");
+        if (encabezado == null || !encabezado.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+
+        // Solo se guarda el resumen del encabezado, nunca la contraseña
+        String clave = resumen(encabezado);
+        CredencialVerificada verificada = credenciales.get(clave);
+        if (verificada != null) {
+            // La fila se lee siempre: un usuario eliminado o con otra contraseña no pasa
+            Usuario actual = verificada.vence > System.currentTimeMillis()
+                ? usuarioDAO.obtenerPorId(verificada.idUsuario) : null;
+            if (actual != null && verificada.hashContraseña.equals(actual.getPassword())) {
+                return actual;
+            }
+            credenciales.remove(clave);
+        }
+        // Las credenciales ya verificadas siguen valiendo; lo que se bloquea es el PBKDF2
+        if (bloqueado(origen)) {
+            return null;
+        }
+
+        String decodificado;
+        try {
+            decodificado = new String(Base64.getDecoder().decode(encabezado.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int separador = decodificado.indexOf(':');
+        if (separador < 0) {
+            return null;
+        }
+        String correo = decodificado.substring(0, separador);
+        String contraseña = decodificado.substring(separador + 1);
+
+        Usuario usuario = usuarioDAO.buscarPorCorreo(correo);
+        if (!verificar(contraseña, usuario)) {
+            registrarFallo(origen);
+            return null;
+        }
+        fallos.remove(origen);
+        if (HashContrasena.requiereActualizacion(usuario.getPassword())) {
+            // El hash nuevo no se conoce aquí: la próxima petición vuelve a verificar
+            return usuario;
+        }
+
+        if (credenciales.size() >= MAX_CREDENCIALES) {
+            credenciales.clear();
+        }
+        credenciales.put(clave, new CredencialVerificada(usuario.getId(), usuario.getPassword(),
+            System.currentTimeMillis() + VIGENCIA_CREDENCIAL_MS));
+        return usuario;
+    }
+
+    /**
+     * PBKDF2 con un turno del semáforo; sin usuario se verifica contra un hash ficticio
+     * para que el tiempo de respuesta no revele qué correos existen. Si la contraseña es
+     * correcta y el hash guardado es antiguo, se vuelve a generar con el mismo turno.
+     * @throws ServidorSaturado si no hay turno dentro de ESPERA_VERIFICACION_MS
+     */
+    private boolean verificar(String contraseña, Usuario usuario) {
+        try {
+            if (!verificaciones.tryAcquire(ESPERA_VERIFICACION_MS, TimeUnit.MILLISECONDS)) {
+                throw new ServidorSaturado();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServidorSaturado();
+        }
+        try {
+            if (usuario == null) {
+                HashContrasena.verificarFicticio(contraseña);
+                return false;
+            }
+            if (!HashContrasena.verificar(contraseña, usuario.getPassword())) {
+                return false;
+            }
+            if (HashContrasena.requiereActualizacion(usuario.getPassword())) {
+                usuarioDAO.actualizarContraseña(usuario.getId(), contraseña);
+            }
+            return true;
+        } finally {
+            verificaciones.release();
+        }
+    }
+
+    private boolean bloqueado(String origen) {
+        IntentosFallidos intentos = fallos.get(origen);
+        if (intentos == null) {
+            return false;
+        }
+        if (intentos.vencido(System.currentTimeMillis())) {
+            fallos.remove(origen, intentos);
+            return false;
+        }
+        return intentos.cantidad.get() >= MAX_FALLOS_POR_DIRECCION;
+    }
+
+    private void registrarFallo(String origen) {
+        long ahora = System.currentTimeMillis();
+        if (fallos.size() >= MAX_DIRECCIONES_VIGILADAS) {
+            fallos.values().removeIf(intentos -> intentos.vencido(ahora));
+        }
+        IntentosFallidos intentos = fallos.compute(origen,
+            (clave, actuales) -> actuales == null || actuales.vencido(ahora) ? new IntentosFallidos() : actuales);
+        intentos.cantidad.incrementAndGet();
+    }
+
+    private static String resumen(String texto) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ==================== RUTAS ====================
+
+    private Respuesta proyectos(HttpExchange intercambio, Usuario usuario, String[] segmentos) {
+        if (!"GET".equals(intercambio.getRequestMethod())) {
+            return Respuesta.error(405, "Método no permitido");
+        }
+        if (segmentos.length == 0) {
+            List<Proyecto> proyectos;
+            if (usuario instanceof Director) {
+                proyectos = ((Director) usuario).consultarMisProyectos();
+            } else if (usuario instanceof Jefatura) {
+                proyectos = ((Jefatura) usuario).consultarProyectos();
+            } else {
+                return Respuesta.error(403, "Sin permiso");
+            }
+            List<Object> lista = new ArrayList<>(proyectos.size());
+            for (Proyecto p : proyectos) {
+                lista.add(aMapa(p));
+            }
+            return Respuesta.ok(lista);
+        }
+        if (segmentos.length == 1) {
+            Proyecto proyecto = proyectoDAO.obtenerPorId(entero(segmentos[0]));
+            if (proyecto == null || !puedeVer(usuario, proyecto.getIdUsuario())) {
+                return Respuesta.error(404, "Proyecto no encontrado");
+            }
+            return Respuesta.ok(aMapa(proyecto));
+        }
+        return Respuesta.error(404, "Ruta no encontrada");
+    }
+
+    private Respuesta formularios(HttpExchange intercambio, Usuario usuario, String[] segmentos) throws IOException {
+        String metodo = intercambio.getRequestMethod();
+        if (segmentos.length == 0 && "GET".equals(metodo)) {
+            String estado = parametros(intercambio).get("estado");
+            List<Formulario> formularios;
+            if (usuario instanceof Director) {
+                formularios = formularioDAO.obtenerFormulariosPorUsuario(usuario.getId());
+                if (estado != null) {
+                    formularios.removeIf(f -> !estado.equals(f.getEstado()));
+                }
+            } else if (usuario instanceof Jefatura) {
+                Jefatura jefatura = (Jefatura) usuario;
+                formularios = estado != null ? jefatura.consultarFormulariosPorEstado(estado) : jefatura.consultarFormularios();
+            } else {
+                return Respuesta.error(403, "Sin permiso");
+            }
+            List<Object> lista = new ArrayList<>(formularios.size());
+            for (Formulario f : formularios) {
+                lista.add(aMapa(f));
+            }
+            return Respuesta.ok(lista);
+        }
+        if (segmentos.length == 0 && "POST".equals(metodo)) {
+            if (!(usuario instanceof Director)) {
+                return Respuesta.error(403, "Solo un Director puede registrar formularios");
+            }
+            Map<String, Object> cuerpo = leerCuerpo(intercambio);
+            ResultadoOperacion resultado = new ControladorSolicitudes((Director) usuario).registrarFormulario(
+                entero(cuerpo.get("idProyecto")),
+                entero(cuerpo.get("numeroDeAyudantes")),
+                texto(cuerpo.get("nombre")),
+                texto(cuerpo.get("apellido")),
+                texto(cuerpo.get("cedula")),
+                texto(cuerpo.get("facultad")));
+            return Respuesta.desde(resultado, 201);
+        }
+        if (segmentos.length == 2 && "POST".equals(metodo)) {
+            if (!(usuario instanceof Jefatura)) {
+                return Respuesta.error(403, "Solo Jefatura puede aprobar o rechazar formularios");
+            }
+            Jefatura jefatura = (Jefatura) usuario;
+            int id = entero(segmentos[0]);
+            boolean hecho;
+            switch (segmentos[1]) {
+                case "aprobar": hecho = jefatura.aprobarFormulario(id); break;
+                case "rechazar": hecho = jefatura.rechazarFormulario(id); break;
+                default: return Respuesta.error(404, "Acción desconocida: " + segmentos[1]);
+            }
+            return hecho ? Respuesta.ok(aMapa(formularioDAO.obtenerPorId(id))) : Respuesta.error(404, "Formulario no encontrado");
+        }
+        return Respuesta.error(404, "Ruta no encontrada");
+    }
+
+    private Respuesta solicitudes(HttpExchange intercambio, Usuario usuario, String[] segmentos) throws IOException {
+        String metodo = intercambio.getRequestMethod();
+        if (segmentos.length == 0 && "GET".equals(metodo)) {
+            String estado = parametros(intercambio).get("estado");
+            List<Solicitud> solicitudes;
+            if (usuario instanceof Director) {
+                solicitudes = ((Director) usuario).consultarMisSolicitudes();
+                if (estado != null) {
+                    solicitudes.removeIf(s -> !estado.equals(s.getEstadoEmisionDest()));
+                }
+            } else if (usuario instanceof Jefatura) {
+                Jefatura jefatura = (Jefatura) usuario;
+                solicitudes = estado != null ? jefatura.consultarSolicitudesPorEstado(estado) : jefatura.consultarSolicitudes();
+            } else {
+                return Respuesta.error(403, "Sin permiso");
+            }
+            List<Object> lista = new ArrayList<>(solicitudes.size());
+            for (Solicitud s : solicitudes) {
+                lista.add(aMapa(s));
+            }
+            return Respuesta.ok(lista);
+        }
+        if (segmentos.length == 0 && "POST".equals(metodo)) {
+            if (!(usuario instanceof Director)) {
+                return Respuesta.error(403, "Solo un Director puede enviar solicitudes");
+            }
+            Map<String, Object> cuerpo = leerCuerpo(intercambio);
+            ResultadoOperacion resultado = new ControladorSolicitudes((Director) usuario).enviarSolicitud(
+                texto(cuerpo.get("asunto")), texto(cuerpo.get("descripcion")));
+            return Respuesta.desde(resultado, 201);
+        }
+        if (segmentos.length == 1 && "estado".equals(segmentos[0]) && "POST".equals(metodo)) {
+            if (!(usuario instanceof Jefatura)) {
+                return Respuesta.error(403, "Solo Jefatura puede resolver solicitudes");
+            }
+            Map<String, Object> cuerpo = leerCuerpo(intercambio);
+            String estado = texto(cuerpo.get("estado"));
+            if (estado == null || estado.trim().isEmpty() || !(cuerpo.get("ids") instanceof List)) {
+                throw new IllegalArgumentException("Indique \"ids\" y \"estado\"");
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (Object id : (List<?>) cuerpo.get("ids")) {
+                ids.add(entero(id));
+            }
+            boolean notificar = !Boolean.FALSE.equals(cuerpo.get("notificar"));
+            ResultadoCambioEstado resultado = ((Jefatura) usuario).actualizarEstadoSolicitudes(ids, estado.trim(), notificar);
+            if (!resultado.isExitoso()) {
+                return Respuesta.error(500, "No se pudo cambiar el estado: " + resultado.getError());
+            }
+            List<Object> lista = new ArrayList<>();
+            for (Solicitud s : resultado.getCambiadas()) {
+                lista.add(aMapa(s));
+            }
+            Map<String, Object> respuesta = new LinkedHashMap<>();
+            respuesta.put("solicitudes", lista);
+            respuesta.put("notificacionesFallidas", resultado.getNotificacionesFallidas());
+            return Respuesta.ok(respuesta);
+        }
+        if (segmentos.length == 2 && "POST".equals(metodo)) {
+            if (!(usuario instanceof Jefatura)) {
+                return Respuesta.error(403, "Solo Jefatura puede resolver solicitudes");
+            }
+            Jefatura jefatura = (Jefatura) usuario;
+            int id = entero(segmentos[0]);
+            boolean hecho;
+            switch (segmentos[1]) {
+                case "aprobar": hecho = jefatura.aprobarSolicitud(id); break;
+                case "rechazar": hecho = jefatura.rechazarSolicitud(id); break;
+                case "asesorar":
+                    hecho = jefatura.asesorarSolicitud(id, texto(leerCuerpo(intercambio).get("asesoramiento")));
+                    break;
+                default: return Respuesta.error(404, "Acción desconocida: " + segmentos[1]);
+            }
+            return hecho ? Respuesta.ok(aMapa(solicitudDAO.obtenerPorId(id))) : Respuesta.error(404, "Solicitud no encontrada");
+        }
+        return Respuesta.error(404, "Ruta no encontrada");
+    }
+
+    private Respuesta notificaciones(HttpExchange intercambio, Usuario usuario, String[] segmentos) throws IOException {
+        String metodo = intercambio.getRequestMethod();
+        if (segmentos.length == 0 && "GET".equals(metodo)) {
+            boolean noLeidas = Boolean.parseBoolean(parametros(intercambio).get("noLeidas"));
+            List<Notificacion> notificaciones = noLeidas
+                ? notificacionDAO.obtenerNoLeidasPorUsuario(usuario.getId())
+                : notificacionDAO.obtenerPorUsuario(usuario.getId(), MAX_NOTIFICACIONES);
+            List<Object> lista = new ArrayList<>(notificaciones.size());
+            for (Notificacion n : notificaciones) {
+                lista.add(aMapa(n));
+            }
+            Map<String, Object> cuerpo = new LinkedHashMap<>();
+            cuerpo.put("noLeidas", notificacionDAO.contarNoLeidas(usuario.getId()));
+            cuerpo.put("notificaciones", lista);
+            return Respuesta.ok(cuerpo);
+        }
+        if (segmentos.length == 0 && "POST".equals(metodo)) {
+            if (!(usuario instanceof Jefatura)) {
+                return Respuesta.error(403, "Solo Jefatura puede enviar notificaciones");
+            }
+            Map<String, Object> cuerpo = leerCuerpo(intercambio);
+            String informacion = texto(cuerpo.get("informacion"));
+            if (informacion == null || informacion.trim().isEmpty()) {
+                throw new IllegalArgumentException("La información de la notificación es requerida");
+            }
+            Notificacion notificacion = new Notificacion(informacion.trim(), entero(cuerpo.get("idUsuario")));
+            return notificacionDAO.insertar(notificacion)
+                ? new Respuesta(201, aMapa(notificacion))
+                : Respuesta.error(422, "No se pudo enviar la notificación");
+        }
+        if (segmentos.length == 1 && "leidas".equals(segmentos[0]) && "POST".equals(metodo)) {
+            Map<String, Object> cuerpo = leerCuerpo(intercambio);
+            int marcadas;
+            if (Boolean.TRUE.equals(cuerpo.get("todas"))) {
+                marcadas = notificacionDAO.marcarTodasComoLeidas(usuario.getId());
+            } else if (cuerpo.get("ids") instanceof List) {
+                List<Integer> ids = new ArrayList<>();
+                for (Object id : (List<?>) cuerpo.get("ids")) {
+                    ids.add(entero(id));
+                }
+                // El DAO solo marca las notificaciones del propio usuario
+                marcadas = notificacionDAO.marcarComoLeidas(usuario.getId(), ids);
+            } else {
+                throw new IllegalArgumentException("Indique \"ids\" o \"todas\"");
+            }
+            Map<String, Object> respuesta = new LinkedHashMap<>();
+            respuesta.put("marcadas", marcadas);
+            respuesta.put("noLeidas", notificacionDAO.contarNoLeidas(usuario.getId()));
+            return Respuesta.ok(respuesta);
+        }
+        return Respuesta.error(404, "Ruta no encontrada");
+    }
+
+    private static boolean puedeVer(Usuario usuario, int idPropietario) {
+        return usuario instanceof Jefatura || usuario.getId() == idPropietario;
+    }
+
+    // ==================== PETICIÓN ====================
+
+    /**
+     * Segmentos de la ruta después de /api/{recurso}
+     */
+    private static String[] segmentos(HttpExchange intercambio) {
+        String ruta = intercambio.getRequestURI().getPath();
+        String contexto = intercambio.getHttpContext().getPath();
+        String resto = ruta.length() > contexto.length() ? ruta.substring(contexto.length()) : "";
+        List<String> partes = new ArrayList<>();
+        for (String parte : resto.split("/")) {
+            if (!parte.isEmpty()) {
+                partes.add(parte);
+            }
+        }
+        return partes.toArray(new String[0]);
+    }
+
+    private static Map<String, String> parametros(HttpExchange intercambio) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                    URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private static Map<String, Object> leerCuerpo(HttpExchange intercambio) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = intercambio.getRequestBody()) {
+            byte[] bufer = new byte[4096];
+            int leidos;
+            while ((leidos = in.read(bufer)) != -1) {
+                if (bytes.size() + leidos > MAX_CUERPO_BYTES) {
+                    throw new IllegalArgumentException("Cuerpo demasiado grande");
+                }
+                bytes.write(bufer, 0, leidos);
+            }
+        }
+        if (bytes.size() == 0) {
+            return new HashMap<>();
+        }
+        return Json.leerObjeto(bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    private static int entero(Object valor) {
+        if (valor instanceof Number) {
+            return ((Number) valor).intValue();
+        }
+        if (valor instanceof String) {
+            try {
+                return Integer.parseInt((String) valor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Se esperaba un número: " + valor);
+            }
+        }
+        throw new IllegalArgumentException("Falta un valor numérico");
+    }
+
+    private static String texto(Object valor) {
+        return valor == null ? null : valor.toString();
+    }
+
+    // ==================== CONVERSIÓN A JSON ====================
+
+    private static Map<String, Object> aMapa(Proyecto p) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", p.getId());
+        m.put("nombre", p.getNombre());
+        m.put("codigo", p.getCodigo());
+        m.put("descripcion", p.getDescripcion());
+        m.put("tipo", p.getTipo());
+        m.put("fechaInicio", p.getFechaInicio());
+        m.put("fechaFin", p.getFechaFin());
+        m.put("numeroDeAyudantes", p.getNumeroDeDayudantesDelProyecto());
+        m.put("idDirector", p.getIdUsuario());
+        return m;
+    }
+
+    private static Map<String, Object> aMapa(Formulario f) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", f.getId());
+        m.put("idProyecto", f.getIdProyecto());
+        m.put("numeroDeAyudantes", f.getNumeroDeAyudantes());
+        m.put("nombre", f.getNombreDelAyudante());
+        m.put("apellido", f.getApellidoDelAyudante());
+        m.put("cedula", f.getCedula());
+        m.put("facultad", f.getFacultad());
+        m.put("estado", f.getEstado());
+        return m;
+    }
+
+    private static Map<String, Object> aMapa(Solicitud s) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", s.getIdSolicitud());
+        m.put("fecha", s.getFecha());
+        m.put("asunto", s.getAsunto());
+        m.put("estado", s.getEstadoEmisionDest());
+        m.put("idUsuario", s.getIdUsuario());
+        m.put("idDirector", s.getIdDirector());
+        m.put("tipo", s.getTipo());
+        m.put("codigoPermiso", s.getCodigoPermiso());
+        m.put("tipoDocumento", s.getTipoDocumento());
+        return m;
+    }
+
+    private static Map<String, Object> aMapa(Notificacion n) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", n.getId());
+        m.put("fecha", n.getFecha());
+        m.put("informacion", n.getInformacion());
+        m.put("leida", n.isLeida());
+        return m;
+    }
+}
@@ -1,10 +1,17 @@
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 import java.awt.*;
+import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Vector;
 
 /**
  * Ventana principal del Sistema de Gestión Académica
@@ -12,6 +19,7 @@ import java.util.List;
  */
 public class SistemaGestionWindow extends JFrame {
     private JTabbedPane tabbedPane;
+    private JPanel panelNotificaciones;
     
     // Usuario autenticado
     private Usuario usuarioActual;
@@ -24,6 +32,27 @@ public class SistemaGestionWindow extends JFrame {
     private SolicitudDAO solicitudDAO;
     private NotificacionDAO notificacionDAO;
     
+    // Pausa al escribir antes de lanzar la búsqueda
+    private static final int ESPERA_BUSQUEDA_MS = 150;
+    private static final String TITULO_NOTIFICACIONES = "🔔 Notificaciones";
+    // Sin campos requeridos: en el formulario lo que falte se completa a mano
+    private static final PlantillaExtraccion PLANTILLA_PROYECTO = PlantillaExtraccion.proyecto().sinRequeridos();
+    // Notificaciones recientes que muestra la pestaña (el resto queda para la retención)
+    private static final int MAX_NOTIFICACIONES = 200;
+    
+    // Cargas en segundo plano (una por pestaña, cada una con su indicador)
+    private final CargaAsincrona cargaUsuarios = new CargaAsincrona();
+    private final CargaAsincrona cargaProyectosJefatura = new CargaAsincrona();
+    private final CargaAsincrona cargaProyectos = new CargaAsincrona();
+    private final CargaAsincrona cargaFormularios = new CargaAsincrona();
+    private final CargaAsincrona cargaSolicitudesJefatura = new CargaAsincrona();
+    private final CargaAsincrona cargaSolicitudesDirector = new CargaAsincrona();
+    private final CargaAsincrona cargaSolicitudesEnviadas = new CargaAsincrona();
+    private final CargaAsincrona cargaNotificaciones = new CargaAsincrona();
+    
+    // Suscripciones de las tablas a los cambios publicados por los DAO
+    private final List<BusEventos.Suscripcion> suscripciones = new ArrayList<>();
+    
     // Constructor original para compatibilidad
     public SistemaGestionWindow() {
         this(null, "Usuario");
@@ -35,6 +64,32 @@ public class SistemaGestionWindow extends JFrame {
         this.rolActual = rolActual;
         inicializarDAOs();
         inicializarComponentes();
+        // Cambios de otros clientes sobre el mismo archivo: llegan a las tablas por BusEventos
+        DatabaseConnection.getInstance().iniciarVigilanciaCambios();
+        DatabaseConnection.getInstance().iniciarDepuracionNotificaciones();
+    }
+    
+    /**
+     * Las tablas corrigen solo las filas que cambian (ver BusEventos)
+     */
+    private void suscribir(EventoEntidad.Tipo tipo, ModeloTablaPaginado<?> modelo) {
+        suscripciones.add(BusEventos.getInstance().suscribir(tipo, modelo::aplicarCambios));
+    }
+    
+    /**
+     * Para las tablas pequeñas que se cargan completas: cualquier cambio las recarga
+     */
+    private void suscribirRecarga(EventoEntidad.Tipo tipo, Runnable recargar) {
+        suscripciones.add(BusEventos.getInstance().suscribir(tipo, eventos -> recargar.run()));
+    }
+    
+    @Override
+    public void dispose() {
+        for (BusEventos.Suscripcion suscripcion : suscripciones) {
+            suscripcion.cancelar();
+        }
+        suscripciones.clear();
+        super.dispose();
     }
     
     private void inicializarDAOs() {
@@ -81,7 +136,9 @@ public class SistemaGestionWindow extends JFrame {
             tabbedPane.addTab("📝 Formularios", crearPanelFormularios());
         }
         
-        tabbedPane.addTab("🔔 Notificaciones", crearPanelNotificaciones());
+        panelNotificaciones = crearPanelNotificaciones();
+        tabbedPane.addTab(TITULO_NOTIFICACIONES, panelNotificaciones);
+        actualizarContadorNoLeidas();
         
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.add(topPanel, BorderLayout.NORTH);
@@ -220,16 +277,13 @@ public class SistemaGestionWindow extends JFrame {
         
         // Tabla
         String[] columnas = {"ID", "Nombre", "Apellido", "Correo"};
-        DefaultTableModel modelo = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        ModeloTablaFilas modelo = new ModeloTablaFilas(columnas, cargaUsuarios);
+        suscribir(EventoEntidad.Tipo.USUARIO, modelo);
         
         JTable tabla = new JTable(modelo);
         JScrollPane scrollPane = new JScrollPane(tabla);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Lista de Usuarios"));
+        modelo.instalar(scrollPane);
         
         // Eventos
         btnAgregar.addActionListener(e -> {
@@ -255,7 +309,6 @@ public class SistemaGestionWindow extends JFrame {
             Usuario usuario = new Usuario(nombre, apellido, correo, password);
             if (usuarioDAO.insertar(usuario, tipo)) {
                 JOptionPane.showMessageDialog(panel, "✓ Usuario agregado", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                cargarUsuarios(modelo);
                 txtNombre.setText("");
                 txtApellido.setText("");
                 txtCorreo.setText("");
@@ -277,7 +330,6 @@ public class SistemaGestionWindow extends JFrame {
                 int id = (int) modelo.getValueAt(row, 0);
                 if (usuarioDAO.eliminar(id)) {
                     JOptionPane.showMessageDialog(panel, "Usuario eliminado", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    cargarUsuarios(modelo);
                 }
             } else {
                 JOptionPane.showMessageDialog(panel, "Seleccione un usuario", "Error", JOptionPane.WARNING_MESSAGE);
@@ -293,6 +345,7 @@ public class SistemaGestionWindow extends JFrame {
         
         panel.add(formPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(cargaUsuarios.getIndicador(), BorderLayout.SOUTH);
         
         // Cargar datos iniciales
         cargarUsuarios(modelo);
@@ -300,12 +353,36 @@ public class SistemaGestionWindow extends JFrame {
         return panel;
     }
     
-    private void cargarUsuarios(DefaultTableModel modelo) {
-        modelo.setRowCount(0);
-        List<Usuario> usuarios = usuarioDAO.obtenerTodos();
-        for (Usuario u : usuarios) {
-            modelo.addRow(new Object[]{u.getId(), u.getNombre(), u.getApellido(), u.getCorreo()});
+    private void cargarUsuarios(ModeloTablaFilas modelo) {
+        modelo.setCargadorFila(id -> {
+            UsuarioVista u = usuarioDAO.obtenerVistaPorId(id);
+            return u != null ? filaUsuario(u) : null;
+        });
+        modelo.setCargador((desde, limite) -> {
+            List<Object[]> filas = new ArrayList<>();
+            for (UsuarioVista u : usuarioDAO.obtenerPaginaVistas(desde, limite)) {
+                filas.add(filaUsuario(u));
+            }
+            return filas;
+        });
+    }
+    
+    private Object[] filaUsuario(UsuarioVista u) {
+        return new Object[]{u.getId(), u.getNombre(), u.getApellido(), u.getCorreo()};
+    }
+    
+    /**
+     * Reemplaza el contenido del modelo con una sola notificación a la tabla
+     * (addRow notifica fila por fila)
+     */
+    private void reemplazarFilas(DefaultTableModel modelo, List<Object[]> filas) {
+        @SuppressWarnings("unchecked")
+        Vector<Vector<Object>> datos = (Vector<Vector<Object>>) (Vector<?>) modelo.getDataVector();
+        datos.clear();
+        for (Object[] fila : filas) {
+            datos.add(new Vector<>(Arrays.asList(fila)));
         }
+        modelo.fireTableDataChanged();
     }
     
     //  PANEL PROYECTOS JEFATURA 
@@ -316,16 +393,17 @@ public class SistemaGestionWindow extends JFrame {
         
         // Tabla de proyectos con directores
         String[] columnas = {"ID", "Nombre Proyecto", "Código", "Descripción", "Tipo", "Inicio", "Fin", "Ayudantes", "Director Responsable"};
-        DefaultTableModel modelo = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        ModeloTablaFilas modelo = new ModeloTablaFilas(columnas, cargaProyectosJefatura);
+        modelo.setCargadorFila(id -> {
+            ProyectoVista p = proyectoDAO.obtenerVistaPorId(id);
+            return p != null ? filasProyectosJefatura(List.of(p)).get(0) : null;
+        });
+        suscribir(EventoEntidad.Tipo.PROYECTO, modelo);
         
         JTable tabla = new JTable(modelo);
         JScrollPane scrollPane = new JScrollPane(tabla);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Todos los Proyectos y sus Directores"));
+        modelo.instalar(scrollPane);
         
         // Panel de búsqueda
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -342,24 +420,40 @@ public class SistemaGestionWindow extends JFrame {
         searchPanel.add(btnMostrarTodos);
         searchPanel.add(btnActualizar);
         
+        // Búsqueda mientras se escribe: se espera una pausa al teclear antes de consultar.
+        // Cada búsqueda nueva cancela la anterior (también la consulta en SQLite).
+        Timer temporizadorBusqueda = new Timer(ESPERA_BUSQUEDA_MS, e -> buscarProyectosJefatura(modelo, txtBuscar.getText()));
+        temporizadorBusqueda.setRepeats(false);
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+        });
+        
         // Eventos
         btnBuscar.addActionListener(e -> {
-            String texto = txtBuscar.getText().trim();
-            if (!texto.isEmpty()) {
-                modelo.setRowCount(0);
-                List<Proyecto> proyectos = proyectoDAO.buscar(texto);
-                for (Proyecto p : proyectos) {
-                    String fechaInicioStr = p.getFechaInicio() != null ? p.getFechaInicio().toString() : "";
-                    String fechaFinStr = p.getFechaFin() != null ? p.getFechaFin().toString() : "";
-                    String nombreUsuario = proyectoDAO.obtenerNombreUsuario(p.getIdUsuario());
-                    modelo.addRow(new Object[]{p.getId(), p.getNombre(), p.getCodigo(), p.getDescripcion(), 
-                        p.getTipo(), fechaInicioStr, fechaFinStr, p.getNumeroDeDayudantesDelProyecto(), nombreUsuario});
-                }
-            }
+            temporizadorBusqueda.stop();
+            buscarProyectosJefatura(modelo, txtBuscar.getText());
+        });
+        txtBuscar.addActionListener(e -> {
+            temporizadorBusqueda.stop();
+            buscarProyectosJefatura(modelo, txtBuscar.getText());
         });
         
         btnMostrarTodos.addActionListener(e -> {
             txtBuscar.setText("");
+            temporizadorBusqueda.stop();
             cargarTodosProyectosJefatura(modelo);
         });
         
@@ -367,6 +461,7 @@ public class SistemaGestionWindow extends JFrame {
         
         panel.add(searchPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(cargaProyectosJefatura.getIndicador(), BorderLayout.SOUTH);
         
         // Cargar datos iniciales
         cargarTodosProyectosJefatura(modelo);
@@ -374,16 +469,37 @@ public class SistemaGestionWindow extends JFrame {
         return panel;
     }
     
-    private void cargarTodosProyectosJefatura(DefaultTableModel modelo) {
-        modelo.setRowCount(0);
-        List<Proyecto> proyectos = proyectoDAO.obtenerTodos();
-        for (Proyecto p : proyectos) {
+    private void cargarTodosProyectosJefatura(ModeloTablaFilas modelo) {
+        modelo.setCargador((desde, limite) ->
+            filasProyectosJefatura(proyectoDAO.obtenerPaginaVistas(desde, limite)));
+    }
+    
+    /**
+     * Búsqueda de texto completo; los resultados llegan por páginas a medida que se desplaza la tabla
+     */
+    private void buscarProyectosJefatura(ModeloTablaFilas modelo, String texto) {
+        String consulta = texto.trim();
+        if (consulta.isEmpty()) {
+            cargarTodosProyectosJefatura(modelo);
+            return;
+        }
+        // Resultados por relevancia: se pagina por desplazamiento
+        modelo.setCargadorDesplazamiento((limite, desplazamiento) ->
+            filasProyectosJefatura(proyectoDAO.buscarVistas(consulta, limite, desplazamiento)));
+    }
+    
+    /**
+     * Convierte proyectos en filas de tabla (el director ya viene en cada fila)
+     */
+    private List<Object[]> filasProyectosJefatura(List<ProyectoVista> proyectos) {
+        List<Object[]> filas = new ArrayList<>();
+        for (ProyectoVista p : proyectos) {
             String fechaInicioStr = p.getFechaInicio() != null ? p.getFechaInicio().toString() : "";
             String fechaFinStr = p.getFechaFin() != null ? p.getFechaFin().toString() : "";
-            String nombreUsuario = proyectoDAO.obtenerNombreUsuario(p.getIdUsuario());
-            modelo.addRow(new Object[]{p.getId(), p.getNombre(), p.getCodigo(), p.getDescripcion(), 
-                p.getTipo(), fechaInicioStr, fechaFinStr, p.getNumeroDeDayudantesDelProyecto(), nombreUsuario});
+            filas.add(new Object[]{p.getId(), p.getNombre(), p.getCodigo(), p.getDescripcion(), 
+                p.getTipo(), fechaInicioStr, fechaFinStr, p.getNumAyudantes(), p.getNombreDirector()});
         }
+        return filas;
     }
     
     // ======================== PANEL PROYECTOS ========================
@@ -467,26 +583,75 @@ public class SistemaGestionWindow extends JFrame {
         
         // Tabla
         String[] columnas = {"ID", "Nombre", "Código", "Descripción", "Tipo", "Inicio", "Fin", "Ayudantes", "Creado por"};
-        DefaultTableModel modelo = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        ModeloTablaFilas modelo = new ModeloTablaFilas(columnas, cargaProyectos);
+        suscribir(EventoEntidad.Tipo.PROYECTO, modelo);
         
         JTable tabla = new JTable(modelo);
         JScrollPane scrollPane = new JScrollPane(tabla);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Lista de Proyectos"));
+        modelo.instalar(scrollPane);
         
-        // Evento para botón de subir PDF
+        // Evento para botón de subir PDF: una sola lectura del documento llena todo el formulario
         btnSubirPDF.addActionListener(e -> {
-            int numeroAyudantes = ExtractorPDF.extraerNumeroDeAyudanteDePDF(this);
-            if (numeroAyudantes > 0) {
-                spnAyudantes.setValue(numeroAyudantes);
-                JOptionPane.showMessageDialog(panel, "✓ Número de ayudantes extraído: " + numeroAyudantes, "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(panel, "No se pudo extraer el número de ayudantes del PDF", "Error", JOptionPane.WARNING_MESSAGE);
+            File pdf = ExtractorPDF.seleccionarPDF(this, "Seleccionar PDF del proyecto");
+            if (pdf == null) {
+                return;
             }
+            btnSubirPDF.setEnabled(false);
+            CargaAsincrona.getEjecutor().execute(() -> {
+                Map<String, String> valores;
+                Proyecto extraido;
+                String error = null;
+                try {
+                    valores = ExtractorPDF.extraerValores(pdf, PLANTILLA_PROYECTO);
+                    // Los campos que falten se completan a mano: se arma el proyecto sin exigirlos
+                    extraido = PLANTILLA_PROYECTO.crearProyecto(valores);
+                } catch (Exception ex) {
+                    // PDFBox puede lanzar excepciones no verificadas con archivos dañados:
+                    // el botón debe volver a habilitarse igual
+                    valores = null;
+                    extraido = null;
+                    error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+                }
+                Map<String, String> encontrados = valores;
+                Proyecto proyecto = extraido;
+                String mensajeError = error;
+                SwingUtilities.invokeLater(() -> {
+                    btnSubirPDF.setEnabled(true);
+                    if (proyecto == null) {
+                        JOptionPane.showMessageDialog(panel, "No se pudo extraer información del PDF: " + mensajeError, "Error", JOptionPane.WARNING_MESSAGE);
+                        return;
+                    }
+                    SimpleDateFormat formato = new SimpleDateFormat("yyyy-MM-dd");
+                    if (encontrados.containsKey("nombre")) {
+                        txtNombre.setText(proyecto.getNombre());
+                    }
+                    if (encontrados.containsKey("codigo")) {
+                        txtCodigo.setText(proyecto.getCodigo());
+                    }
+                    if (encontrados.containsKey("descripcion")) {
+                        txtDescripcion.setText(proyecto.getDescripcion());
+                    }
+                    if (encontrados.containsKey("tipo")) {
+                        txtTipo.setText(proyecto.getTipo());
+                    }
+                    if (proyecto.getFechaInicio() != null) {
+                        txtFechaInicio.setText(formato.format(proyecto.getFechaInicio()));
+                    }
+                    if (proyecto.getFechaFin() != null) {
+                        txtFechaFin.setText(formato.format(proyecto.getFechaFin()));
+                    }
+                    if (encontrados.containsKey("ayudantes")) {
+                        spnAyudantes.setValue(proyecto.getNumeroDeDayudantesDelProyecto());
+                    }
+                    
+                    if (encontrados.isEmpty()) {
+                        JOptionPane.showMessageDialog(panel, "El PDF no contiene campos reconocibles", "Error", JOptionPane.WARNING_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(panel, "✓ Campos extraídos: " + String.join(", ", encontrados.keySet()), "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    }
+                });
+            });
         });
         
         // Eventos
@@ -533,7 +698,6 @@ public class SistemaGestionWindow extends JFrame {
             
             if (proyectoDAO.insertar(proyecto)) {
                 JOptionPane.showMessageDialog(panel, "✓ Proyecto agregado exitosamente y asociado a " + usuarioActual.getNombre(), "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                cargarProyectos(modelo);
                 limpiarCamposProyecto(txtNombre, txtCodigo, txtDescripcion, txtTipo, txtFechaInicio, txtFechaFin);
             }
         });
@@ -544,7 +708,6 @@ public class SistemaGestionWindow extends JFrame {
                 int id = (int) modelo.getValueAt(row, 0);
                 if (proyectoDAO.eliminar(id)) {
                     JOptionPane.showMessageDialog(panel, "✓ Proyecto eliminado", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    cargarProyectos(modelo);
                 }
             } else {
                 JOptionPane.showMessageDialog(panel, "Seleccione un proyecto", "Error", JOptionPane.WARNING_MESSAGE);
@@ -557,6 +720,7 @@ public class SistemaGestionWindow extends JFrame {
         
         panel.add(formPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(cargaProyectos.getIndicador(), BorderLayout.SOUTH);
         
         cargarProyectos(modelo);
         
@@ -574,26 +738,47 @@ public class SistemaGestionWindow extends JFrame {
         txtFechaFin.setText("YYYY-MM-DD");
     }
     
-    private void cargarProyectos(DefaultTableModel modelo) {
-        modelo.setRowCount(0);
-        List<Proyecto> proyectos;
-        
-        // Si es Director, mostrar solo sus proyectos
-        if ("Director".equals(rolActual) && usuarioActual != null) {
-            proyectos = proyectoDAO.obtenerPorUsuario(usuarioActual.getId());
-        } else {
-            // Para otros roles (o sin autenticación), mostrar todos
-            proyectos = proyectoDAO.obtenerTodos();
-        }
-        
-        for (Proyecto p : proyectos) {
-            String fechaInicioStr = p.getFechaInicio() != null ? p.getFechaInicio().toString() : "";
-            String fechaFinStr = p.getFechaFin() != null ? p.getFechaFin().toString() : "";
-            System.out.println("Proyecto: " + p.getNombre() + " - ID Usuario: " + p.getIdUsuario());
-            String nombreUsuario = proyectoDAO.obtenerNombreUsuario(p.getIdUsuario());
-            System.out.println("Nombre obtenido: " + nombreUsuario);
-            modelo.addRow(new Object[]{p.getId(), p.getNombre(), p.getCodigo(), p.getDescripcion(), p.getTipo(), fechaInicioStr, fechaFinStr, p.getNumeroDeDayudantesDelProyecto(), nombreUsuario});
-        }
+    private void cargarProyectos(ModeloTablaFilas modelo) {
+        modelo.setCargadorFila(id -> {
+            Proyecto p = proyectoDAO.obtenerPorId(id);
+            // Un Director solo ve sus proyectos
+            if (p == null || ("Director".equals(rolActual) && usuarioActual != null
+                    && p.getIdUsuario() != usuarioActual.getId())) {
+                return null;
+            }
+            return filaProyecto(p);
+        });
+        modelo.setCargador((desde, limite) -> {
+            List<Proyecto> proyectos;
+            
+            // Si es Director, mostrar solo sus proyectos
+            if ("Director".equals(rolActual) && usuarioActual != null) {
+                proyectos = proyectoDAO.obtenerPaginaPorUsuario(usuarioActual.getId(), desde, limite);
+            } else {
+                // Para otros roles (o sin autenticación), mostrar todos
+                proyectos = proyectoDAO.obtenerPagina(desde, limite);
+            }
+            
+            // Una sola consulta para los directores de la página que no están en caché
+            List<Integer> idsDirectores = new ArrayList<>();
+            for (Proyecto p : proyectos) {
+                idsDirectores.add(p.getIdUsuario());
+            }
+            usuarioDAO.precargarNombres(idsDirectores);
+            
+            List<Object[]> filas = new ArrayList<>();
+            for (Proyecto p : proyectos) {
+                filas.add(filaProyecto(p));
+            }
+            return filas;
+        });
+    }
+    
+    private Object[] filaProyecto(Proyecto p) {
+        String fechaInicioStr = p.getFechaInicio() != null ? p.getFechaInicio().toString() : "";
+        String fechaFinStr = p.getFechaFin() != null ? p.getFechaFin().toString() : "";
+        String nombreUsuario = proyectoDAO.obtenerNombreUsuario(p.getIdUsuario());
+        return new Object[]{p.getId(), p.getNombre(), p.getCodigo(), p.getDescripcion(), p.getTipo(), fechaInicioStr, fechaFinStr, p.getNumeroDeDayudantesDelProyecto(), nombreUsuario};
     }
     
     //  PANEL FORMULARIOS 
@@ -628,42 +813,37 @@ public class SistemaGestionWindow extends JFrame {
                     return;
                 }
 
-                DefaultTableModel modelo = (DefaultTableModel) tabla.getModel();
-                int id = (int) modelo.getValueAt(filaSeleccionada, 0);
+                ModeloTablaFormularios modelo = (ModeloTablaFormularios) tabla.getModel();
+                int id = modelo.getFila(filaSeleccionada).getId();
                 String nuevoEstado = (String) cbEstado.getSelectedItem();
 
                 Formulario formulario = formularioDAO.obtenerPorId(id);
                 if (formulario != null) {
                     formulario.setEstado(nuevoEstado);
                     if (formularioDAO.actualizar(formulario)) {
-                        // Verificar y notificar si faltan ayudantes
-                        verificarFormulariosDirectores();
+                        // Verificar y notificar si faltan ayudantes (solo en el proyecto del formulario)
+                        verificarFormulariosProyecto(formulario.getIdProyecto());
                         JOptionPane.showMessageDialog(panel, "Estado actualizado exitosamente");
-                        cargarFormulariosEnTabla(panel);
                     }
                 }
             });
         }
         
         // Tabla - siempre con todas las columnas; ocultamos algunas en la vista
-        String[] columnas = new String[]{"ID", "N° Ayudantes", "Nombre", "Apellido", "Cédula", "Facultad", "Estado", "IdProyecto", "Proyecto", "Director"};
-        DefaultTableModel modelo = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        ModeloTablaFormularios modelo = new ModeloTablaFormularios(cargaFormularios);
+        suscribir(EventoEntidad.Tipo.FORMULARIO, modelo);
         
         JTable tabla = new JTable(modelo);
         JScrollPane scrollPane = new JScrollPane(tabla);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Lista de Formularios"));
+        modelo.instalar(scrollPane);
         
         // Ocultar columnas en la vista
-        ocultarColumna(tabla, 0); // Ocultar ID
+        ocultarColumna(tabla, ModeloTablaFormularios.COL_ID); // Ocultar ID
         ocultarColumna(tabla, 1); // Ocultar N° Ayudantes
-        ocultarColumna(tabla, 7); // Ocultar IdProyecto
+        ocultarColumna(tabla, ModeloTablaFormularios.COL_ID_PROYECTO); // Ocultar IdProyecto
         if (!puedeManejarUsuarios()) { // Director no ve Estado
-            ocultarColumna(tabla, 6);
+            ocultarColumna(tabla, ModeloTablaFormularios.COL_ESTADO);
         }
         
         // Listener para selección (solo para Jefatura)
@@ -671,12 +851,13 @@ public class SistemaGestionWindow extends JFrame {
             tabla.getSelectionModel().addListSelectionListener(e -> {
                 if (!e.getValueIsAdjusting() && tabla.getSelectedRow() != -1) {
                     int fila = tabla.getSelectedRow();
-                    cbEstado.setSelectedItem(modelo.getValueAt(fila, 6));
+                    cbEstado.setSelectedItem(modelo.getFila(fila).getEstado());
                 }
             });
         }
         
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(cargaFormularios.getIndicador(), BorderLayout.SOUTH);
         
         cargarFormularios(modelo);
         
@@ -687,7 +868,7 @@ public class SistemaGestionWindow extends JFrame {
         // Buscar la tabla en el panel
         JTable tabla = obtenerTablaDesdePanel(panel);
         if (tabla != null) {
-            DefaultTableModel modelo = (DefaultTableModel) tabla.getModel();
+            ModeloTablaFormularios modelo = (ModeloTablaFormularios) tabla.getModel();
             cargarFormularios(modelo);
         }
     }
@@ -704,49 +885,22 @@ public class SistemaGestionWindow extends JFrame {
         return null;
     }
 
-    private void cargarFormularios(DefaultTableModel modelo) {
-        modelo.setRowCount(0);
-        List<Formulario> formularios;
-        
-        // Si es Director, mostrar solo formularios de sus proyectos
-        if ("Director".equals(rolActual) && usuarioActual != null) {
-            formularios = formularioDAO.obtenerFormulariosPorUsuario(usuarioActual.getId());
-        } else {
-            // Para otros roles (Jefatura), mostrar todos los formularios
-            formularios = formularioDAO.obtenerTodos();
-        }
-        
-        for (Formulario f : formularios) {
-            // Obtener nombre del proyecto y director
-            String nombreProyecto = "";
-            String nombreDirector = "";
-            
-            if (f.getIdProyecto() > 0) {
-                Proyecto proyecto = proyectoDAO.obtenerPorId(f.getIdProyecto());
-                if (proyecto != null) {
-                    nombreProyecto = proyecto.getNombre();
-                    // Obtener nombre del director
-                    Usuario director = usuarioDAO.obtenerPorId(proyecto.getIdUsuario());
-                    if (director != null) {
-                        nombreDirector = director.getNombre();
-                    }
-                }
+    private void cargarFormularios(ModeloTablaFormularios modelo) {
+        // Proyecto y director ya vienen en cada fila (una sola consulta con JOIN)
+        modelo.setCargadorFila(id -> {
+            if ("Director".equals(rolActual) && usuarioActual != null) {
+                return formularioDAO.obtenerVistaPorIdYUsuario(id, usuarioActual.getId());
             }
-            
-            // Siempre cargamos todas las columnas; la vista oculta algunas
-            modelo.addRow(new Object[]{
-                f.getId(), 
-                f.getNumeroDeAyudantes(), 
-                f.getNombreDelAyudante(), 
-                f.getApellidoDelAyudante(), 
-                f.getCedula(), 
-                f.getFacultad(), 
-                f.getEstado(),
-                f.getIdProyecto(),
-                nombreProyecto,
-                nombreDirector
-            });
-        }
+            return formularioDAO.obtenerVistaPorId(id);
+        });
+        modelo.setCargador((desde, limite) -> {
+            // Si es Director, mostrar solo formularios de sus proyectos
+            if ("Director".equals(rolActual) && usuarioActual != null) {
+                return formularioDAO.obtenerPaginaVistasPorUsuario(usuarioActual.getId(), desde, limite);
+            }
+            // Para otros roles (Jefatura), mostrar todos los formularios
+            return formularioDAO.obtenerPaginaVistas(desde, limite);
+        });
     }
     
 
@@ -770,16 +924,14 @@ public class SistemaGestionWindow extends JFrame {
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         String[] columnas = {"ID", "Fecha", "Asunto", "Tipo", "Detalle", "Estado", "Solicitante", "IdUsuario"};
-        DefaultTableModel modelo = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        ModeloTablaFilas modelo = new ModeloTablaFilas(columnas, cargaSolicitudesJefatura);
+        suscribir(EventoEntidad.Tipo.SOLICITUD, modelo);
 
         JTable tabla = new JTable(modelo);
+        tabla.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         JScrollPane scrollPane = new JScrollPane(tabla);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Solicitudes"));
+        modelo.instalar(scrollPane);
 
         ocultarColumna(tabla, 7); // IdUsuario oculto
 
@@ -798,6 +950,9 @@ public class SistemaGestionWindow extends JFrame {
         accionesPanel.add(cbEstado, gbc);
         gbc.gridx = 2; gbc.gridy = 0;
         accionesPanel.add(btnActualizarEstado, gbc);
+        JCheckBox chkNotificar = new JCheckBox("Notificar a los solicitantes", true);
+        gbc.gridx = 3; gbc.gridy = 0;
+        accionesPanel.add(chkNotificar, gbc);
 
         JLabel lblMensaje = new JLabel("Notificación personalizada:");
         JTextArea txtMensaje = new JTextArea(3, 25);
@@ -817,28 +972,52 @@ public class SistemaGestionWindow extends JFrame {
         gbc.gridy = 4;
         accionesPanel.add(btnActualizarSolicitudes, gbc);
 
+        // Todas las filas seleccionadas cambian con un UPDATE por bloque y un lote de notificaciones
         btnActualizarEstado.addActionListener(e -> {
-            int fila = tabla.getSelectedRow();
-            if (fila == -1) {
-                JOptionPane.showMessageDialog(panel, "Seleccione una solicitud", "Advertencia", JOptionPane.WARNING_MESSAGE);
+            int[] filas = tabla.getSelectedRows();
+            if (filas.length == 0) {
+                JOptionPane.showMessageDialog(panel, "Seleccione una o más solicitudes", "Advertencia", JOptionPane.WARNING_MESSAGE);
                 return;
             }
 
-            int id = (int) modelo.getValueAt(fila, 0);
+            List<Integer> ids = new ArrayList<>(filas.length);
+            for (int fila : filas) {
+                ids.add((Integer) modelo.getValueAt(fila, 0));
+            }
             String nuevoEstado = (String) cbEstado.getSelectedItem();
+            boolean notificar = chkNotificar.isSelected();
 
-            if (solicitudDAO.actualizarEstado(id, nuevoEstado)) {
-                JOptionPane.showMessageDialog(panel, "Estado actualizado", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                cargarSolicitudesJefatura(modelo);
-            } else {
-                JOptionPane.showMessageDialog(panel, "No se pudo actualizar el estado", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            btnActualizarEstado.setEnabled(false);
+            CargaAsincrona.getEjecutor().execute(() -> {
+                ResultadoCambioEstado resultado = JefaturaService.getInstance()
+                    .actualizarEstadoSolicitudes(ids, nuevoEstado, notificar);
+                int cambiadas = resultado.getCambiadas().size();
+                SwingUtilities.invokeLater(() -> {
+                    btnActualizarEstado.setEnabled(true);
+                    if (!resultado.isExitoso()) {
+                        JOptionPane.showMessageDialog(panel,
+                            "No se pudo cambiar el estado; ninguna solicitud cambió: " + resultado.getError(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    } else if (resultado.getNotificacionesFallidas() > 0) {
+                        JOptionPane.showMessageDialog(panel,
+                            cambiadas + " de " + ids.size() + " solicitudes pasaron a " + nuevoEstado + ", pero " +
+                                resultado.getNotificacionesFallidas() + " solicitantes no pudieron ser notificados",
+                            "Advertencia", JOptionPane.WARNING_MESSAGE);
+                    } else if (cambiadas > 0) {
+                        JOptionPane.showMessageDialog(panel,
+                            cambiadas + " de " + ids.size() + " solicitudes pasaron a " + nuevoEstado,
+                            "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(panel, "Ninguna solicitud cambió de estado", "Información", JOptionPane.INFORMATION_MESSAGE);
+                    }
+                });
+            });
         });
 
         btnEnviarNotificacion.addActionListener(e -> {
-            int fila = tabla.getSelectedRow();
-            if (fila == -1) {
-                JOptionPane.showMessageDialog(panel, "Seleccione una solicitud", "Advertencia", JOptionPane.WARNING_MESSAGE);
+            int[] filas = tabla.getSelectedRows();
+            if (filas.length == 0) {
+                JOptionPane.showMessageDialog(panel, "Seleccione una o más solicitudes", "Advertencia", JOptionPane.WARNING_MESSAGE);
                 return;
             }
 
@@ -848,10 +1027,20 @@ public class SistemaGestionWindow extends JFrame {
                 return;
             }
 
-            int idUsuario = (int) modelo.getValueAt(fila, 7);
-            Notificacion notificacion = new Notificacion(mensaje, idUsuario);
-            if (notificacionDAO.insertar(notificacion)) {
-                JOptionPane.showMessageDialog(panel, "Notificación enviada", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+            // Un solo aviso por solicitante aunque tenga varias solicitudes seleccionadas
+            List<Notificacion> notificaciones = new ArrayList<>();
+            java.util.Set<Integer> destinatarios = new java.util.HashSet<>();
+            for (int fila : filas) {
+                int idUsuario = (int) modelo.getValueAt(fila, 7);
+                if (destinatarios.add(idUsuario)) {
+                    notificaciones.add(new Notificacion(mensaje, idUsuario));
+                }
+            }
+            ResultadoLote resultado = notificacionDAO.insertarLote(notificaciones);
+            if (resultado.getInsertados() > 0) {
+                JOptionPane.showMessageDialog(panel,
+                    resultado.getInsertados() == 1 ? "Notificación enviada" : resultado.getInsertados() + " notificaciones enviadas",
+                    "Éxito", JOptionPane.INFORMATION_MESSAGE);
                 txtMensaje.setText("");
             } else {
                 JOptionPane.showMessageDialog(panel, "No se pudo enviar la notificación", "Error", JOptionPane.ERROR_MESSAGE);
@@ -869,42 +1058,56 @@ public class SistemaGestionWindow extends JFrame {
 
         panel.add(accionesPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(cargaSolicitudesJefatura.getIndicador(), BorderLayout.SOUTH);
 
         cargarSolicitudesJefatura(modelo);
         return panel;
     }
 
-    private void cargarSolicitudesJefatura(DefaultTableModel modelo) {
-        modelo.setRowCount(0);
-        List<Solicitud> solicitudes = solicitudDAO.obtenerTodos();
-
-        for (Solicitud s : solicitudes) {
-            String detalle = "";
-            if ("Permiso".equals(s.getTipo()) && s.getCodigoPermiso() != null) {
-                detalle = s.getCodigoPermiso();
-            } else if ("Documento".equals(s.getTipo()) && s.getTipoDocumento() != null) {
-                detalle = s.getTipoDocumento();
+    private void cargarSolicitudesJefatura(ModeloTablaFilas modelo) {
+        modelo.setCargadorFila(id -> {
+            Solicitud s = solicitudDAO.obtenerPorId(id);
+            return s != null ? filaSolicitudJefatura(s) : null;
+        });
+        modelo.setCargador((desde, limite) -> {
+            List<Solicitud> solicitudes = solicitudDAO.obtenerPagina(desde, limite);
+            List<Integer> idsSolicitantes = new ArrayList<>();
+            for (Solicitud s : solicitudes) {
+                idsSolicitantes.add(s.getIdUsuario());
             }
-
-            String solicitante = "";
-            if (s.getIdUsuario() > 0) {
-                Usuario u = usuarioDAO.obtenerPorId(s.getIdUsuario());
-                if (u != null) {
-                    solicitante = u.getNombre() + " " + u.getApellido();
-                }
+            usuarioDAO.precargarNombres(idsSolicitantes);
+            
+            List<Object[]> filas = new ArrayList<>();
+            for (Solicitud s : solicitudes) {
+                filas.add(filaSolicitudJefatura(s));
             }
+            return filas;
+        });
+    }
+    
+    private Object[] filaSolicitudJefatura(Solicitud s) {
+        String detalle = "";
+        if ("Permiso".equals(s.getTipo()) && s.getCodigoPermiso() != null) {
+            detalle = s.getCodigoPermiso();
+        } else if ("Documento".equals(s.getTipo()) && s.getTipoDocumento() != null) {
+            detalle = s.getTipoDocumento();
+        }
 
-            modelo.addRow(new Object[]{
-                s.getIdSolicitud(),
-                s.getFecha(),
-                s.getAsunto(),
-                s.getTipo(),
-                detalle,
-                s.getEstadoEmisionDest(),
-                solicitante,
-                s.getIdUsuario()
-            });
+        String solicitante = usuarioDAO.obtenerNombreCompleto(s.getIdUsuario());
+        if (solicitante == null) {
+            solicitante = "";
         }
+
+        return new Object[]{
+            s.getIdSolicitud(),
+            s.getFecha(),
+            s.getAsunto(),
+            s.getTipo(),
+            detalle,
+            s.getEstadoEmisionDest(),
+            solicitante,
+            s.getIdUsuario()
+        };
     }
     
     /**
@@ -927,11 +1130,9 @@ public class SistemaGestionWindow extends JFrame {
         JTextField txtDetalle = new JTextField(20);
         
         // Cargar lista de Directores
-        List<Usuario> directores = usuarioDAO.obtenerTodos().stream()
-            .filter(u -> "Director".equals(u.getTipo()))
-            .toList();
+        List<UsuarioVista> directores = usuarioDAO.obtenerVistasPorTipo("Director");
         
-        for (Usuario director : directores) {
+        for (UsuarioVista director : directores) {
             cbDirector.addItem(director.getId() + " - " + director.getNombre() + " " + director.getApellido());
         }
         
@@ -1014,7 +1215,6 @@ public class SistemaGestionWindow extends JFrame {
                 JOptionPane.showMessageDialog(panel, "✓ Solicitud enviada exitosamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
                 txtAsunto.setText("");
                 txtDetalle.setText("");
-                cargarSolicitudesDirector(modelo);
             }
         });
         
@@ -1025,18 +1225,24 @@ public class SistemaGestionWindow extends JFrame {
         
         panel.add(formPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(cargaSolicitudesDirector.getIndicador(), BorderLayout.SOUTH);
         
+        // Estado cambiado por Jefatura (en este u otro cliente) o solicitud nueva
+        suscribirRecarga(EventoEntidad.Tipo.SOLICITUD, () -> cargarSolicitudesDirector(modelo));
         cargarSolicitudesDirector(modelo);
         
         return panel;
     }
     
     private void cargarSolicitudesDirector(DefaultTableModel modelo) {
-        modelo.setRowCount(0);
+        if (usuarioActual == null) {
+            modelo.setRowCount(0);
+            return;
+        }
         
-        if (usuarioActual != null) {
-            List<Solicitud> solicitudes = solicitudDAO.buscarPorUsuario(usuarioActual.getId());
-            for (Solicitud s : solicitudes) {
+        cargaSolicitudesDirector.cargar(() -> {
+            List<Object[]> filas = new ArrayList<>();
+            for (Solicitud s : solicitudDAO.buscarPorUsuario(usuarioActual.getId())) {
                 // Determinar detalle según tipo
                 String detalle = "";
                 if ("Permiso".equals(s.getTipo()) && s.getCodigoPermiso() != null) {
@@ -1045,7 +1251,7 @@ public class SistemaGestionWindow extends JFrame {
                     detalle = s.getTipoDocumento();
                 }
                 
-                modelo.addRow(new Object[]{
+                filas.add(new Object[]{
                     s.getIdSolicitud(), 
                     s.getFecha(), 
                     s.getAsunto(), 
@@ -1054,7 +1260,8 @@ public class SistemaGestionWindow extends JFrame {
                     s.getEstadoEmisionDest()
                 });
             }
-        }
+            return filas;
+        }, filas -> reemplazarFilas(modelo, filas));
     }
     
     // ======================== PANEL NOTIFICACIONES ========================
@@ -1063,7 +1270,7 @@ public class SistemaGestionWindow extends JFrame {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
-        String[] columnas = {"ID", "Fecha", "Información"};
+        String[] columnas = {"ID", "Fecha", "Información", "Estado"};
         DefaultTableModel modelo = new DefaultTableModel(columnas, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -1075,14 +1282,43 @@ public class SistemaGestionWindow extends JFrame {
         JScrollPane scrollPane = new JScrollPane(tabla);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Lista de Notificaciones"));
         
-        // Panel con botón actualizar
+        // Panel con botones de lectura y actualizar
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton btnMarcarLeidas = new JButton("✓ Marcar como leídas");
+        JButton btnMarcarTodas = new JButton("✓✓ Marcar todas");
         JButton btnActualizar = new JButton("🔄 Actualizar");
         btnActualizar.addActionListener(e -> cargarNotificaciones(modelo));
+        suscribirRecarga(EventoEntidad.Tipo.NOTIFICACION, () -> {
+            cargarNotificaciones(modelo);
+            actualizarContadorNoLeidas();
+        });
+        
+        // Las filas seleccionadas se marcan con una sola sentencia
+        btnMarcarLeidas.addActionListener(e -> {
+            int[] filas = tabla.getSelectedRows();
+            if (filas.length == 0) {
+                JOptionPane.showMessageDialog(panel, "Seleccione una o más notificaciones", "Advertencia", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (int fila : filas) {
+                ids.add((Integer) modelo.getValueAt(fila, 0));
+            }
+            int idUsuario = usuarioActual.getId();
+            CargaAsincrona.getEjecutor().execute(() -> notificacionDAO.marcarComoLeidas(idUsuario, ids));
+        });
+        btnMarcarTodas.addActionListener(e -> {
+            int idUsuario = usuarioActual.getId();
+            CargaAsincrona.getEjecutor().execute(() -> notificacionDAO.marcarTodasComoLeidas(idUsuario));
+        });
+        
+        topPanel.add(btnMarcarLeidas);
+        topPanel.add(btnMarcarTodas);
         topPanel.add(btnActualizar);
         
         panel.add(topPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(cargaNotificaciones.getIndicador(), BorderLayout.SOUTH);
         
         cargarNotificaciones(modelo);
         
@@ -1090,69 +1326,61 @@ public class SistemaGestionWindow extends JFrame {
     }
     
     private void cargarNotificaciones(DefaultTableModel modelo) {
-        modelo.setRowCount(0);
-        List<Notificacion> notificaciones = notificacionDAO.obtenerPorUsuario(usuarioActual.getId());
-        for (Notificacion n : notificaciones) {
-            modelo.addRow(new Object[]{n.getId(), n.getFecha(), n.getInformacion()});
+        cargaNotificaciones.cargar(() -> {
+            List<Object[]> filas = new ArrayList<>();
+            for (Notificacion n : notificacionDAO.obtenerPorUsuario(usuarioActual.getId(), MAX_NOTIFICACIONES)) {
+                filas.add(new Object[]{n.getId(), n.getFecha(), n.getInformacion(), n.obtenerEstadoLectura()});
+            }
+            return filas;
+        }, filas -> reemplazarFilas(modelo, filas));
+    }
+    
+    /**
+     * Muestra la cantidad de no leídas en el título de la pestaña.
+     * Lee el contador mantenido en la base, sin cargar las notificaciones.
+     */
+    private void actualizarContadorNoLeidas() {
+        if (usuarioActual == null) {
+            return;
         }
+        int idUsuario = usuarioActual.getId();
+        CargaAsincrona.getEjecutor().execute(() -> {
+            int noLeidas = notificacionDAO.contarNoLeidas(idUsuario);
+            SwingUtilities.invokeLater(() -> {
+                int indice = tabbedPane.indexOfComponent(panelNotificaciones);
+                if (indice >= 0) {
+                    tabbedPane.setTitleAt(indice, noLeidas > 0
+                        ? TITULO_NOTIFICACIONES + " (" + noLeidas + ")"
+                        : TITULO_NOTIFICACIONES);
+                }
+            });
+        });
     }
     
     /**
      * Verifica si los directores tienen formularios de ayudantes completos
-     * Si no los tienen, crea una notificación
+     * Si no los tienen, crea (o actualiza) una notificación por proyecto.
+     * Se ejecuta en segundo plano con una consulta agrupada para todos los proyectos.
      */
     private void verificarFormulariosDirectores() {
-        // Obtener todos los proyectos
-        List<Proyecto> proyectos = proyectoDAO.obtenerTodos();
-        
-        for (Proyecto proyecto : proyectos) {
-            verificarFormulariosProyecto(proyecto.getId());
-        }
+        CargaAsincrona.getEjecutor().execute(() -> {
+            List<FaltaAyudantes> faltas = proyectoDAO.obtenerFaltaAyudantes();
+            int cambios = notificacionDAO.sincronizarFaltaAyudantes(faltas, null);
+            System.out.println("Proyectos con falta de ayudantes: " + faltas.size() + ", notificaciones actualizadas: " + cambios);
+        });
     }
     
     /**
      * Verifica si un proyecto específico tiene formularios de ayudantes completos
-     * Si no, crea una notificación para su director
+     * Si no, crea (o actualiza) la notificación para su director
      */
     private void verificarFormulariosProyecto(int idProyecto) {
-        // Obtener el proyecto
-        Proyecto proyecto = proyectoDAO.obtenerPorId(idProyecto);
-        if (proyecto == null) return;
-        
-        // Obtener director del proyecto
-        Usuario director = usuarioDAO.obtenerPorId(proyecto.getIdUsuario());
-        
-        if (director != null && "Director".equals(director.getTipo())) {
-            // Contar formularios asociados SOLO a este proyecto
-            List<Formulario> todosFormularios = formularioDAO.obtenerTodos();
-            int ayudantesRegistrados = 0;
-            for (Formulario f : todosFormularios) {
-                if (f.getIdProyecto() == idProyecto) {
-                    ayudantesRegistrados++;
-                }
-            }
-            
-            int ayudantesRequeridos = proyecto.getNumeroDeDayudantesDelProyecto();
-            
-            // Si faltan ayudantes por registrar, crear notificación
-            if (ayudantesRegistrados < ayudantesRequeridos) {
-                String mensaje = String.format(
-                    "El proyecto '%s' requiere %d ayudante(s) pero solo tiene %d registrado(s). " +
-                    "Por favor, complete los formularios de ayudantes.",
-                    proyecto.getNombre(),
-                    ayudantesRequeridos,
-                    ayudantesRegistrados
-                );
-                
-                Notificacion notificacion = new Notificacion(
-                    mensaje,
-                    director.getId()
-                );
-                
-                notificacionDAO.insertar(notificacion);
-                System.out.println("Notificación creada para director: " + director.getNombre() + " del proyecto ID: " + idProyecto);
+        CargaAsincrona.getEjecutor().execute(() -> {
+            List<FaltaAyudantes> faltas = proyectoDAO.obtenerFaltaAyudantes(idProyecto);
+            if (notificacionDAO.sincronizarFaltaAyudantes(faltas, idProyecto) > 0) {
+                System.out.println("Notificación de ayudantes actualizada para el proyecto ID: " + idProyecto);
             }
-        }
+        });
     }
     
     // ======================== PANEL ENVIAR SOLICITUD (DIRECTOR) ========================
@@ -1317,20 +1545,22 @@ public class SistemaGestionWindow extends JFrame {
         scrollSol.setBorder(BorderFactory.createTitledBorder("📋 Solicitudes Enviadas"));
         tablaPanel.add(scrollSol, BorderLayout.CENTER);
         
-        // Método para cargar solicitudes usando controlador
-        Runnable cargarSolicitudes = () -> {
-            modeloSol.setRowCount(0);
-            List<Solicitud> solicitudes = controlador.obtenerSolicitudes();
+        tablaPanel.add(cargaSolicitudesEnviadas.getIndicador(), BorderLayout.SOUTH);
+        
+        // Método para cargar solicitudes usando controlador (en segundo plano)
+        Runnable cargarSolicitudes = () -> cargaSolicitudesEnviadas.cargar(() -> {
+            List<Object[]> filas = new ArrayList<>();
             SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-            for (Solicitud s : solicitudes) {
-                modeloSol.addRow(new Object[]{
+            for (Solicitud s : controlador.obtenerSolicitudes()) {
+                filas.add(new Object[]{
                     s.getIdSolicitud(),
                     s.getFecha() != null ? sdf.format(s.getFecha()) : "",
                     s.getAsunto(),
                     s.getEstadoEmisionDest()
                 });
             }
-        };
+            return filas;
+        }, filas -> reemplazarFilas(modeloSol, filas));
         
         // Eventos
         // Evento para guardar formulario usando controlador
@@ -1,239 +1,401 @@
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * DAO para operaciones CRUD sobre Solicitudes
- */
-public class SolicitudDAO {
-    private Connection connection;
-    
-    public SolicitudDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
-    /**
-     * Insertar una nueva solicitud (sobrecargado)
-     */
-    public boolean insertar(Solicitud solicitud) {
-        return insertar(solicitud, solicitud.getTipo(), solicitud.getCodigoPermiso(), solicitud.getTipoDocumento());
-    }
-    
-    /**
-     * Insertar una nueva solicitud con parámetros específicos
-     */
-    public boolean insertar(Solicitud solicitud, String tipo, String codigoPermiso, String tipoDocumento) {
-        String sql = "INSERT INTO solicitudes(fecha, asunto, estado, id_usuario, id_director, tipo, codigo_permiso, tipo_documento) VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setDate(1, new java.sql.Date(solicitud.getFecha().getTime()));
-            pstmt.setString(2, solicitud.getAsunto());
-            pstmt.setString(3, solicitud.getEstadoEmisionDest());
-            pstmt.setInt(4, solicitud.getIdUsuario());
-            pstmt.setInt(5, solicitud.getIdDirector());
-            pstmt.setString(6, tipo);
-            pstmt.setString(7, codigoPermiso);
-            pstmt.setString(8, tipoDocumento);
-            pstmt.executeUpdate();
-            System.out.println("Solicitud insertada: " + solicitud.getAsunto());
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error al insertar solicitud: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Obtener todas las solicitudes
-     */
-    public List<Solicitud> obtenerTodos() {
-        List<Solicitud> solicitudes = new ArrayList<>();
-        String sql = "SELECT * FROM solicitudes ORDER BY id";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Solicitud solicitud = new Solicitud(
-                    rs.getInt("id"),
-                    rs.getDate("fecha"),
-                    rs.getString("asunto"),
-                    rs.getString("estado"),
-                    rs.getInt("id_usuario")
-                );
-                solicitudes.add(solicitud);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener solicitudes: " + e.getMessage());
-        }
-        
-        return solicitudes;
-    }
-    
-    /**
-     * Obtener todas las solicitudes (alias para compatibilidad)
-     */
-    public List<Solicitud> obtenerTodas() {
-        return obtenerTodos();
-    }
-    
-    /**
-     * Obtener solicitud por ID
-     */
-    public Solicitud obtenerPorId(int id) {
-        String sql = "SELECT * FROM solicitudes WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return new Solicitud(
-                    rs.getInt("id"),
-                    rs.getDate("fecha"),
-                    rs.getString("asunto"),
-                    rs.getString("estado"),
-                    rs.getInt("id_usuario"),
-                    rs.getInt("id_director"),
-                    rs.getString("tipo"),
-                    rs.getString("codigo_permiso"),
-                    rs.getString("tipo_documento")
-                );
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener solicitud: " + e.getMessage());
-        }
-        
-        return null;
-    }
-    
-    /**
-     * Actualizar solicitud completa
-     */
-    public boolean actualizar(Solicitud solicitud) {
-        String sql = "UPDATE solicitudes SET fecha = ?, asunto = ?, estado = ?, id_usuario = ?, id_director = ?, tipo = ?, codigo_permiso = ?, tipo_documento = ? WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setDate(1, new java.sql.Date(solicitud.getFecha().getTime()));
-            pstmt.setString(2, solicitud.getAsunto());
-            pstmt.setString(3, solicitud.getEstadoEmisionDest());
-            pstmt.setInt(4, solicitud.getIdUsuario());
-            pstmt.setInt(5, solicitud.getIdDirector());
-            pstmt.setString(6, solicitud.getTipo());
-            pstmt.setString(7, solicitud.getCodigoPermiso());
-            pstmt.setString(8, solicitud.getTipoDocumento());
-            pstmt.setInt(9, solicitud.getIdSolicitud());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar solicitud: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Actualizar estado de solicitud
-     */
-    public boolean actualizarEstado(int id, String nuevoEstado) {
-        String sql = "UPDATE solicitudes SET estado = ? WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, nuevoEstado);
-            pstmt.setInt(2, id);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar estado: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Eliminar solicitud
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM solicitudes WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al eliminar solicitud: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Buscar solicitudes por estado
-     */
-    public List<Solicitud> buscarPorEstado(String estado) {
-        List<Solicitud> solicitudes = new ArrayList<>();
-        String sql = "SELECT * FROM solicitudes WHERE estado = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, estado);
-            
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Solicitud solicitud = new Solicitud(
-                    rs.getInt("id"),
-                    rs.getDate("fecha"),
-                    rs.getString("asunto"),
-                    rs.getString("estado"),
-                    rs.getInt("id_usuario"),
-                    rs.getInt("id_director"),
-                    rs.getString("tipo"),
-                    rs.getString("codigo_permiso"),
-                    rs.getString("tipo_documento")
-                );
-                solicitudes.add(solicitud);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al buscar solicitudes por estado: " + e.getMessage());
-        }
-        
-        return solicitudes;
-    }
-    
-    /**
-     * Buscar solicitudes por usuario
-     */
-    public List<Solicitud> obtenerPorUsuario(int idUsuario) {
-        List<Solicitud> solicitudes = new ArrayList<>();
-        String sql = "SELECT * FROM solicitudes WHERE id_usuario = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, idUsuario);
-            
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Solicitud solicitud = new Solicitud(
-                    rs.getInt("id"),
-                    rs.getDate("fecha"),
-                    rs.getString("asunto"),
-                    rs.getString("estado"),
-                    rs.getInt("id_usuario"),
-                    rs.getInt("id_director"),
-                    rs.getString("tipo"),
-                    rs.getString("codigo_permiso"),
-                    rs.getString("tipo_documento")
-                );
-                solicitudes.add(solicitud);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al buscar solicitudes por usuario: " + e.getMessage());
-        }
-        
-        return solicitudes;
-    }
-    
-    /**
-     * Buscar solicitudes por usuario (alias anterior)
-     */
-    public List<Solicitud> buscarPorUsuario(int idUsuario) {
-        return obtenerPorUsuario(idUsuario);
-    }
-}
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para operaciones CRUD sobre Solicitudes
+ */
+public class SolicitudDAO {
+    // Parámetros por sentencia en las actualizaciones por lote (SQLite admite 999 en versiones antiguas)
+    private static final int MAX_IDS_POR_SENTENCIA = 500;
+    
+    private final DatabaseConnection db;
+    
+    public SolicitudDAO() {
+        this.db = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Insertar una nueva solicitud (sobrecargado)
+     */
+    public boolean insertar(Solicitud solicitud) {
+        return insertar(solicitud, solicitud.getTipo(), solicitud.getCodigoPermiso(), solicitud.getTipoDocumento());
+    }
+    
+    /**
+     * Insertar una nueva solicitud con parámetros específicos
+     */
+    public boolean insertar(Solicitud solicitud, String tipo, String codigoPermiso, String tipoDocumento) {
+        String sql = "INSERT INTO solicitudes(fecha, asunto, estado, id_usuario, id_director, tipo, codigo_permiso, tipo_documento) VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try {
+            int id = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setDate(1, new java.sql.Date(solicitud.getFecha().getTime()));
+                    pstmt.setString(2, solicitud.getAsunto());
+                    pstmt.setString(3, solicitud.getEstadoEmisionDest());
+                    pstmt.setInt(4, solicitud.getIdUsuario());
+                    pstmt.setInt(5, solicitud.getIdDirector());
+                    pstmt.setString(6, tipo);
+                    pstmt.setString(7, codigoPermiso);
+                    pstmt.setString(8, tipoDocumento);
+                    pstmt.executeUpdate();
+                }
+                return DatabaseConnection.ultimoIdInsertado(conn);
+            });
+            solicitud.setIdSolicitud(id);
+            publicar(id, EventoEntidad.Operacion.INSERTADO);
+            System.out.println("Solicitud insertada: " + solicitud.getAsunto());
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar solicitud: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Obtener todas las solicitudes
+     */
+    public List<Solicitud> obtenerTodos() {
+        List<Solicitud> solicitudes = new ArrayList<>();
+        String sql = "SELECT * FROM solicitudes ORDER BY id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                Solicitud solicitud = new Solicitud(
+                    rs.getInt("id"),
+                    rs.getDate("fecha"),
+                    rs.getString("asunto"),
+                    rs.getString("estado"),
+                    rs.getInt("id_usuario")
+                );
+                solicitudes.add(solicitud);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener solicitudes: " + e.getMessage());
+        }
+        
+        return solicitudes;
+    }
+    
+    /**
+     * Obtener una página de solicitudes con paginación por clave (keyset)
+     * @param despuesDeId Último id de la página anterior (0 para la primera página)
+     * @param limite Cantidad máxima de solicitudes de la página
+     */
+    public List<Solicitud> obtenerPagina(int despuesDeId, int limite) {
+        List<Solicitud> solicitudes = new ArrayList<>();
+        String sql = "SELECT * FROM solicitudes WHERE id > ? ORDER BY id LIMIT ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, despuesDeId);
+            pstmt.setInt(2, limite);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    solicitudes.add(new Solicitud(
+                        rs.getInt("id"),
+                        rs.getDate("fecha"),
+                        rs.getString("asunto"),
+                        rs.getString("estado"),
+                        rs.getInt("id_usuario"),
+                        rs.getInt("id_director"),
+                        rs.getString("tipo"),
+                        rs.getString("codigo_permiso"),
+                        rs.getString("tipo_documento")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de solicitudes: " + e.getMessage());
+        }
+        
+        return solicitudes;
+    }
+    
+    /**
+     * Obtener todas las solicitudes (alias para compatibilidad)
+     */
+    public List<Solicitud> obtenerTodas() {
+        return obtenerTodos();
+    }
+    
+    /**
+     * Obtener solicitud por ID
+     */
+    public Solicitud obtenerPorId(int id) {
+        String sql = "SELECT * FROM solicitudes WHERE id = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return new Solicitud(
+                    rs.getInt("id"),
+                    rs.getDate("fecha"),
+                    rs.getString("asunto"),
+                    rs.getString("estado"),
+                    rs.getInt("id_usuario"),
+                    rs.getInt("id_director"),
+                    rs.getString("tipo"),
+                    rs.getString("codigo_permiso"),
+                    rs.getString("tipo_documento")
+                );
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener solicitud: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Actualizar solicitud completa
+     */
+    public boolean actualizar(Solicitud solicitud) {
+        String sql = "UPDATE solicitudes SET fecha = ?, asunto = ?, estado = ?, id_usuario = ?, id_director = ?, tipo = ?, codigo_permiso = ?, tipo_documento = ? WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setDate(1, new java.sql.Date(solicitud.getFecha().getTime()));
+                    pstmt.setString(2, solicitud.getAsunto());
+                    pstmt.setString(3, solicitud.getEstadoEmisionDest());
+                    pstmt.setInt(4, solicitud.getIdUsuario());
+                    pstmt.setInt(5, solicitud.getIdDirector());
+                    pstmt.setString(6, solicitud.getTipo());
+                    pstmt.setString(7, solicitud.getCodigoPermiso());
+                    pstmt.setString(8, solicitud.getTipoDocumento());
+                    pstmt.setInt(9, solicitud.getIdSolicitud());
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(solicitud.getIdSolicitud(), EventoEntidad.Operacion.ACTUALIZADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar solicitud: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Actualizar estado de solicitud
+     */
+    public boolean actualizarEstado(int id, String nuevoEstado) {
+        String sql = "UPDATE solicitudes SET estado = ? WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, nuevoEstado);
+                    pstmt.setInt(2, id);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(id, EventoEntidad.Operacion.ACTUALIZADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar estado: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Cambia el estado de varias solicitudes en una sola transacción
+     * Cada bloque de ids se actualiza con un único UPDATE ... WHERE id IN (...); las
+     * solicitudes que ya tenían ese estado no se tocan ni se devuelven.
+     * @return Solicitudes que cambiaron de estado (ya con el estado nuevo)
+     */
+    public List<Solicitud> actualizarEstadoLote(List<Integer> ids, String nuevoEstado) {
+        List<Solicitud> cambiadas = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return cambiadas;
+        }
+        
+        try {
+            // Se leen en la misma transacción para devolver exactamente las filas cambiadas
+            cambiadas = db.ejecutarTransaccion(conn -> actualizarEstadoLote(conn, ids, nuevoEstado));
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar estado de solicitudes: " + e.getMessage());
+            return new ArrayList<>();
+        }
+        
+        publicarActualizadas(cambiadas);
+        return cambiadas;
+    }
+    
+    /**
+     * Variante de actualizarEstadoLote sobre una conexión que ya está dentro de una
+     * transacción (para combinarla con otras escrituras). No publica eventos: después
+     * del commit hay que llamar a publicarActualizadas.
+     * @return Solicitudes que cambiaron de estado
+     */
+    public List<Solicitud> actualizarEstadoLote(Connection conn, List<Integer> ids, String nuevoEstado) throws SQLException {
+        List<Solicitud> resultado = new ArrayList<>();
+        for (int desde = 0; desde < ids.size(); desde += MAX_IDS_POR_SENTENCIA) {
+            List<Integer> bloque = ids.subList(desde, Math.min(ids.size(), desde + MAX_IDS_POR_SENTENCIA));
+            String marcadores = marcadores(bloque.size());
+            
+            String sqlLeer = "SELECT * FROM solicitudes WHERE estado IS NOT ? AND id IN (" + marcadores + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlLeer)) {
+                pstmt.setString(1, nuevoEstado);
+                for (int i = 0; i < bloque.size(); i++) {
+                    pstmt.setInt(i + 2, bloque.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        resultado.add(new Solicitud(
+                            rs.getInt("id"),
+                            rs.getDate("fecha"),
+                            rs.getString("asunto"),
+                            nuevoEstado,
+                            rs.getInt("id_usuario"),
+                            rs.getInt("id_director"),
+                            rs.getString("tipo"),
+                            rs.getString("codigo_permiso"),
+                            rs.getString("tipo_documento")
+                        ));
+                    }
+                }
+            }
+            
+            String sqlActualizar = "UPDATE solicitudes SET estado = ? WHERE estado IS NOT ? AND id IN (" + marcadores + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlActualizar)) {
+                pstmt.setString(1, nuevoEstado);
+                pstmt.setString(2, nuevoEstado);
+                for (int i = 0; i < bloque.size(); i++) {
+                    pstmt.setInt(i + 3, bloque.get(i));
+                }
+                pstmt.executeUpdate();
+            }
+        }
+        return resultado;
+    }
+    
+    /**
+     * Publica en BusEventos las solicitudes cambiadas dentro de una transacción ya confirmada
+     */
+    public void publicarActualizadas(List<Solicitud> cambiadas) {
+        for (Solicitud solicitud : cambiadas) {
+            publicar(solicitud.getIdSolicitud(), EventoEntidad.Operacion.ACTUALIZADO);
+        }
+    }
+    
+    private static String marcadores(int cantidad) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cantidad; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Eliminar solicitud
+     */
+    public boolean eliminar(int id) {
+        String sql = "DELETE FROM solicitudes WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, id);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(id, EventoEntidad.Operacion.ELIMINADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar solicitud: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Buscar solicitudes por estado
+     */
+    public List<Solicitud> buscarPorEstado(String estado) {
+        List<Solicitud> solicitudes = new ArrayList<>();
+        String sql = "SELECT * FROM solicitudes WHERE estado = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, estado);
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Solicitud solicitud = new Solicitud(
+                    rs.getInt("id"),
+                    rs.getDate("fecha"),
+                    rs.getString("asunto"),
+                    rs.getString("estado"),
+                    rs.getInt("id_usuario"),
+                    rs.getInt("id_director"),
+                    rs.getString("tipo"),
+                    rs.getString("codigo_permiso"),
+                    rs.getString("tipo_documento")
+                );
+                solicitudes.add(solicitud);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar solicitudes por estado: " + e.getMessage());
+        }
+        
+        return solicitudes;
+    }
+    
+    /**
+     * Buscar solicitudes por usuario
+     */
+    public List<Solicitud> obtenerPorUsuario(int idUsuario) {
+        List<Solicitud> solicitudes = new ArrayList<>();
+        String sql = "SELECT * FROM solicitudes WHERE id_usuario = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsuario);
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Solicitud solicitud = new Solicitud(
+                    rs.getInt("id"),
+                    rs.getDate("fecha"),
+                    rs.getString("asunto"),
+                    rs.getString("estado"),
+                    rs.getInt("id_usuario"),
+                    rs.getInt("id_director"),
+                    rs.getString("tipo"),
+                    rs.getString("codigo_permiso"),
+                    rs.getString("tipo_documento")
+                );
+                solicitudes.add(solicitud);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar solicitudes por usuario: " + e.getMessage());
+        }
+        
+        return solicitudes;
+    }
+    
+    /**
+     * Buscar solicitudes por usuario (alias anterior)
+     */
+    public List<Solicitud> buscarPorUsuario(int idUsuario) {
+        return obtenerPorUsuario(idUsuario);
+    }
+    
+    private static void publicar(int id, EventoEntidad.Operacion operacion) {
+        BusEventos.getInstance().publicar(EventoEntidad.Tipo.SOLICITUD, id, operacion);
+    }
+}
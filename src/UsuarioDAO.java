@@ -1,207 +1,447 @@
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * DAO para operaciones CRUD sobre Usuarios
- */
-public class UsuarioDAO {
-    private Connection connection;
-    
-    public UsuarioDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
-    /**
-     * Insertar un nuevo usuario
-     */
-    public boolean insertar(Usuario usuario, String tipo) {
-        String sql = "INSERT INTO usuarios(nombre, apellido, correo, contraseña, tipo) VALUES(?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, usuario.getNombre());
-            pstmt.setString(2, usuario.getApellido());
-            pstmt.setString(3, usuario.getCorreo());
-            pstmt.setString(4, usuario.getContraseña());
-            pstmt.setString(5, tipo);
-            pstmt.executeUpdate();
-            System.out.println("Usuario insertado: " + usuario.getNombre());
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error al insertar usuario: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Obtener todos los usuarios
-     */
-    public List<Usuario> obtenerTodos() {
-        List<Usuario> usuarios = new ArrayList<>();
-        String sql = "SELECT * FROM usuarios ORDER BY id";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                String tipo = rs.getString("tipo");
-                Usuario usuario;
-                
-                // Crear instancia según el tipo
-                if ("Director".equals(tipo)) {
-                    usuario = new Director(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getString("apellido"),
-                        rs.getString("correo"),
-                        rs.getString("contraseña")
-                    );
-                } else if ("Jefatura".equals(tipo)) {
-                    usuario = new Jefatura(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getString("apellido"),
-                        rs.getString("correo"),
-                        rs.getString("contraseña")
-                    );
-                } else {
-                    usuario = new Usuario(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getString("apellido"),
-                        rs.getString("correo"),
-                        rs.getString("contraseña")
-                    );
-                }
-                
-                // Asignar tipo al usuario
-                usuario.setTipo(tipo);
-                usuarios.add(usuario);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener usuarios: " + e.getMessage());
-        }
-        
-        return usuarios;
-    }
-    
-    /**
-     * Obtener usuario por ID
-     */
-    public Usuario obtenerPorId(int id) {
-        String sql = "SELECT * FROM usuarios WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                String tipo = rs.getString("tipo");
-                Usuario usuario;
-                
-                // Crear instancia según el tipo
-                if ("Director".equals(tipo)) {
-                    usuario = new Director(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getString("apellido"),
-                        rs.getString("correo"),
-                        rs.getString("contraseña")
-                    );
-                } else if ("Jefatura".equals(tipo)) {
-                    usuario = new Jefatura(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getString("apellido"),
-                        rs.getString("correo"),
-                        rs.getString("contraseña")
-                    );
-                } else {
-                    usuario = new Usuario(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getString("apellido"),
-                        rs.getString("correo"),
-                        rs.getString("contraseña")
-                    );
-                }
-                
-                // Asignar tipo al usuario
-                usuario.setTipo(tipo);
-                return usuario;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener usuario: " + e.getMessage());
-        }
-        
-        return null;
-    }
-    
-    /**
-     * Actualizar usuario
-     */
-    public boolean actualizar(Usuario usuario) {
-        String sql = "UPDATE usuarios SET nombre = ?, apellido = ?, correo = ?, contraseña = ? WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, usuario.getNombre());
-            pstmt.setString(2, usuario.getApellido());
-            pstmt.setString(3, usuario.getCorreo());
-            pstmt.setString(4, usuario.getContraseña());
-            pstmt.setInt(5, usuario.getId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar usuario: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Eliminar usuario
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM usuarios WHERE id = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al eliminar usuario: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Buscar usuarios por nombre o correo
-     */
-    public List<Usuario> buscar(String texto) {
-        List<Usuario> usuarios = new ArrayList<>();
-        String sql = "SELECT * FROM usuarios WHERE nombre LIKE ? OR apellido LIKE ? OR correo LIKE ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            String pattern = "%" + texto + "%";
-            pstmt.setString(1, pattern);
-            pstmt.setString(2, pattern);
-            pstmt.setString(3, pattern);
-            
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Usuario usuario = new Usuario(
-                    rs.getInt("id"),
-                    rs.getString("nombre"),
-                    rs.getString("apellido"),
-                    rs.getString("correo"),
-                    rs.getString("contraseña")
-                );
-                usuarios.add(usuario);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al buscar usuarios: " + e.getMessage());
-        }
-        
-        return usuarios;
-    }
-}
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * DAO para operaciones CRUD sobre Usuarios
+ */
+public class UsuarioDAO {
+    // Columnas de las filas de solo lectura (sin contraseña)
+    private static final String SELECT_VISTA = "SELECT id, nombre, apellido, correo, tipo FROM usuarios ";
+    
+    // Nombres para mostrar por id (directores de proyectos, solicitantes)
+    private static final CacheNombresUsuario NOMBRES = CacheNombresUsuario.getInstance();
+    
+    private final DatabaseConnection db;
+    
+    public UsuarioDAO() {
+        this.db = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Insertar un nuevo usuario
+     */
+    public boolean insertar(Usuario usuario, String tipo) {
+        String sql = "INSERT INTO usuarios(nombre, apellido, correo, contraseña, tipo) VALUES(?, ?, ?, ?, ?)";
+        
+        try {
+            int id = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, usuario.getNombre());
+                    pstmt.setString(2, usuario.getApellido());
+                    pstmt.setString(3, usuario.getCorreo());
+                    pstmt.setString(4, protegerContraseña(usuario.getContraseña()));
+                    pstmt.setString(5, tipo);
+                    pstmt.executeUpdate();
+                }
+                return DatabaseConnection.ultimoIdInsertado(conn);
+            });
+            if (id > 0) {
+                usuario.setId(id);
+                publicar(id, EventoEntidad.Operacion.INSERTADO);
+                NOMBRES.guardar(id, nombreCompleto(usuario.getNombre(), usuario.getApellido()));
+            }
+            System.out.println("Usuario insertado: " + usuario.getNombre());
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al insertar usuario: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Obtener todos los usuarios
+     */
+    public List<Usuario> obtenerTodos() {
+        List<Usuario> usuarios = new ArrayList<>();
+        String sql = "SELECT * FROM usuarios ORDER BY id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                usuarios.add(crearUsuario(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener usuarios: " + e.getMessage());
+        }
+        
+        return usuarios;
+    }
+    
+    /**
+     * Obtener una página de usuarios con paginación por clave (keyset)
+     * @param despuesDeId Último id de la página anterior (0 para la primera página)
+     * @param limite Cantidad máxima de usuarios de la página
+     */
+    public List<Usuario> obtenerPagina(int despuesDeId, int limite) {
+        List<Usuario> usuarios = new ArrayList<>();
+        String sql = "SELECT * FROM usuarios WHERE id > ? ORDER BY id LIMIT ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, despuesDeId);
+            pstmt.setInt(2, limite);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    usuarios.add(crearUsuario(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de usuarios: " + e.getMessage());
+        }
+        
+        return usuarios;
+    }
+    
+    /**
+     * Obtener usuario por ID
+     */
+    public Usuario obtenerPorId(int id) {
+        String sql = "SELECT * FROM usuarios WHERE id = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return crearUsuario(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener usuario: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Buscar usuario por correo (usa el índice único de correo)
+     * Siempre lee la base: la fila incluye el hash de la contraseña y otro cliente
+     * puede haberla cambiado o eliminado
+     */
+    public Usuario buscarPorCorreo(String correo) {
+        if (correo == null) {
+            return null;
+        }
+        
+        String sql = "SELECT * FROM usuarios WHERE correo = ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, correo);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return crearUsuario(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar usuario por correo: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Actualizar solo la contraseña de un usuario (se guarda con hash)
+     */
+    public boolean actualizarContraseña(int id, String contraseña) {
+        String sql = "UPDATE usuarios SET contraseña = ? WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, protegerContraseña(contraseña));
+                    pstmt.setInt(2, id);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                publicar(id, EventoEntidad.Operacion.ACTUALIZADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar contraseña: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Actualizar usuario
+     */
+    public boolean actualizar(Usuario usuario) {
+        String sql = "UPDATE usuarios SET nombre = ?, apellido = ?, correo = ?, contraseña = ? WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, usuario.getNombre());
+                    pstmt.setString(2, usuario.getApellido());
+                    pstmt.setString(3, usuario.getCorreo());
+                    pstmt.setString(4, protegerContraseña(usuario.getContraseña()));
+                    pstmt.setInt(5, usuario.getId());
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (affectedRows > 0) {
+                NOMBRES.guardar(usuario.getId(), nombreCompleto(usuario.getNombre(), usuario.getApellido()));
+                publicar(usuario.getId(), EventoEntidad.Operacion.ACTUALIZADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar usuario: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Eliminar usuario
+     */
+    public boolean eliminar(int id) {
+        String sql = "DELETE FROM usuarios WHERE id = ?";
+        
+        try {
+            int affectedRows = db.ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, id);
+                    return pstmt.executeUpdate();
+                }
+            });
+            NOMBRES.invalidar(id);
+            if (affectedRows > 0) {
+                publicar(id, EventoEntidad.Operacion.ELIMINADO);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar usuario: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Buscar usuarios por nombre, apellido o correo (texto completo, ordenados por relevancia)
+     */
+    public List<Usuario> buscar(String texto) {
+        return buscar(texto, -1, 0);
+    }
+    
+    /**
+     * Buscar usuarios con texto completo: cada palabra se busca como prefijo y sin
+     * distinguir acentos; los resultados se ordenan por relevancia (bm25)
+     * @param limite Cantidad máxima de resultados (-1 sin límite)
+     * @param desplazamiento Cantidad de resultados a saltar (para paginar)
+     */
+    public List<Usuario> buscar(String texto, int limite, int desplazamiento) {
+        List<Usuario> usuarios = new ArrayList<>();
+        String consulta = ConsultaFTS.prefijos(texto);
+        if (consulta == null) {
+            return usuarios;
+        }
+        String sql = "SELECT u.* FROM usuarios_fts " +
+                     "INNER JOIN usuarios u ON u.id = usuarios_fts.rowid " +
+                     "WHERE usuarios_fts MATCH ? " +
+                     "ORDER BY bm25(usuarios_fts, 5.0, 5.0, 1.0), u.id " +
+                     "LIMIT ? OFFSET ?";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, consulta);
+            pstmt.setInt(2, limite);
+            pstmt.setInt(3, desplazamiento);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    usuarios.add(crearUsuario(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar usuarios: " + e.getMessage());
+        }
+        
+        return usuarios;
+    }
+    
+    /**
+     * Obtener una página de usuarios como filas de solo lectura (paginación por clave)
+     */
+    public List<UsuarioVista> obtenerPaginaVistas(int despuesDeId, int limite) {
+        String sql = SELECT_VISTA + "WHERE id > ? ORDER BY id LIMIT ?";
+        return consultarVistas(sql, despuesDeId, limite);
+    }
+    
+    /**
+     * Obtener los usuarios de un tipo (Director, Jefatura, Usuario) como filas de solo lectura
+     */
+    public List<UsuarioVista> obtenerVistasPorTipo(String tipo) {
+        List<UsuarioVista> usuarios = new ArrayList<>();
+        String sql = SELECT_VISTA + "WHERE tipo = ? ORDER BY id";
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, tipo);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    usuarios.add(crearVista(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener usuarios por tipo: " + e.getMessage());
+        }
+        
+        return usuarios;
+    }
+    
+    /**
+     * Obtener un usuario por ID como fila de solo lectura
+     */
+    public UsuarioVista obtenerVistaPorId(int id) {
+        List<UsuarioVista> usuarios = consultarVistas(SELECT_VISTA + "WHERE id = ?", id);
+        return usuarios.isEmpty() ? null : usuarios.get(0);
+    }
+    
+    /**
+     * Nombre para mostrar ("Nombre Apellido") de un usuario, o null si no existe.
+     * Se resuelve desde CacheNombresUsuario y solo consulta la base en un fallo.
+     */
+    public String obtenerNombreCompleto(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        String nombre = NOMBRES.obtener(id);
+        if (nombre == null) {
+            precargarNombres(List.of(id));
+            nombre = NOMBRES.obtener(id);
+        }
+        return nombre;
+    }
+    
+    /**
+     * Carga en CacheNombresUsuario, con una sola consulta, los nombres de los ids
+     * que aún no están en caché (por ejemplo, los directores de una página de proyectos)
+     */
+    public void precargarNombres(Collection<Integer> ids) {
+        List<Integer> faltantes = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            if (id != null && id > 0 && !NOMBRES.contiene(id)) {
+                faltantes.add(id);
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return;
+        }
+        
+        // Un marcador por id; las páginas de la interfaz no superan el límite de parámetros de SQLite
+        StringBuilder sql = new StringBuilder("SELECT id, nombre, apellido FROM usuarios WHERE id IN (");
+        for (int i = 0; i < faltantes.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < faltantes.size(); i++) {
+                pstmt.setInt(i + 1, faltantes.get(i));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    NOMBRES.guardar(rs.getInt("id"), nombreCompleto(rs.getString("nombre"), rs.getString("apellido")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al precargar nombres de usuarios: " + e.getMessage());
+        }
+    }
+    
+    private List<UsuarioVista> consultarVistas(String sql, int... parametros) {
+        List<UsuarioVista> usuarios = new ArrayList<>();
+        
+        try (Connection conn = db.obtenerConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                pstmt.setInt(i + 1, parametros[i]);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    usuarios.add(crearVista(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener vista de usuarios: " + e.getMessage());
+        }
+        
+        return usuarios;
+    }
+    
+    private UsuarioVista crearVista(ResultSet rs) throws SQLException {
+        return new UsuarioVista(
+            rs.getInt("id"),
+            rs.getString("nombre"),
+            rs.getString("apellido"),
+            rs.getString("correo"),
+            rs.getString("tipo")
+        );
+    }
+    
+    /**
+     * Crea la instancia de usuario según el tipo guardado en la fila actual
+     */
+    private Usuario crearUsuario(ResultSet rs) throws SQLException {
+        String tipo = rs.getString("tipo");
+        Usuario usuario;
+        
+        if ("Director".equals(tipo)) {
+            usuario = new Director(
+                rs.getInt("id"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                rs.getString("correo"),
+                rs.getString("contraseña")
+            );
+        } else if ("Jefatura".equals(tipo)) {
+            usuario = new Jefatura(
+                rs.getInt("id"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                rs.getString("correo"),
+                rs.getString("contraseña")
+            );
+        } else {
+            usuario = new Usuario(
+                rs.getInt("id"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                rs.getString("correo"),
+                rs.getString("contraseña")
+            );
+        }
+        
+        usuario.setTipo(tipo);
+        return usuario;
+    }
+    
+    /**
+     * Nunca se guarda la contraseña en texto plano
+     */
+    private static String protegerContraseña(String contraseña) {
+        if (contraseña == null || HashContrasena.esHash(contraseña)) {
+            return contraseña;
+        }
+        return HashContrasena.generar(contraseña);
+    }
+    
+    private static String nombreCompleto(String nombre, String apellido) {
+        return nombre + " " + apellido;
+    }
+    
+    private static void publicar(int id, EventoEntidad.Operacion operacion) {
+        BusEventos.getInstance().publicar(EventoEntidad.Tipo.USUARIO, id, operacion);
+    }
+}
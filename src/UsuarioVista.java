@@ -0,0 +1,55 @@
+/**
+ * Fila de solo lectura de un usuario para listados y combos
+ * No incluye la contraseña ni el comportamiento del rol (ver DirectorService
+ * y JefaturaService), por lo que es barata de crear para muchas filas.
+ */
+public final class UsuarioVista {
+    private final int id;
+    private final String nombre;
+    private final String apellido;
+    private final String correo;
+    private final String tipo;
+
+    public UsuarioVista(int id, String nombre, String apellido, String correo, String tipo) {
+        this.id = id;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.correo = correo;
+        this.tipo = tipo;
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public String getCorreo() {
+        return correo;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getNombreCompleto() {
+        return nombre + " " + apellido;
+    }
+
+    @Override
+    public String toString() {
+        return "UsuarioVista{" +
+                "id=" + id +
+                ", nombre='" + getNombreCompleto() + '\'' +
+                ", correo='" + correo + '\'' +
+                ", tipo='" + tipo + '\'' +
+                '}';
+    }
+}
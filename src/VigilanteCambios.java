@@ -0,0 +1,273 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detecta los cambios hechos por otros clientes sobre el mismo archivo SQLite
+ * Usa una conexión propia de solo lectura y consulta PRAGMA data_version, que cambia
+ * cuando otra conexión confirma una escritura y no lee tablas: sin cambios, cada
+ * revisión cuesta una sola llamada. Cuando cambia, lee las filas nuevas de
+ * registro_cambios (las llenan triggers en cada tabla) y las publica en BusEventos,
+ * que las entrega solo a las pestañas abiertas suscritas a esa entidad.
+ * Las escrituras de este mismo proceso ya las publicaron los DAO: DatabaseConnection
+ * informa sus ids de registro_cambios con ignorar() y aquí se descartan, porque volver
+ * a publicarlas haría que cada pestaña consultara otra vez cada fila afectada.
+ * Los cambios de usuarios también invalidan CacheNombresUsuario. Si el registro ya se
+ * depuró más allá del último cambio visto (vigilante detenido más de una hora), no se
+ * sabe qué filas cambiaron y se publica una recarga completa de cada entidad.
+ */
+public class VigilanteCambios {
+    private static final int FILAS_POR_LECTURA = 500;
+    // Antigüedad a partir de la cual se borran entradas del registro (segundos)
+    private static final long RETENCION_REGISTRO_S = 3600;
+    private static final long PERIODO_LIMPIEZA_MS = 10 * 60 * 1000;
+    // AUTOINCREMENT no reutiliza ids: sqlite_sequence guarda el último asignado aunque se borre
+    private static final String SQL_ULTIMO_ASIGNADO =
+        "SELECT COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'registro_cambios'), " +
+        "(SELECT MAX(id) FROM registro_cambios), 0)";
+
+    private final String url;
+    private final PerfilAlmacenamiento perfil;
+    private final long intervaloMs;
+    private final ScheduledExecutorService programador;
+
+    private Connection conexion;
+    private long ultimaVersion = -1;
+    private volatile long ultimoCambio = -1;
+    // Ids de registro_cambios generados por las escrituras de este proceso
+    private final ConcurrentSkipListSet<Long> propios = new ConcurrentSkipListSet<>();
+    private long ultimaLimpieza;
+
+    public VigilanteCambios(String url, PerfilAlmacenamiento perfil, long intervaloMs) {
+        this.url = url;
+        this.perfil = perfil;
+        this.intervaloMs = intervaloMs;
+        this.programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vigilante-cambios");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Empieza a revisar la base cada intervaloMs
+     */
+    public void iniciar() {
+        ultimaLimpieza = System.currentTimeMillis();
+        programador.scheduleWithFixedDelay(this::revisar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void detener() {
+        programador.shutdownNow();
+        try {
+            // La conexión se cierra después de que termine la revisión en curso
+            programador.awaitTermination(intervaloMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cerrarConexion();
+    }
+
+    private void revisar() {
+        try {
+            Connection conn = conexion();
+            long version = leerVersion(conn);
+            if (version != ultimaVersion) {
+                ultimaVersion = version;
+                leerRegistro(conn);
+            }
+            if (System.currentTimeMillis() - ultimaLimpieza >= PERIODO_LIMPIEZA_MS) {
+                ultimaLimpieza = System.currentTimeMillis();
+                limpiarRegistro();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al revisar cambios de la base de datos: " + e.getMessage());
+            // Se reabre en la siguiente revisión
+            cerrarConexion();
+        }
+    }
+
+    private Connection conexion() throws SQLException {
+        if (conexion == null) {
+            Connection conn = DriverManager.getConnection(url);
+            try {
+                perfil.aplicar(conn, false);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA query_only = 1");
+                }
+                // Solo interesan los cambios posteriores a la apertura. Se parte del último id
+                // asignado (no del máximo presente) para no confundir una depuración con un hueco
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SQL_ULTIMO_ASIGNADO)) {
+                    if (ultimoCambio < 0) {
+                        ultimoCambio = rs.next() ? rs.getLong(1) : 0;
+                    }
+                }
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+            conexion = conn;
+        }
+        return conexion;
+    }
+
+    /**
+     * Ids de registro_cambios que produjo este proceso y que no hay que volver a publicar
+     * (se puede llamar desde cualquier hilo)
+     */
+    public void ignorar(Collection<Long> ids) {
+        long visto = ultimoCambio;
+        for (long id : ids) {
+            // Los que el vigilante ya pasó no volverán a leerse
+            if (id > visto) {
+                propios.add(id);
+            }
+        }
+    }
+
+    private static long leerVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private void leerRegistro(Connection conn) throws SQLException {
+        String sql = "SELECT id, tabla, id_fila, operacion FROM registro_cambios WHERE id > ? ORDER BY id LIMIT ?";
+        BusEventos bus = BusEventos.getInstance();
+        if (hayHueco(conn)) {
+            return;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int leidas;
+            do {
+                pstmt.setLong(1, ultimoCambio);
+                pstmt.setInt(2, FILAS_POR_LECTURA);
+                leidas = 0;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        leidas++;
+                        ultimoCambio = rs.getLong("id");
+                        if (propios.remove(ultimoCambio)) {
+                            continue;
+                        }
+                        EventoEntidad.Tipo tipo = tipoDeTabla(rs.getString("tabla"));
+                        EventoEntidad.Operacion operacion = operacion(rs.getString("operacion"));
+                        if (tipo == EventoEntidad.Tipo.USUARIO) {
+                            // Renombrado o eliminado desde otro cliente
+                            CacheNombresUsuario.getInstance().invalidar(rs.getInt("id_fila"));
+                        }
+                        if (tipo != null && operacion == EventoEntidad.Operacion.RECARGA) {
+                            bus.publicarRecarga(tipo);
+                        } else if (tipo != null && operacion != null) {
+                            bus.publicar(tipo, rs.getInt("id_fila"), operacion);
+                        }
+                    }
+                }
+            } while (leidas == FILAS_POR_LECTURA);
+        }
+        // Ids propios borrados antes de leerse (por ejemplo, por la retención)
+        propios.headSet(ultimoCambio, true).clear();
+    }
+
+    /**
+     * Detecta si limpiarRegistro (de este u otro cliente) borró entradas que este vigilante
+     * no llegó a leer. En ese caso publica una recarga de todas las entidades, vacía
+     * CacheNombresUsuario y sigue desde el último id asignado.
+     */
+    private boolean hayHueco(Connection conn) throws SQLException {
+        long minimo;
+        long ultimoAsignado;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(id) FROM registro_cambios")) {
+            rs.next();
+            minimo = rs.getLong(1);
+            if (rs.wasNull()) {
+                minimo = -1;
+            }
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_ULTIMO_ASIGNADO)) {
+            ultimoAsignado = rs.next() ? rs.getLong(1) : 0;
+        }
+
+        boolean hueco = minimo >= 0 ? minimo > ultimoCambio + 1 : ultimoAsignado > ultimoCambio;
+        if (!hueco) {
+            return false;
+        }
+        System.out.println("Registro de cambios: se perdieron entradas desde " + ultimoCambio + ", recargando todo");
+        ultimoCambio = ultimoAsignado;
+        propios.headSet(ultimoAsignado, true).clear();
+        CacheNombresUsuario.getInstance().limpiar();
+        BusEventos bus = BusEventos.getInstance();
+        for (EventoEntidad.Tipo tipo : EventoEntidad.Tipo.values()) {
+            bus.publicarRecarga(tipo);
+        }
+        return true;
+    }
+
+    /**
+     * Borra las entradas antiguas del registro (por la conexión de escritura del pool)
+     */
+    private void limpiarRegistro() {
+        String sql = "DELETE FROM registro_cambios WHERE fecha < CAST(strftime('%s', 'now') AS INTEGER) - ?";
+        try {
+            int borradas = DatabaseConnection.getInstance().ejecutarEscritura(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setLong(1, RETENCION_REGISTRO_S);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (borradas > 0) {
+                System.out.println("Registro de cambios: " + borradas + " entradas antiguas borradas");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al limpiar registro de cambios: " + e.getMessage());
+        }
+    }
+
+    private static EventoEntidad.Tipo tipoDeTabla(String tabla) {
+        switch (tabla) {
+            case "usuarios": return EventoEntidad.Tipo.USUARIO;
+            case "proyectos": return EventoEntidad.Tipo.PROYECTO;
+            case "formularios": return EventoEntidad.Tipo.FORMULARIO;
+            case "solicitudes": return EventoEntidad.Tipo.SOLICITUD;
+            case "notificaciones": return EventoEntidad.Tipo.NOTIFICACION;
+            default: return null;
+        }
+    }
+
+    private static EventoEntidad.Operacion operacion(String codigo) {
+        switch (codigo) {
+            case "I": return EventoEntidad.Operacion.INSERTADO;
+            case "U": return EventoEntidad.Operacion.ACTUALIZADO;
+            case "D": return EventoEntidad.Operacion.ELIMINADO;
+            // Cambio masivo (por ejemplo, la retención de notificaciones) registrado como una sola entrada
+            case "R": return EventoEntidad.Operacion.RECARGA;
+            default: return null;
+        }
+    }
+
+    private void cerrarConexion() {
+        if (conexion != null) {
+            try {
+                conexion.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar conexión: " + e.getMessage());
+            }
+            conexion = null;
+            // Al reabrir se lee el registro desde el último cambio visto
+            ultimaVersion = -1;
+        }
+    }
+}